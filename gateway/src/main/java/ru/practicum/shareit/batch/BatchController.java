@@ -0,0 +1,42 @@
+package ru.practicum.shareit.batch;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.batch.dto.BatchRequestEntry;
+import ru.practicum.shareit.batch.dto.BatchResponseEntry;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.Size;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+@Slf4j
+@Controller
+@RequestMapping("/batch")
+@Validated
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final BatchDispatcher batchDispatcher;
+
+    @PostMapping
+    public CompletableFuture<ResponseEntity<List<BatchResponseEntry>>> postBatch(
+            HttpServletRequest request,
+            @RequestHeader(value = header, required = false) @Positive Long userId,
+            @RequestBody @Size(min = 1, max = 20, message = "Batch must contain from 1 to 20 entries!")
+            List<@Valid BatchRequestEntry> entries) {
+        log.debug("Id-{} {} {} {} entries", userId, request.getMethod(), request.getRequestURI(), entries.size());
+        return batchDispatcher.dispatch(request, entries)
+                .thenApply(responses -> new ResponseEntity<>(responses, HttpStatus.OK));
+    }
+
+}
@@ -0,0 +1,196 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.RegistrationBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.DispatcherServlet;
+import ru.practicum.shareit.batch.dto.BatchRequestEntry;
+import ru.practicum.shareit.batch.dto.BatchResponseEntry;
+import ru.practicum.shareit.client.ServerCallTimer;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.Servlet;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Runs batch entries in-process through the registered filters and the dispatcher servlet, so each entry is
+ * routed, rate-limited, validated, logged and timed exactly like a standalone call to its path, without taking
+ * another servlet thread. With the reactive transport the entries run concurrently; with the blocking one
+ * they run one after another on the thread of the batch request.
+ */
+@Slf4j
+@Service
+public class BatchDispatcher {
+
+    private final Servlet dispatcherServlet;
+    private final ObjectProvider<FilterRegistrationBean<?>> filterRegistrations;
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private volatile List<Filter> filters;
+
+    public BatchDispatcher(DispatcherServlet dispatcherServlet,
+                           ObjectProvider<FilterRegistrationBean<?>> filterRegistrations,
+                           ObjectMapper objectMapper,
+                           @Value("${shareit-gateway.batch.timeout:10s}") Duration timeout) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.filterRegistrations = filterRegistrations;
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+    }
+
+    public CompletableFuture<List<BatchResponseEntry>> dispatch(HttpServletRequest request,
+                                                                List<BatchRequestEntry> entries) {
+        List<CompletableFuture<BatchResponseEntry>> responses = entries.stream()
+                .map(entry -> dispatch(request, entry))
+                .collect(Collectors.toList());
+        return CompletableFuture.allOf(responses.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> responses.stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList()));
+    }
+
+    private CompletableFuture<BatchResponseEntry> dispatch(HttpServletRequest batchRequest, BatchRequestEntry entry) {
+        BatchEntryRequest request;
+        try {
+            request = new BatchEntryRequest(batchRequest, entry.getMethod(), entry.getPath(), bodyOf(entry));
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(
+                    errorEntry(HttpStatus.BAD_REQUEST, "Batch entry query string is not valid!"));
+        }
+        // the entry records its calls in the server time of the batch too, keeping them out of its self time
+        Object batchServerTime = batchRequest.getAttribute(ServerCallTimer.SERVER_TIME_ATTRIBUTE);
+        if (batchServerTime != null) {
+            request.setAttribute(ServerCallTimer.SERVER_TIME_ATTRIBUTE, batchServerTime);
+        }
+        BatchEntryResponse response = new BatchEntryResponse();
+        return request.execute(response, this::service)
+                .thenApply(ignored -> toEntry(response))
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(error -> error(entry, error));
+    }
+
+    private void service(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        new EntryFilterChain(filters()).doFilter(request, response);
+    }
+
+    /**
+     * The filters the container runs for a standalone call, in their order; resolved on first use, as some
+     * are registered after this dispatcher is created.
+     */
+    private List<Filter> filters() {
+        List<Filter> resolved = filters;
+        if (resolved == null) {
+            resolved = filterRegistrations.orderedStream()
+                    .filter(RegistrationBean::isEnabled)
+                    .map(FilterRegistrationBean::getFilter)
+                    .collect(Collectors.toUnmodifiableList());
+            filters = resolved;
+        }
+        return resolved;
+    }
+
+    @Nullable
+    private byte[] bodyOf(BatchRequestEntry entry) {
+        JsonNode body = entry.getBody();
+        if (body == null || body.isNull()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Answers server errors with the status only, as their messages name gateway internals; the exception
+     * resolver has logged them.
+     */
+    private BatchResponseEntry toEntry(BatchEntryResponse response) {
+        HttpStatus status = HttpStatus.resolve(response.getStatus());
+        if (status != null && status.is5xxServerError()) {
+            return errorEntry(status, status.getReasonPhrase());
+        }
+        byte[] bytes = response.getContentAsByteArray();
+        if (bytes.length == 0) {
+            return status != null && status.isError()
+                    ? errorEntry(status, status.getReasonPhrase())
+                    : new BatchResponseEntry(response.getStatus(), null);
+        }
+        String contentType = response.getContentType();
+        if (contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            try {
+                return new BatchResponseEntry(response.getStatus(), objectMapper.readTree(bytes));
+            } catch (IOException e) {
+                // error messages are plain text even when labelled as JSON
+            }
+        }
+        return new BatchResponseEntry(response.getStatus(),
+                TextNode.valueOf(new String(bytes, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Answers an entry the dispatcher servlet could not, with a message of the gateway's own; exception
+     * details stay in the log.
+     */
+    private BatchResponseEntry error(BatchRequestEntry entry, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        log.error("Batch entry {} {} failed : {} : {}", entry.getMethod(), entry.getPath(),
+                cause.getClass().getSimpleName(), cause.getMessage());
+        HttpStatus status = cause instanceof TimeoutException
+                ? HttpStatus.GATEWAY_TIMEOUT
+                : HttpStatus.INTERNAL_SERVER_ERROR;
+        return errorEntry(status, status.getReasonPhrase());
+    }
+
+    private BatchResponseEntry errorEntry(HttpStatus status, String message) {
+        return new BatchResponseEntry(status.value(), objectMapper.valueToTree(Map.of("error", message)));
+    }
+
+    private final class EntryFilterChain implements FilterChain {
+
+        private final List<Filter> filters;
+        private int position;
+
+        private EntryFilterChain(List<Filter> filters) {
+            this.filters = filters;
+        }
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response) throws ServletException, IOException {
+            if (position < filters.size()) {
+                filters.get(position++).doFilter(request, response, this);
+            } else {
+                dispatcherServlet.service(request, response);
+            }
+        }
+
+    }
+
+}
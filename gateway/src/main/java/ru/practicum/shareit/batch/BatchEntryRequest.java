@@ -0,0 +1,505 @@
+package ru.practicum.shareit.batch;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One batch entry as a request of its own: the method, path, query and body of the entry over the headers of
+ * the batch request, with attributes and an async lifecycle of its own, so the dispatcher servlet and the
+ * filters handle it like a standalone call. {@link AsyncContext#dispatch()} runs the async dispatch on the
+ * calling thread, or right after the current dispatch returns when it is called during one, as a container
+ * does.
+ */
+class BatchEntryRequest extends HttpServletRequestWrapper {
+
+    private static final Set<String> NOT_FORWARDED = Set.of(
+            "accept",
+            "accept-encoding",
+            "content-type",
+            "content-length",
+            "transfer-encoding",
+            "if-match",
+            "if-none-match",
+            "if-modified-since",
+            "if-unmodified-since");
+
+    private final String method;
+    private final String requestUri;
+    private final String servletPath;
+    @Nullable
+    private final String queryString;
+    private final Map<String, String[]> parameters;
+    private final HttpHeaders headers = new HttpHeaders();
+    private final byte[] body;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    @Nullable
+    private String characterEncoding;
+
+    private Dispatch dispatch;
+    private HttpServletResponse response;
+    private DispatcherType dispatcherType = DispatcherType.REQUEST;
+    @Nullable
+    private EntryAsyncContext asyncContext;
+    private boolean asyncStarted;
+    private boolean dispatching;
+    private boolean dispatchPending;
+    private boolean completePending;
+
+    /**
+     * @throws IllegalArgumentException if the query string of the path is not valid
+     */
+    BatchEntryRequest(HttpServletRequest batchRequest, String method, String path, @Nullable byte[] body) {
+        super(batchRequest);
+        UriComponents uri = UriComponentsBuilder.fromUriString(path).build();
+        this.method = method;
+        this.servletPath = uri.getPath() != null ? uri.getPath() : "/";
+        this.requestUri = batchRequest.getContextPath() + servletPath;
+        this.queryString = uri.getQuery();
+        this.parameters = decode(uri.getQueryParams());
+        this.body = body != null ? body : new byte[0];
+        Collections.list(batchRequest.getHeaderNames()).stream()
+                .filter(name -> !NOT_FORWARDED.contains(name.toLowerCase(Locale.ROOT)))
+                .forEach(name -> headers.addAll(name, Collections.list(batchRequest.getHeaders(name))));
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        if (body != null) {
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(body.length);
+            this.characterEncoding = StandardCharsets.UTF_8.name();
+        }
+    }
+
+    /**
+     * Runs the entry through {@code dispatch} and completes once its response is written, which is after
+     * the async dispatch when the handler started async processing.
+     */
+    CompletableFuture<Void> execute(HttpServletResponse response, Dispatch dispatch) {
+        this.response = response;
+        this.dispatch = dispatch;
+        run(DispatcherType.REQUEST);
+        return completion;
+    }
+
+    private void run(DispatcherType type) {
+        DispatcherType next = type;
+        while (next != null) {
+            synchronized (this) {
+                dispatcherType = next;
+                dispatching = true;
+            }
+            try {
+                dispatch.run(this, response);
+            } catch (ServletException | IOException | RuntimeException e) {
+                synchronized (this) {
+                    dispatching = false;
+                    asyncStarted = false;
+                }
+                completion.completeExceptionally(e);
+                return;
+            }
+            boolean complete = false;
+            synchronized (this) {
+                dispatching = false;
+                next = null;
+                if (dispatchPending) {
+                    dispatchPending = false;
+                    asyncStarted = false;
+                    next = DispatcherType.ASYNC;
+                } else if (completePending || !asyncStarted) {
+                    completePending = false;
+                    asyncStarted = false;
+                    complete = true;
+                }
+            }
+            if (complete) {
+                complete();
+            }
+        }
+    }
+
+    private void complete() {
+        EntryAsyncContext context;
+        List<AsyncListener> listeners;
+        synchronized (this) {
+            context = asyncContext;
+            listeners = context != null ? List.copyOf(context.listeners) : List.of();
+        }
+        if (context != null) {
+            for (AsyncListener listener : listeners) {
+                try {
+                    listener.onComplete(new AsyncEvent(context, this, response));
+                } catch (IOException | RuntimeException e) {
+                    completion.completeExceptionally(e);
+                    return;
+                }
+            }
+        }
+        completion.complete(null);
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestUri;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer(UriComponentsBuilder.fromHttpUrl(super.getRequestURL().toString())
+                .replacePath(requestUri)
+                .replaceQuery(null)
+                .toUriString());
+    }
+
+    @Override
+    public String getServletPath() {
+        return servletPath;
+    }
+
+    @Override
+    @Nullable
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public String getPathTranslated() {
+        return null;
+    }
+
+    @Override
+    @Nullable
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    @Nullable
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return values != null ? values[0] : null;
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return parameters;
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    @Nullable
+    public String[] getParameterValues(String name) {
+        String[] values = parameters.get(name);
+        return values != null ? values.clone() : null;
+    }
+
+    @Override
+    @Nullable
+    public String getHeader(String name) {
+        return headers.getFirst(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        List<String> values = headers.get(name);
+        return Collections.enumeration(values != null ? values : List.of());
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = headers.getFirst(name);
+        return value != null ? Integer.parseInt(value) : -1;
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        return headers.getFirst(name) != null ? headers.getFirstDate(name) : -1;
+    }
+
+    @Override
+    @Nullable
+    public String getContentType() {
+        return headers.getFirst(HttpHeaders.CONTENT_TYPE);
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.length;
+    }
+
+    @Override
+    @Nullable
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String encoding) {
+        this.characterEncoding = encoding;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream content = new ByteArrayInputStream(body);
+        return new ServletInputStream() {
+            @Override
+            public int read() {
+                return content.read();
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                return content.read(bytes, offset, length);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return content.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener readListener) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    @Nullable
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+    }
+
+    @Override
+    public void setAttribute(String name, @Nullable Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public synchronized DispatcherType getDispatcherType() {
+        return dispatcherType;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isAsyncStarted() {
+        return asyncStarted;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        return startAsync(this, response);
+    }
+
+    @Override
+    public synchronized AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+        if (asyncContext == null) {
+            asyncContext = new EntryAsyncContext();
+        }
+        asyncStarted = true;
+        return asyncContext;
+    }
+
+    @Override
+    public synchronized AsyncContext getAsyncContext() {
+        if (asyncContext == null) {
+            throw new IllegalStateException("Async processing has not been started");
+        }
+        return asyncContext;
+    }
+
+    private static Map<String, String[]> decode(MultiValueMap<String, String> encoded) {
+        MultiValueMap<String, String> decoded = new LinkedMultiValueMap<>();
+        encoded.forEach((name, values) -> values.forEach(value -> decoded.add(
+                URLDecoder.decode(name, StandardCharsets.UTF_8),
+                value != null ? URLDecoder.decode(value, StandardCharsets.UTF_8) : "")));
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        decoded.forEach((name, values) -> parameters.put(name, values.toArray(new String[0])));
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    /**
+     * What serves the entry: the filters and the dispatcher servlet.
+     */
+    @FunctionalInterface
+    interface Dispatch {
+
+        void run(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException;
+
+    }
+
+    private final class EntryAsyncContext implements AsyncContext {
+
+        private final List<AsyncListener> listeners = new ArrayList<>();
+        private volatile long timeout;
+
+        @Override
+        public ServletRequest getRequest() {
+            return BatchEntryRequest.this;
+        }
+
+        @Override
+        public ServletResponse getResponse() {
+            return response;
+        }
+
+        @Override
+        public boolean hasOriginalRequestAndResponse() {
+            return true;
+        }
+
+        @Override
+        public void dispatch() {
+            synchronized (BatchEntryRequest.this) {
+                if (dispatching) {
+                    dispatchPending = true;
+                    return;
+                }
+                asyncStarted = false;
+            }
+            run(DispatcherType.ASYNC);
+        }
+
+        @Override
+        public void dispatch(String path) {
+            throw new UnsupportedOperationException("Batch entries only dispatch to themselves");
+        }
+
+        @Override
+        public void dispatch(ServletContext context, String path) {
+            throw new UnsupportedOperationException("Batch entries only dispatch to themselves");
+        }
+
+        @Override
+        public void complete() {
+            synchronized (BatchEntryRequest.this) {
+                if (dispatching) {
+                    completePending = true;
+                    return;
+                }
+                asyncStarted = false;
+            }
+            BatchEntryRequest.this.complete();
+        }
+
+        @Override
+        public void start(Runnable run) {
+            CompletableFuture.runAsync(run);
+        }
+
+        @Override
+        public void addListener(AsyncListener listener) {
+            synchronized (BatchEntryRequest.this) {
+                listeners.add(listener);
+            }
+        }
+
+        @Override
+        public void addListener(AsyncListener listener, ServletRequest request, ServletResponse response) {
+            addListener(listener);
+        }
+
+        @Override
+        public <T extends AsyncListener> T createListener(Class<T> type) throws ServletException {
+            try {
+                return type.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new ServletException(e);
+            }
+        }
+
+        @Override
+        public void setTimeout(long timeout) {
+            this.timeout = timeout;
+        }
+
+        @Override
+        public long getTimeout() {
+            return timeout;
+        }
+
+    }
+
+}
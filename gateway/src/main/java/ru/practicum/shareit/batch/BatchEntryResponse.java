@@ -0,0 +1,335 @@
+package ru.practicum.shareit.batch;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The response of one batch entry, buffered in memory: nothing is written to the batch response, which
+ * carries all entries once they are done.
+ */
+class BatchEntryResponse implements HttpServletResponse {
+
+    private final HttpHeaders headers = new HttpHeaders();
+    private final ByteArrayOutputStream content = new ByteArrayOutputStream(1024);
+    private final ServletOutputStream outputStream = new ServletOutputStream() {
+        @Override
+        public void write(int b) {
+            content.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            content.write(bytes, offset, length);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    private int status = SC_OK;
+    @Nullable
+    private String contentType;
+    @Nullable
+    private String characterEncoding;
+    @Nullable
+    private PrintWriter writer;
+    private Locale locale = Locale.getDefault();
+    private int bufferSize = 1024;
+    private boolean committed;
+
+    /**
+     * @return the body written so far
+     */
+    synchronized byte[] getContentAsByteArray() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return content.toByteArray();
+    }
+
+    @Override
+    public synchronized void addCookie(Cookie cookie) {
+        // entries answer with a status and a body only
+    }
+
+    @Override
+    public synchronized boolean containsHeader(String name) {
+        return getHeader(name) != null;
+    }
+
+    @Override
+    public String encodeURL(String url) {
+        return url;
+    }
+
+    @Override
+    public String encodeRedirectURL(String url) {
+        return url;
+    }
+
+    @Override
+    @Deprecated
+    public String encodeUrl(String url) {
+        return url;
+    }
+
+    @Override
+    @Deprecated
+    public String encodeRedirectUrl(String url) {
+        return url;
+    }
+
+    @Override
+    public synchronized void sendError(int status, String message) {
+        sendError(status);
+    }
+
+    @Override
+    public synchronized void sendError(int status) {
+        checkNotCommitted();
+        resetBuffer();
+        this.status = status;
+        this.committed = true;
+    }
+
+    @Override
+    public synchronized void sendRedirect(String location) {
+        checkNotCommitted();
+        resetBuffer();
+        headers.set(HttpHeaders.LOCATION, location);
+        this.status = SC_FOUND;
+        this.committed = true;
+    }
+
+    @Override
+    public synchronized void setDateHeader(String name, long date) {
+        headers.set(name, formatDate(date));
+    }
+
+    @Override
+    public synchronized void addDateHeader(String name, long date) {
+        headers.add(name, formatDate(date));
+    }
+
+    @Override
+    public synchronized void setHeader(String name, @Nullable String value) {
+        if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+            setContentType(value);
+        } else if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            if (value == null) {
+                headers.remove(name);
+            } else {
+                headers.set(name, value);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void addHeader(String name, @Nullable String value) {
+        if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+            setContentType(value);
+        } else if (value != null && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            headers.add(name, value);
+        }
+    }
+
+    @Override
+    public synchronized void setIntHeader(String name, int value) {
+        setHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public synchronized void addIntHeader(String name, int value) {
+        addHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public synchronized void setStatus(int status) {
+        if (!committed) {
+            this.status = status;
+        }
+    }
+
+    @Override
+    @Deprecated
+    public synchronized void setStatus(int status, String message) {
+        setStatus(status);
+    }
+
+    @Override
+    public synchronized int getStatus() {
+        return status;
+    }
+
+    @Override
+    @Nullable
+    public synchronized String getHeader(String name) {
+        if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+            return getContentType();
+        }
+        return headers.getFirst(name);
+    }
+
+    @Override
+    public synchronized Collection<String> getHeaders(String name) {
+        if (HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+            return contentType != null ? List.of(getContentType()) : List.of();
+        }
+        List<String> values = headers.get(name);
+        return values != null ? new ArrayList<>(values) : List.of();
+    }
+
+    @Override
+    public synchronized Collection<String> getHeaderNames() {
+        List<String> names = new ArrayList<>(headers.keySet());
+        if (contentType != null) {
+            names.add(HttpHeaders.CONTENT_TYPE);
+        }
+        return names;
+    }
+
+    @Override
+    public synchronized String getCharacterEncoding() {
+        return characterEncoding != null ? characterEncoding : StandardCharsets.ISO_8859_1.name();
+    }
+
+    @Override
+    @Nullable
+    public synchronized String getContentType() {
+        if (contentType == null || characterEncoding == null) {
+            return contentType;
+        }
+        return MediaType.parseMediaType(contentType).getCharset() != null
+                ? contentType
+                : contentType + ";charset=" + characterEncoding;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public synchronized PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(content, Charset.forName(getCharacterEncoding())));
+        }
+        return writer;
+    }
+
+    @Override
+    public synchronized void setCharacterEncoding(@Nullable String characterEncoding) {
+        if (writer == null && !committed) {
+            this.characterEncoding = characterEncoding;
+        }
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        // the length is that of the buffered body
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        // the length is that of the buffered body
+    }
+
+    @Override
+    public synchronized void setContentType(@Nullable String contentType) {
+        if (committed) {
+            return;
+        }
+        this.contentType = contentType;
+        if (contentType != null) {
+            Charset charset = MediaType.parseMediaType(contentType).getCharset();
+            if (charset != null && writer == null) {
+                this.characterEncoding = charset.name();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void setBufferSize(int size) {
+        this.bufferSize = size;
+    }
+
+    @Override
+    public synchronized int getBufferSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public synchronized void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+        committed = true;
+    }
+
+    @Override
+    public synchronized void resetBuffer() {
+        checkNotCommitted();
+        content.reset();
+    }
+
+    @Override
+    public synchronized boolean isCommitted() {
+        return committed;
+    }
+
+    @Override
+    public synchronized void reset() {
+        resetBuffer();
+        headers.clear();
+        status = SC_OK;
+        contentType = null;
+        characterEncoding = null;
+        writer = null;
+    }
+
+    @Override
+    public synchronized void setLocale(Locale locale) {
+        this.locale = locale;
+    }
+
+    @Override
+    public synchronized Locale getLocale() {
+        return locale;
+    }
+
+    private void checkNotCommitted() {
+        if (committed) {
+            throw new IllegalStateException("Response is already committed");
+        }
+    }
+
+    private static String formatDate(long date) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(Instant.ofEpochMilli(date).atZone(ZoneOffset.UTC));
+    }
+
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+
+@Data
+@AllArgsConstructor
+public class BatchRequestEntry {
+
+    @NotNull(message = "Batch entry method field is null!")
+    @Pattern(regexp = "GET|POST|PATCH|DELETE",
+            message = "Batch entry method field must be one of GET, POST, PATCH, DELETE!")
+    private String method;
+
+    /**
+     * Path segments are plain names, so neither dot segments, empty segments nor encoded characters can make
+     * an entry address anything but the four resources, such as the batch endpoint itself.
+     */
+    @NotNull(message = "Batch entry path field is null!")
+    @Pattern(regexp = "/(users|items|bookings|requests)(/[\\w-]+)*/?(\\?[^#\\s]*)?",
+            message = "Batch entry path field must address users, items, bookings or requests!")
+    private String path;
+
+    private JsonNode body;
+
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BatchResponseEntry {
+
+    private int status;
+
+    private JsonNode body;
+
+}
@@ -1,32 +1,25 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.IncomingBookingDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerTransport transport) {
+        super(API_PREFIX, transport);
     }
 
-    public ResponseEntity<Object> getAllUserBookings(Long userId,
+    public CompletableFuture<ResponseEntity<Object>> getAllUserBookings(Long userId,
                                                      String bookingStateString,
                                                      Integer from,
                                                      Integer size) {
@@ -34,7 +27,15 @@ public class BookingClient extends BaseClient {
                 Map.of("state", bookingStateString, "from", from, "size", size));
     }
 
-    public ResponseEntity<Object> getAllOwnerItemBookings(Long ownerId,
+    public CompletableFuture<ResponseEntity<Object>> getAllUserBookings(Long userId,
+                                                                        String bookingStateString,
+                                                                        Integer size,
+                                                                        String after) {
+        return get("?state={state}&size={size}&after={after}", userId,
+                Map.of("state", bookingStateString, "size", size, "after", after));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getAllOwnerItemBookings(Long ownerId,
                                                           String bookingStateString,
                                                           Integer from,
                                                           Integer size) {
@@ -42,15 +43,23 @@ public class BookingClient extends BaseClient {
                 Map.of("state", bookingStateString, "from", from, "size", size));
     }
 
-    public ResponseEntity<Object> getBookingById(Long userId, Long bookingId) {
+    public CompletableFuture<ResponseEntity<Object>> getAllOwnerItemBookings(Long ownerId,
+                                                                             String bookingStateString,
+                                                                             Integer size,
+                                                                             String after) {
+        return get("/owner?state={state}&size={size}&after={after}", ownerId,
+                Map.of("state", bookingStateString, "size", size, "after", after));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getBookingById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> postBooking(Long bookerId, IncomingBookingDto incomingBookingDto) {
+    public CompletableFuture<ResponseEntity<Object>> postBooking(Long bookerId, IncomingBookingDto incomingBookingDto) {
         return post("", bookerId, incomingBookingDto);
     }
 
-    public ResponseEntity<Object> patchBooking(Long itemOwnerId, Long bookingId, Boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> patchBooking(Long itemOwnerId, Long bookingId, Boolean approved) {
         return patch("/" + bookingId + "?approved={approved}", itemOwnerId,
                 Map.of("approved", approved), new IncomingBookingDto());
     }
@@ -7,14 +7,17 @@ import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.IncomingBookingDto;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.validation.BookingStateValidation;
 import ru.practicum.shareit.validation.ValidationMarker;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 import static ru.practicum.shareit.http.HttpHeader.header;
 
@@ -28,50 +31,56 @@ public class BookingController {
     private final BookingClient bookingClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllUserBookings(
+    public CompletableFuture<ResponseEntity<Object>> getAllUserBookings(
             HttpServletRequest request,
             @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero Integer from,
             @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(20) Integer size,
+            @RequestParam(value = "after", required = false) @Pattern(regexp = Cursor.PATTERN) String after,
             @RequestHeader(header) @Positive Long userId,
             @RequestParam(name = "state", defaultValue = "ALL") @BookingStateValidation String bookingStateString) {
-        log.info("Id-{} {} {}?{}", userId, request.getMethod(), request.getRequestURI(), request.getQueryString());
-        return bookingClient.getAllUserBookings(userId, bookingStateString, from, size);
+        log.debug("Id-{} {} {}?{}", userId, request.getMethod(), request.getRequestURI(), request.getQueryString());
+        return after == null
+                ? bookingClient.getAllUserBookings(userId, bookingStateString, from, size)
+                : bookingClient.getAllUserBookings(userId, bookingStateString, size, after);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllOwnerItemBookings(
+    public CompletableFuture<ResponseEntity<Object>> getAllOwnerItemBookings(
             HttpServletRequest request,
             @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero Integer from,
             @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(20) Integer size,
+            @RequestParam(value = "after", required = false) @Pattern(regexp = Cursor.PATTERN) String after,
             @RequestHeader(header) @Positive Long ownerId,
             @RequestParam(name = "state", defaultValue = "ALL") @BookingStateValidation String bookingStateString) {
-        log.info("Id-{} {} {}?{}", ownerId, request.getMethod(), request.getRequestURI(), request.getQueryString());
-        return bookingClient.getAllOwnerItemBookings(ownerId, bookingStateString, from, size);
+        log.debug("Id-{} {} {}?{}", ownerId, request.getMethod(), request.getRequestURI(), request.getQueryString());
+        return after == null
+                ? bookingClient.getAllOwnerItemBookings(ownerId, bookingStateString, from, size)
+                : bookingClient.getAllOwnerItemBookings(ownerId, bookingStateString, size, after);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(HttpServletRequest request,
+    public CompletableFuture<ResponseEntity<Object>> getBookingById(HttpServletRequest request,
                                                  @RequestHeader(header) @Positive Long userId,
                                                  @PathVariable @Positive Long bookingId) {
-        log.info("Id-{} {} {}", userId, request.getMethod(), request.getRequestURI());
+        log.debug("Id-{} {} {}", userId, request.getMethod(), request.getRequestURI());
         return bookingClient.getBookingById(userId, bookingId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> postBooking(
+    public CompletableFuture<ResponseEntity<Object>> postBooking(
             HttpServletRequest request,
             @RequestHeader(header) @Positive Long bookerId,
             @RequestBody @Validated(ValidationMarker.OnCreate.class) IncomingBookingDto incomingBookingDto) {
-        log.info("Id-{} {} {} {}", bookerId, request.getMethod(), request.getRequestURI(), incomingBookingDto);
+        log.debug("Id-{} {} {} {}", bookerId, request.getMethod(), request.getRequestURI(), incomingBookingDto);
         return bookingClient.postBooking(bookerId, incomingBookingDto);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> patchBooking(HttpServletRequest request,
+    public CompletableFuture<ResponseEntity<Object>> patchBooking(HttpServletRequest request,
                                                @RequestHeader(header) @Positive Long itemOwnerId,
                                                @PathVariable @Positive Long bookingId,
                                                @RequestParam Boolean approved) {
-        log.info("Id-{} {} {}", itemOwnerId, request.getMethod(), request.getRequestURI());
+        log.debug("Id-{} {} {}", itemOwnerId, request.getMethod(), request.getRequestURI());
         return bookingClient.patchBooking(itemOwnerId, bookingId, approved);
     }
 
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import ru.practicum.shareit.exeption.ServiceUnavailableException;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Per-client circuit breaker and bulkhead around calls to shareit-server. Permits are released on the
+ * transport's own future, which is returned as is, so a caller cancelling the call stops the exchange and
+ * still gives the permits back; a cancelled call is not recorded as a failure.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-server.circuit-breaker.enabled", havingValue = "true")
+public class CircuitBreakers implements ServerTransportDecorator {
+
+    public static final int ORDER = 300;
+
+    private static final List<String> CLIENTS = List.of("items", "bookings", "users", "requests");
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public CircuitBreakers(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        CLIENTS.forEach(client -> {
+            circuitBreakerRegistry.circuitBreaker(client);
+            bulkheadRegistry.bulkhead(client);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public ServerTransport decorate(ServerTransport transport) {
+        return (method, path, headers, parameters, body) -> {
+            String client = clientOf(path);
+            Bulkhead bulkhead = bulkheadRegistry.bulkhead(client);
+            if (!bulkhead.tryAcquirePermission()) {
+                return CompletableFuture.failedFuture(new ServiceUnavailableException(
+                        "Too many concurrent calls to " + client + " on shareit-server"));
+            }
+            CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(client);
+            if (!circuitBreaker.tryAcquirePermission()) {
+                bulkhead.onComplete();
+                return CompletableFuture.failedFuture(new ServiceUnavailableException(
+                        "Circuit breaker for " + client + " on shareit-server is " + circuitBreaker.getState()));
+            }
+            long start = circuitBreaker.getCurrentTimestamp();
+            CompletableFuture<ResponseEntity<Object>> call;
+            try {
+                call = transport.exchange(method, path, headers, parameters, body);
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            call.whenComplete((response, error) -> {
+                bulkhead.onComplete();
+                long duration = circuitBreaker.getCurrentTimestamp() - start;
+                if (error instanceof CancellationException) {
+                    circuitBreaker.releasePermission();
+                } else if (error != null) {
+                    circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(), error);
+                } else if (response.getStatusCodeValue() >= 500) {
+                    HttpStatus status = HttpStatus.resolve(response.getStatusCodeValue());
+                    circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(),
+                            new HttpServerErrorException(status != null ? status : HttpStatus.INTERNAL_SERVER_ERROR));
+                } else {
+                    circuitBreaker.onSuccess(duration, circuitBreaker.getTimestampUnit());
+                }
+            });
+            return call;
+        };
+    }
+
+    static String clientOf(String path) {
+        int end = path.length();
+        for (int i = 1; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (c == '/' || c == '?') {
+                end = i;
+                break;
+            }
+        }
+        return path.substring(1, end);
+    }
+
+}
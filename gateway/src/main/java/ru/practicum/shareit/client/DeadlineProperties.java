@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.deadline")
+public class DeadlineProperties {
+
+    private Duration defaultBudget = Duration.ofSeconds(5);
+
+    /**
+     * Budgets by path prefix, the longest matching prefix wins.
+     */
+    private Map<String, Duration> budgets = new HashMap<>();
+
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exeption.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.http.HttpHeader.deadline;
+
+/**
+ * Gives every call to shareit-server the budget of its route, and fails it with 504 once the budget runs out.
+ * Each attempt sent for the call, hedged and retried ones included, carries the time then left in the
+ * deadline header, set by {@link AttemptDeadline} right before the transport, so the server can reject
+ * attempts that arrive with nothing left and stop working for a caller that is gone.
+ * Calls are not cancelled on expiry since their futures may be shared by the caching layers below.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-server.deadline.enabled", havingValue = "true")
+@EnableConfigurationProperties(DeadlineProperties.class)
+public class Deadlines implements ServerTransportDecorator, DisposableBean {
+
+    public static final int ORDER = 10;
+
+    /**
+     * Carries the deadline of the call, in {@link System#nanoTime()} terms, from this decorator to
+     * {@link AttemptDeadline}, which removes it before the attempt is sent.
+     */
+    static final String DEADLINE_NANOS = "X-Gateway-Deadline-Nanos";
+
+    private final long defaultBudget;
+    private final List<Map.Entry<String, Long>> budgets;
+    private final Counter exceeded;
+    private final ScheduledThreadPoolExecutor timer;
+
+    public Deadlines(DeadlineProperties properties, MeterRegistry meterRegistry) {
+        this.defaultBudget = properties.getDefaultBudget().toMillis();
+        this.budgets = properties.getBudgets().entrySet().stream()
+                .map(budget -> Map.entry(budget.getKey(), budget.getValue().toMillis()))
+                .sorted(Comparator.comparing((Map.Entry<String, Long> budget) -> budget.getKey().length()).reversed())
+                .collect(Collectors.toList());
+        this.exceeded = meterRegistry.counter("gateway.deadline.exceeded");
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "deadline-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public ServerTransport decorate(ServerTransport transport) {
+        return (method, path, headers, parameters, body) -> {
+            long budget = budgetOf(path);
+            HttpHeaders callHeaders = new HttpHeaders();
+            callHeaders.addAll(headers);
+            callHeaders.set(DEADLINE_NANOS, Long.toString(System.nanoTime() + budget * 1_000_000L));
+            CompletableFuture<ResponseEntity<Object>> call;
+            try {
+                call = transport.exchange(method, path, callHeaders, parameters, body);
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            if (call.isDone()) {
+                return call;
+            }
+            CompletableFuture<ResponseEntity<Object>> result = new CompletableFuture<>();
+            ScheduledFuture<?> expiry = timer.schedule(() -> {
+                if (result.completeExceptionally(new DeadlineExceededException(method + " " + path
+                        + " got no response from shareit-server within " + Duration.ofMillis(budget)))) {
+                    exceeded.increment();
+                }
+            }, budget, TimeUnit.MILLISECONDS);
+            call.whenComplete((response, error) -> {
+                expiry.cancel(false);
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(response);
+                }
+            });
+            return result;
+        };
+    }
+
+    @Override
+    public void destroy() {
+        timer.shutdownNow();
+    }
+
+    private long budgetOf(String path) {
+        for (Map.Entry<String, Long> budget : budgets) {
+            if (path.startsWith(budget.getKey())) {
+                return budget.getValue();
+            }
+        }
+        return defaultBudget;
+    }
+
+    /**
+     * Turns the deadline of the call into the time left when an attempt is sent. Attempts sent with nothing
+     * left still go out with 0, for the server to reject and count them.
+     */
+    @Component
+    @ConditionalOnProperty(name = "shareit-server.deadline.enabled", havingValue = "true")
+    public static class AttemptDeadline implements ServerTransportDecorator {
+
+        public static final int ORDER = 1000;
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+
+        @Override
+        public ServerTransport decorate(ServerTransport transport) {
+            return (method, path, headers, parameters, body) -> {
+                String deadlineNanos = headers.getFirst(DEADLINE_NANOS);
+                if (deadlineNanos == null) {
+                    return transport.exchange(method, path, headers, parameters, body);
+                }
+                long remaining = Math.floorDiv(Long.parseLong(deadlineNanos) - System.nanoTime(), 1_000_000L);
+                HttpHeaders attemptHeaders = new HttpHeaders();
+                attemptHeaders.addAll(headers);
+                attemptHeaders.remove(DEADLINE_NANOS);
+                attemptHeaders.set(deadline, Long.toString(Math.max(remaining, 0)));
+                return transport.exchange(method, path, attemptHeaders, parameters, body);
+            };
+        }
+
+    }
+
+}
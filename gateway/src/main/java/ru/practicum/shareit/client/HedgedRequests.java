@@ -0,0 +1,254 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.net.ConnectException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hedges and retries GETs to shareit-server. When a GET has no response after the hedge delay a second attempt
+ * is sent and the first response wins; attempts failing to connect are sent again up to {@code max-retries}.
+ * Both kinds of extra attempts spend the shared {@link RetryBudget}, and the attempts that lose are cancelled,
+ * which stops their exchange and gives back what {@link CircuitBreakers} holds for them. The hedge delay is the configured
+ * percentile of each client's latency histogram, re-estimated every window once enough samples are recorded.
+ * The blocking transport answers before a hedge could be sent, so with it only connection retries apply.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit-server.hedging.enabled", havingValue = "true")
+@EnableConfigurationProperties(HedgingProperties.class)
+public class HedgedRequests implements ServerTransportDecorator, DisposableBean {
+
+    public static final int ORDER = 200;
+
+    private final HedgingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final RetryBudget retryBudget;
+    private final Map<String, LatencyTracker> trackers = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final Counter retries;
+    private final Counter hedgesDenied;
+    private final Counter retriesDenied;
+
+    public HedgedRequests(HedgingProperties properties,
+                          MeterRegistry meterRegistry,
+                          @Value("${shareit-server.transport:blocking}") String transport) {
+        if (!"reactive".equals(transport)) {
+            log.warn("Hedging needs the reactive transport, only connection retries apply on the {} one", transport);
+        }
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.retryBudget = new RetryBudget(properties.getRetryBudgetRatio(), properties.getRetryBudgetMaxTokens());
+        this.hedgesSent = meterRegistry.counter("gateway.hedged.requests", "outcome", "sent");
+        this.hedgesWon = meterRegistry.counter("gateway.hedged.requests", "outcome", "won");
+        this.retries = meterRegistry.counter("gateway.retried.requests");
+        this.hedgesDenied = meterRegistry.counter("gateway.retry.budget.exhausted", "attempt", "hedge");
+        this.retriesDenied = meterRegistry.counter("gateway.retry.budget.exhausted", "attempt", "retry");
+        Gauge.builder("gateway.retry.budget.tokens", retryBudget, RetryBudget::tokens).register(meterRegistry);
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "hedging-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        long window = properties.getWindow().toMillis();
+        scheduler.scheduleAtFixedRate(() -> trackers.values().forEach(LatencyTracker::estimate),
+                window, window, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public ServerTransport decorate(ServerTransport transport) {
+        return (method, path, headers, parameters, body) -> {
+            if (method != HttpMethod.GET) {
+                return transport.exchange(method, path, headers, parameters, body);
+            }
+            retryBudget.deposit();
+            LatencyTracker tracker = trackers.computeIfAbsent(CircuitBreakers.clientOf(path), LatencyTracker::new);
+            return new HedgedCall(transport, tracker, path, headers, parameters).start();
+        };
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private static boolean isConnectFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause() != cause ? cause.getCause() : null) {
+            if (cause instanceof ConnectException || cause instanceof ConnectTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static CompletableFuture<ResponseEntity<Object>> exchange(ServerTransport transport,
+                                                                      String path,
+                                                                      HttpHeaders headers,
+                                                                      @Nullable Map<String, Object> parameters) {
+        try {
+            return transport.exchange(HttpMethod.GET, path, headers, parameters, null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private final class HedgedCall {
+
+        private final ServerTransport transport;
+        private final LatencyTracker tracker;
+        private final String path;
+        private final HttpHeaders headers;
+        private final Map<String, Object> parameters;
+        private final CompletableFuture<ResponseEntity<Object>> result = new CompletableFuture<>();
+        private final Queue<CompletableFuture<ResponseEntity<Object>>> attempts = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger retried = new AtomicInteger();
+        /**
+         * Attributes of the request served, for the layers below: hedges and retries are sent from other
+         * threads.
+         */
+        @Nullable
+        private final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+
+        private HedgedCall(ServerTransport transport,
+                           LatencyTracker tracker,
+                           String path,
+                           HttpHeaders headers,
+                           @Nullable Map<String, Object> parameters) {
+            this.transport = transport;
+            this.tracker = tracker;
+            this.path = path;
+            this.headers = headers;
+            this.parameters = parameters;
+        }
+
+        private CompletableFuture<ResponseEntity<Object>> start() {
+            attempt(false);
+            if (!result.isDone()) {
+                ScheduledFuture<?> hedge = scheduler.schedule(this::hedge, tracker.delayNanos, TimeUnit.NANOSECONDS);
+                result.whenComplete((response, error) -> {
+                    hedge.cancel(false);
+                    attempts.forEach(attempt -> attempt.cancel(true));
+                });
+            }
+            return result;
+        }
+
+        private void hedge() {
+            if (result.isDone()) {
+                return;
+            }
+            if (!retryBudget.tryWithdraw()) {
+                hedgesDenied.increment();
+                return;
+            }
+            hedgesSent.increment();
+            attempt(true);
+        }
+
+        private void attempt(boolean hedged) {
+            pending.incrementAndGet();
+            long start = System.nanoTime();
+            CompletableFuture<ResponseEntity<Object>> attempt;
+            RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            try {
+                attempt = exchange(transport, path, headers, parameters);
+            } finally {
+                RequestContextHolder.setRequestAttributes(previous);
+            }
+            attempts.add(attempt);
+            attempt.whenComplete((response, error) -> {
+                pending.decrementAndGet();
+                if (error == null) {
+                    tracker.record(System.nanoTime() - start);
+                    if (result.complete(response) && hedged) {
+                        hedgesWon.increment();
+                    }
+                } else if (!result.isDone() && isConnectFailure(error) && retry()) {
+                    attempt(hedged);
+                } else if (pending.get() == 0) {
+                    result.completeExceptionally(error);
+                }
+            });
+        }
+
+        private boolean retry() {
+            if (retried.incrementAndGet() > properties.getMaxRetries()) {
+                return false;
+            }
+            if (!retryBudget.tryWithdraw()) {
+                retriesDenied.increment();
+                return false;
+            }
+            retries.increment();
+            return true;
+        }
+
+    }
+
+    private final class LatencyTracker {
+
+        private final Recorder recorder = new Recorder(2);
+        private final Histogram samples = new Histogram(2);
+        private Histogram interval;
+        private volatile long delayNanos = properties.getMaxDelay().toNanos();
+
+        private LatencyTracker(String client) {
+            TimeGauge.builder("gateway.hedge.delay", this, TimeUnit.NANOSECONDS, tracker -> tracker.delayNanos)
+                    .tag("client", client)
+                    .register(meterRegistry);
+        }
+
+        private void record(long nanos) {
+            recorder.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        }
+
+        private void estimate() {
+            interval = recorder.getIntervalHistogram(interval);
+            samples.add(interval);
+            if (samples.getTotalCount() < properties.getMinSamples()) {
+                return;
+            }
+            long delay = TimeUnit.MICROSECONDS.toNanos(samples.getValueAtPercentile(properties.getPercentile() * 100));
+            delayNanos = Math.max(properties.getMinDelay().toNanos(), Math.min(properties.getMaxDelay().toNanos(), delay));
+            samples.reset();
+        }
+
+    }
+
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.hedging")
+public class HedgingProperties {
+
+    private double percentile = 0.95;
+
+    private Duration minDelay = Duration.ofMillis(5);
+
+    private Duration maxDelay = Duration.ofSeconds(1);
+
+    private Duration window = Duration.ofSeconds(10);
+
+    private long minSamples = 100;
+
+    private int maxRetries = 1;
+
+    private double retryBudgetRatio = 0.1;
+
+    private int retryBudgetMaxTokens = 10;
+
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.transport", havingValue = "blocking", matchIfMissing = true)
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class HttpClientConfig {
+
+    private static final int PREWARM_ATTEMPTS = 5;
+
+    private final String serverUrl;
+    private final HttpClientProperties properties;
+
+    public HttpClientConfig(@Value("${shareit-server.url}") String serverUrl, HttpClientProperties properties) {
+        this.serverUrl = serverUrl;
+        this.properties = properties;
+        if (properties.isHttp2()) {
+            log.warn("HTTP/2 to {} needs the reactive transport, staying on HTTP/1.1", serverUrl);
+        }
+    }
+
+    @Bean
+    public PoolingHttpClientConnectionManager shareitServerConnectionManager() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity((int) properties.getValidateAfterInactivity().toMillis());
+        return connectionManager;
+    }
+
+    @Bean
+    public CloseableHttpClient shareitServerHttpClient(PoolingHttpClientConnectionManager connectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                        .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                        .setConnectionRequestTimeout((int) properties.getConnectionRequestTimeout().toMillis())
+                        .build())
+                .setKeepAliveStrategy(keepAliveStrategy())
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleEviction().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory shareitServerRequestFactory(CloseableHttpClient httpClient) {
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    @Bean
+    public ServerTransport shareitServerTransport(RestTemplateBuilder builder,
+                                                  HttpComponentsClientHttpRequestFactory requestFactory,
+                                                  @Value("${shareit-server.passthrough:false}") boolean passthrough) {
+        return new RestTemplateTransport(builder
+                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
+                .requestFactory(() -> requestFactory)
+                .build(), passthrough);
+    }
+
+    @Bean
+    public MeterBinder shareitServerConnectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarmConnections(ApplicationReadyEvent event) {
+        int connections = Math.min(properties.getPrewarmConnections(), properties.getMaxPerRoute());
+        if (connections <= 0) {
+            return;
+        }
+        PoolingHttpClientConnectionManager connectionManager = event.getApplicationContext()
+                .getBean(PoolingHttpClientConnectionManager.class);
+        Thread prewarmThread = new Thread(() -> {
+            for (int attempt = 1; attempt <= PREWARM_ATTEMPTS; attempt++) {
+                if (openConnections(connectionManager, connections)) {
+                    return;
+                }
+                try {
+                    TimeUnit.SECONDS.sleep(attempt);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "shareit-server-pool-prewarm");
+        prewarmThread.setDaemon(true);
+        prewarmThread.start();
+    }
+
+    private boolean openConnections(PoolingHttpClientConnectionManager connectionManager, int connections) {
+        HttpRoute route = new HttpRoute(HttpHost.create(serverUrl));
+        List<HttpClientConnection> opened = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                HttpClientConnection connection = connectionManager.requestConnection(route, null)
+                        .get(properties.getConnectionRequestTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                opened.add(connection);
+                if (!connection.isOpen()) {
+                    HttpClientContext context = HttpClientContext.create();
+                    connectionManager.connect(connection, route, (int) properties.getConnectTimeout().toMillis(),
+                            context);
+                    connectionManager.routeComplete(connection, route, context);
+                    connection.flush();
+                }
+            }
+            log.info("Pre-warmed {} connections to {}", opened.size(), serverUrl);
+            return true;
+        } catch (Exception e) {
+            log.warn("Pool pre-warm to {} stopped after {} connections : {}", serverUrl, opened.size(), e.getMessage());
+            return false;
+        } finally {
+            for (HttpClientConnection connection : opened) {
+                connectionManager.releaseConnection(connection, null,
+                        properties.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private ConnectionKeepAliveStrategy keepAliveStrategy() {
+        long defaultKeepAlive = properties.getKeepAlive().toMillis();
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, defaultKeepAlive) : defaultKeepAlive;
+        };
+    }
+
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.Locale;
+import java.util.Set;
+
+final class ProxiedHeaders {
+
+    private static final Set<String> NOT_PROXIED = Set.of(
+            "connection",
+            "keep-alive",
+            "transfer-encoding",
+            "te",
+            "trailer",
+            "upgrade",
+            "proxy-authenticate",
+            "proxy-authorization",
+            "content-length",
+            "date",
+            "server");
+
+    private ProxiedHeaders() {
+    }
+
+    static HttpHeaders of(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (!NOT_PROXIED.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+
+}
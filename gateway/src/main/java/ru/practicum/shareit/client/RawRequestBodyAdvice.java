@@ -0,0 +1,158 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+import ru.practicum.shareit.booking.dto.IncomingBookingDto;
+import ru.practicum.shareit.comment.dto.IncomingCommentDto;
+import ru.practicum.shareit.item.dto.IncomingItemDto;
+import ru.practicum.shareit.request.dto.IncomingRequestDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the bytes of the JSON bodies the gateway forwards to shareit-server as they are, so a validated body
+ * is sent without being written again. A body is forwarded raw only when all its fields are properties of
+ * its DTO; any other body is sent as the DTO parsed from it, without the fields the gateway dropped.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "shareit-server.forward-raw-body", havingValue = "true")
+public class RawRequestBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private static final String RAW_BODY_ATTRIBUTE = RawRequestBodyAdvice.class.getName() + ".RAW_BODY";
+
+    private static final List<Class<?>> FORWARDED_TYPES = List.of(UserDto.class, IncomingItemDto.class,
+            IncomingCommentDto.class, IncomingBookingDto.class, IncomingRequestDto.class);
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, Set<String>> properties;
+
+    public RawRequestBodyAdvice(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.properties = FORWARDED_TYPES.stream()
+                .collect(Collectors.toUnmodifiableMap(Function.identity(), type -> objectMapper
+                        .getDeserializationConfig()
+                        .introspect(objectMapper.constructType(type))
+                        .findProperties()
+                        .stream()
+                        .map(BeanPropertyDefinition::getName)
+                        .collect(Collectors.toUnmodifiableSet())));
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter,
+                            Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return properties.containsKey(methodParameter.getParameterType())
+                && MappingJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage,
+                                           MethodParameter parameter,
+                                           Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) throws IOException {
+        MediaType contentType = inputMessage.getHeaders().getContentType();
+        if (contentType != null && contentType.getCharset() != null
+                && !StandardCharsets.UTF_8.equals(contentType.getCharset())) {
+            return inputMessage;
+        }
+        RawBody rawBody = new RawBody(StreamUtils.copyToByteArray(inputMessage.getBody()));
+        RequestContextHolder.currentRequestAttributes()
+                .setAttribute(RAW_BODY_ATTRIBUTE, rawBody, RequestAttributes.SCOPE_REQUEST);
+        return new HttpInputMessage() {
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(rawBody.bytes);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return inputMessage.getHeaders();
+            }
+        };
+    }
+
+    @Override
+    public Object afterBodyRead(Object body,
+                                HttpInputMessage inputMessage,
+                                MethodParameter parameter,
+                                Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        RawBody rawBody = currentRawBody();
+        if (rawBody != null && hasOnlyPropertiesOf(parameter.getParameterType(), rawBody.bytes)) {
+            rawBody.parsed = body;
+        }
+        return body;
+    }
+
+    @Nullable
+    static byte[] rawBodyOf(Object body) {
+        RawBody rawBody = currentRawBody();
+        return rawBody != null && rawBody.parsed == body ? rawBody.bytes : null;
+    }
+
+    private boolean hasOnlyPropertiesOf(Class<?> type, byte[] bytes) {
+        Set<String> names = properties.get(type);
+        try (JsonParser parser = objectMapper.getFactory().createParser(bytes)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return false;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                if (!names.contains(parser.getCurrentName())) {
+                    return false;
+                }
+                parser.nextToken();
+                parser.skipChildren();
+            }
+            return parser.currentToken() == JsonToken.END_OBJECT && parser.nextToken() == null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Nullable
+    private static RawBody currentRawBody() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return (RawBody) attributes.getAttribute(RAW_BODY_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private static final class RawBody {
+
+        private final byte[] bytes;
+        private Object parsed;
+
+        private RawBody(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+    }
+
+}
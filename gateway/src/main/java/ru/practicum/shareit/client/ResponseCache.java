@@ -0,0 +1,204 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+@Component
+@ConditionalOnProperty(name = "shareit-server.cache.enabled", havingValue = "true")
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache implements ServerTransportDecorator {
+
+    public static final int ORDER = 100;
+
+    private static final Pattern CACHEABLE_PATH = Pattern.compile("^/(items|users|requests|bookings)/\\d+$");
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+    private static final int ENTRY_OVERHEAD = 64;
+
+    private final ResponseCacheProperties properties;
+    private final Cache<String, Map<String, CachedResponse>> cache;
+    private final Counter revalidated;
+    private final Counter staleServed;
+
+    public ResponseCache(ResponseCacheProperties properties,
+                         MeterRegistry meterRegistry,
+                         @Value("${shareit-server.passthrough:false}") boolean passthrough) {
+        if (!passthrough) {
+            throw new IllegalStateException("shareit-server.cache.enabled caches the raw bodies of shareit-server "
+                    + "responses and needs shareit-server.passthrough=true");
+        }
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxWeight().toBytes())
+                .weigher(ResponseCache::weigh)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "shareit-server-responses");
+        this.revalidated = meterRegistry.counter("gateway.response.cache.revalidated");
+        this.staleServed = meterRegistry.counter("gateway.response.cache.stale");
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public ServerTransport decorate(ServerTransport transport) {
+        return (method, path, headers, parameters, body) -> {
+            if (method == HttpMethod.GET && parameters == null && CACHEABLE_PATH.matcher(path).matches()) {
+                return get(transport, path, headers);
+            }
+            String resource = path.split("\\?", 2)[0];
+            if ((method == HttpMethod.PATCH || method == HttpMethod.DELETE)
+                    && CACHEABLE_PATH.matcher(resource).matches()) {
+                cache.invalidate(resource);
+                return exchange(transport, method, path, headers, parameters, body)
+                        .whenComplete((response, error) -> cache.invalidate(resource));
+            }
+            return transport.exchange(method, path, headers, parameters, body);
+        };
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> get(ServerTransport transport, String path, HttpHeaders headers) {
+        String user = String.valueOf(headers.getFirst(header));
+        Map<String, CachedResponse> entries = cache.getIfPresent(path);
+        CachedResponse cached = entries != null ? entries.get(user) : null;
+        if (cached != null && cached.age() < properties.getFreshFor().toNanos()) {
+            return CompletableFuture.completedFuture(cached.toResponse());
+        }
+        HttpHeaders requestHeaders = headers;
+        if (cached != null) {
+            requestHeaders = new HttpHeaders();
+            requestHeaders.addAll(headers);
+            requestHeaders.setIfNoneMatch(cached.eTag);
+        }
+        CompletableFuture<ResponseEntity<Object>> revalidation = exchange(transport, HttpMethod.GET, path,
+                requestHeaders, null, null)
+                .thenApply(response -> update(path, user, cached, response));
+        if (cached == null) {
+            return revalidation;
+        }
+        return revalidation.copy()
+                .orTimeout(properties.getRevalidateTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .handle((response, error) -> {
+                    if (response != null && response.getStatusCodeValue() < 500) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+                    if (cached.age() <= properties.getStaleGrace().toNanos()) {
+                        staleServed.increment();
+                        return CompletableFuture.completedFuture(cached.toStaleResponse());
+                    }
+                    return revalidation;
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private ResponseEntity<Object> update(String path,
+                                          String user,
+                                          @Nullable CachedResponse cached,
+                                          ResponseEntity<Object> response) {
+        int status = response.getStatusCodeValue();
+        if (status == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+            revalidated.increment();
+            CachedResponse refreshed = new CachedResponse(cached.body, cached.headers, cached.eTag);
+            store(path, user, refreshed);
+            return refreshed.toResponse();
+        }
+        String eTag = response.getHeaders().getETag();
+        if (status == HttpStatus.OK.value() && response.getBody() instanceof byte[] && eTag != null) {
+            store(path, user, new CachedResponse((byte[]) response.getBody(), response.getHeaders(), eTag));
+        } else if (status >= 400 && status < 500) {
+            remove(path, user);
+        }
+        return response;
+    }
+
+    private void store(String path, String user, CachedResponse response) {
+        cache.asMap().compute(path, (key, entries) -> {
+            Map<String, CachedResponse> updated = entries != null ? new HashMap<>(entries) : new HashMap<>();
+            updated.put(user, response);
+            return updated;
+        });
+    }
+
+    private void remove(String path, String user) {
+        cache.asMap().computeIfPresent(path, (key, entries) -> {
+            Map<String, CachedResponse> updated = new HashMap<>(entries);
+            updated.remove(user);
+            return updated.isEmpty() ? null : updated;
+        });
+    }
+
+    private static CompletableFuture<ResponseEntity<Object>> exchange(ServerTransport transport,
+                                                                      HttpMethod method,
+                                                                      String path,
+                                                                      HttpHeaders headers,
+                                                                      @Nullable Map<String, Object> parameters,
+                                                                      @Nullable Object body) {
+        try {
+            return transport.exchange(method, path, headers, parameters, body);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static int weigh(String path, Map<String, CachedResponse> entries) {
+        int weight = path.length();
+        for (Map.Entry<String, CachedResponse> entry : entries.entrySet()) {
+            weight += entry.getKey().length() + entry.getValue().body.length + ENTRY_OVERHEAD;
+        }
+        return weight;
+    }
+
+    private static final class CachedResponse {
+
+        private final byte[] body;
+        private final HttpHeaders headers;
+        private final String eTag;
+        private final long validatedAt = System.nanoTime();
+
+        private CachedResponse(byte[] body, HttpHeaders headers, String eTag) {
+            this.body = body;
+            this.headers = headers;
+            this.eTag = eTag;
+        }
+
+        private long age() {
+            return System.nanoTime() - validatedAt;
+        }
+
+        private ResponseEntity<Object> toResponse() {
+            return new ResponseEntity<>(body, headers, HttpStatus.OK);
+        }
+
+        private ResponseEntity<Object> toStaleResponse() {
+            HttpHeaders staleHeaders = new HttpHeaders();
+            staleHeaders.addAll(headers);
+            staleHeaders.add(HttpHeaders.WARNING, STALE_WARNING);
+            return new ResponseEntity<>(body, staleHeaders, HttpStatus.OK);
+        }
+
+    }
+
+}
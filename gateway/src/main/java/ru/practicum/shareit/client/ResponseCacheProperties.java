@@ -0,0 +1,29 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.cache")
+public class ResponseCacheProperties {
+
+    private DataSize maxWeight = DataSize.ofMegabytes(32);
+
+    /**
+     * How long a cached response is served without asking shareit-server. None by default: a resource is
+     * only invalidated by a PATCH or DELETE of its own path through this gateway, while items and bookings
+     * also change through comments, booking state changes and other gateway instances. Every GET is
+     * revalidated with its ETag instead, which leaves a 304 without a body to transfer and parse.
+     */
+    private Duration freshFor = Duration.ZERO;
+
+    private Duration staleGrace = Duration.ofSeconds(30);
+
+    private Duration revalidateTimeout = Duration.ofSeconds(1);
+
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class RestTemplateTransport implements ServerTransport {
+
+    private final RestTemplate rest;
+    private final Class<?> responseType;
+
+    public RestTemplateTransport(RestTemplate rest, boolean passthrough) {
+        this.rest = rest;
+        this.responseType = passthrough ? byte[].class : Object.class;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method,
+                                                              String path,
+                                                              HttpHeaders headers,
+                                                              @Nullable Map<String, Object> parameters,
+                                                              @Nullable Object body) {
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, headers);
+        ResponseEntity<?> shareitServerResponse;
+        try {
+            if (parameters != null) {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, responseType, parameters);
+            } else {
+                shareitServerResponse = rest.exchange(path, method, requestEntity, responseType);
+            }
+        } catch (HttpStatusCodeException e) {
+            HttpHeaders serverHeaders = e.getResponseHeaders() != null ? e.getResponseHeaders() : HttpHeaders.EMPTY;
+            return CompletableFuture.completedFuture(new ResponseEntity<>(e.getResponseBodyAsByteArray(),
+                    ProxiedHeaders.of(serverHeaders), e.getStatusCode()));
+        }
+        return CompletableFuture.completedFuture(new ResponseEntity<>(shareitServerResponse.getBody(),
+                ProxiedHeaders.of(shareitServerResponse.getHeaders()), shareitServerResponse.getStatusCode()));
+    }
+
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket shared by hedges and retries: every request earns {@code ratio} of a token and every extra attempt
+ * spends a whole one, so during an outage extra attempts stay below {@code ratio} of the traffic.
+ */
+class RetryBudget {
+
+    private static final long TOKEN = 1000;
+
+    private final long earnedPerRequest;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    RetryBudget(double ratio, int maxTokens) {
+        this.earnedPerRequest = Math.round(ratio * TOKEN);
+        this.capacity = maxTokens * TOKEN;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    void deposit() {
+        long current;
+        long next;
+        do {
+            current = balance.get();
+            next = Math.min(capacity, current + earnedPerRequest);
+        } while (current != next && !balance.compareAndSet(current, next));
+    }
+
+    boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    double tokens() {
+        return (double) balance.get() / TOKEN;
+    }
+
+}
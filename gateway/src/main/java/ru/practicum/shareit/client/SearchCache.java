@@ -0,0 +1,133 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+/**
+ * Caches item search pages by normalized text, from and size for all users, and drops every cached page
+ * whenever an item is created, changed or deleted through the gateway. Sits outside {@link SingleFlight}
+ * so misses for a popular term are still coalesced into one server call. A cached page is only served to
+ * a user whose own search the server answered within the time to live, so unknown users still get the
+ * server's 404; misses are sent with the caller's text as is.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-server.search-cache.enabled", havingValue = "true")
+@EnableConfigurationProperties(SearchCacheProperties.class)
+public class SearchCache implements ServerTransportDecorator {
+
+    public static final int ORDER = 40;
+
+    private static final String ITEMS_PATH = "/items";
+    private static final String SEARCH_PATH = "/items/search?";
+    private static final String USER_PATH = "/users/";
+
+    private final Cache<String, ResponseEntity<Object>> cache;
+    private final Cache<String, Boolean> searchers;
+    private final AtomicLong generation = new AtomicLong();
+
+    public SearchCache(SearchCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+        this.searchers = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway-item-search");
+        Gauge.builder("gateway.item.search.cache.hit.ratio", cache, searches -> searches.stats().hitRate())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public ServerTransport decorate(ServerTransport transport) {
+        return (method, path, headers, parameters, body) -> {
+            if (method == HttpMethod.GET && path.startsWith(SEARCH_PATH)
+                    && parameters != null && parameters.get("text") != null) {
+                return search(transport, path, headers, parameters);
+            }
+            if ((method == HttpMethod.POST || method == HttpMethod.PATCH || method == HttpMethod.DELETE)
+                    && isItemsPath(path)) {
+                invalidate();
+                return exchange(transport, method, path, headers, parameters, body)
+                        .whenComplete((response, error) -> invalidate());
+            }
+            if (method == HttpMethod.DELETE && path.startsWith(USER_PATH)) {
+                searchers.invalidate(path.substring(USER_PATH.length()));
+            }
+            return transport.exchange(method, path, headers, parameters, body);
+        };
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> search(ServerTransport transport,
+                                                             String path,
+                                                             HttpHeaders headers,
+                                                             Map<String, Object> parameters) {
+        String text = parameters.get("text").toString().trim().toLowerCase(Locale.ROOT);
+        String key = parameters.get("from") + ":" + parameters.get("size") + ":" + text;
+        String user = String.valueOf(headers.getFirst(header));
+        ResponseEntity<Object> cached = searchers.getIfPresent(user) != null ? cache.getIfPresent(key) : null;
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        long observed = generation.get();
+        return exchange(transport, HttpMethod.GET, path, headers, parameters, null)
+                .thenApply(response -> {
+                    if (response.getStatusCode() == HttpStatus.OK) {
+                        searchers.put(user, Boolean.TRUE);
+                        if (generation.get() == observed) {
+                            cache.put(key, response);
+                        }
+                    }
+                    return response;
+                });
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private static boolean isItemsPath(String path) {
+        return path.startsWith(ITEMS_PATH) && (path.length() == ITEMS_PATH.length()
+                || path.charAt(ITEMS_PATH.length()) == '/' || path.charAt(ITEMS_PATH.length()) == '?');
+    }
+
+    private static CompletableFuture<ResponseEntity<Object>> exchange(ServerTransport transport,
+                                                                      HttpMethod method,
+                                                                      String path,
+                                                                      HttpHeaders headers,
+                                                                      @Nullable Map<String, Object> parameters,
+                                                                      @Nullable Object body) {
+        try {
+            return transport.exchange(method, path, headers, parameters, body);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+}
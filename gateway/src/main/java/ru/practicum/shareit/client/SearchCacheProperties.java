@@ -0,0 +1,18 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.search-cache")
+public class SearchCacheProperties {
+
+    private long maxSize = 1000;
+
+    private Duration timeToLive = Duration.ofSeconds(10);
+
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every request sent to shareit-server as {@code gateway.server.requests}, tagged by the gateway route it
+ * serves. As the innermost decorator it sees only what goes on the wire: each hedged or retried attempt is
+ * timed on its own, while cache hits, rejections and waits on a call shared by {@link SingleFlight} are not.
+ * The time is also recorded in the {@link ServerTime} of the current request, its {@link #SERVER_TIME_ATTRIBUTE},
+ * so the time the gateway spends on its own can be told apart.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-gateway.timings.enabled", havingValue = "true")
+public class ServerCallTimer implements ServerTransportDecorator {
+
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    public static final String SERVER_TIME_ATTRIBUTE = ServerCallTimer.class.getName() + ".SERVER_TIME";
+
+    private static final String NO_ROUTE = "NONE";
+    private static final int NO_STATUS = -1;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public ServerCallTimer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public ServerTransport decorate(ServerTransport transport) {
+        return (method, path, headers, parameters, body) -> {
+            RequestAttributes request = RequestContextHolder.getRequestAttributes();
+            Object route = attributeOf(request, HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            Object serverTime = attributeOf(request, SERVER_TIME_ATTRIBUTE);
+            long start = System.nanoTime();
+            if (serverTime instanceof ServerTime) {
+                ((ServerTime) serverTime).callStarted(start);
+            }
+            CompletableFuture<ResponseEntity<Object>> call;
+            try {
+                call = transport.exchange(method, path, headers, parameters, body);
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            return call.whenComplete((response, error) -> {
+                long end = System.nanoTime();
+                if (serverTime instanceof ServerTime) {
+                    ((ServerTime) serverTime).callEnded(end);
+                }
+                long duration = end - start;
+                timerOf(new TimerKey(route != null ? route.toString() : NO_ROUTE,
+                        method,
+                        response != null ? response.getStatusCodeValue() : NO_STATUS,
+                        error != null ? causeOf(error).getClass() : null))
+                        .record(duration, TimeUnit.NANOSECONDS);
+            });
+        };
+    }
+
+    @Nullable
+    private static Object attributeOf(@Nullable RequestAttributes request, String name) {
+        if (request == null) {
+            return null;
+        }
+        try {
+            return request.getAttribute(name, RequestAttributes.SCOPE_REQUEST);
+        } catch (IllegalStateException e) {
+            // a hedged attempt may outlive the request it was sent for
+            return null;
+        }
+    }
+
+    /**
+     * Registered timers by tag values, so a call records without building tags or looking up the registry.
+     */
+    private Timer timerOf(TimerKey key) {
+        Timer timer = timers.get(key);
+        return timer != null ? timer : timers.computeIfAbsent(key, this::register);
+    }
+
+    private Timer register(TimerKey key) {
+        return Timer.builder("gateway.server.requests")
+                .tag("route", key.route)
+                .tag("method", key.method.name())
+                .tag("status", key.status != NO_STATUS ? Integer.toString(key.status) : "NONE")
+                .tag("exception", key.exception != null ? key.exception.getSimpleName() : "None")
+                .register(meterRegistry);
+    }
+
+    private static Throwable causeOf(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class TimerKey {
+
+        private final String route;
+        private final HttpMethod method;
+        private final int status;
+        @Nullable
+        private final Class<?> exception;
+
+    }
+
+}
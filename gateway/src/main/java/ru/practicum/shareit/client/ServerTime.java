@@ -0,0 +1,51 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * Time a gateway request spent waiting for shareit-server: the time at least one call to it was in flight, so
+ * overlapping calls, such as hedged attempts, are counted once. The calls of a batch entry also count towards
+ * the batch it belongs to.
+ */
+public final class ServerTime {
+
+    @Nullable
+    private final ServerTime batch;
+    private int inFlight;
+    private long since;
+    private long total;
+
+    public ServerTime(@Nullable ServerTime batch) {
+        this.batch = batch;
+    }
+
+    /**
+     * @return the time waited so far in nanoseconds, calls still in flight included
+     */
+    public synchronized long nanos() {
+        return inFlight > 0 ? total + System.nanoTime() - since : total;
+    }
+
+    void callStarted(long nanoTime) {
+        synchronized (this) {
+            if (inFlight++ == 0) {
+                since = nanoTime;
+            }
+        }
+        if (batch != null) {
+            batch.callStarted(nanoTime);
+        }
+    }
+
+    void callEnded(long nanoTime) {
+        synchronized (this) {
+            if (--inFlight == 0) {
+                total += nanoTime - since;
+            }
+        }
+        if (batch != null) {
+            batch.callEnded(nanoTime);
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Configuration
+public class ServerTransportConfig {
+
+    @Bean
+    @Primary
+    public ServerTransport gatewayServerTransport(@Qualifier("shareitServerTransport") ServerTransport transport,
+                                                  ObjectProvider<ServerTransportDecorator> decorators) {
+        List<ServerTransportDecorator> orderedDecorators = decorators.orderedStream()
+                .collect(Collectors.toList());
+        ServerTransport decorated = transport;
+        for (int i = orderedDecorators.size() - 1; i >= 0; i--) {
+            decorated = orderedDecorators.get(i).decorate(decorated);
+        }
+        return decorated;
+    }
+
+}
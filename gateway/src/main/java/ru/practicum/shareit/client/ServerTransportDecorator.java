@@ -0,0 +1,9 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.Ordered;
+
+public interface ServerTransportDecorator extends Ordered {
+
+    ServerTransport decorate(ServerTransport transport);
+
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+@Component
+@ConditionalOnProperty(name = "shareit-server.single-flight.enabled", havingValue = "true")
+public class SingleFlight implements ServerTransportDecorator {
+
+    public static final int ORDER = 50;
+
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.leaders = meterRegistry.counter("gateway.single.flight.requests", "role", "leader");
+        this.followers = meterRegistry.counter("gateway.single.flight.requests", "role", "follower");
+        Gauge.builder("gateway.single.flight.coalescing.ratio", this, SingleFlight::coalescingRatio)
+                .register(meterRegistry);
+        Gauge.builder("gateway.single.flight.in.flight", inFlight, Map::size)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public ServerTransport decorate(ServerTransport transport) {
+        return (method, path, headers, parameters, body) -> {
+            if (method != HttpMethod.GET) {
+                return transport.exchange(method, path, headers, parameters, body);
+            }
+            String key = keyOf(path, headers, parameters);
+            CompletableFuture<ResponseEntity<Object>> call = new CompletableFuture<>();
+            CompletableFuture<ResponseEntity<Object>> existing = inFlight.putIfAbsent(key, call);
+            if (existing != null) {
+                followers.increment();
+                return existing.copy();
+            }
+            leaders.increment();
+            try {
+                transport.exchange(method, path, headers, parameters, null)
+                        .whenComplete((response, error) -> {
+                            inFlight.remove(key, call);
+                            if (error != null) {
+                                call.completeExceptionally(error);
+                            } else {
+                                call.complete(response);
+                            }
+                        });
+            } catch (RuntimeException e) {
+                inFlight.remove(key, call);
+                call.completeExceptionally(e);
+            }
+            return call.copy();
+        };
+    }
+
+    private double coalescingRatio() {
+        double total = leaders.count() + followers.count();
+        return total == 0 ? 0 : followers.count() / total;
+    }
+
+    private static String keyOf(String path, HttpHeaders headers, @Nullable Map<String, Object> parameters) {
+        StringBuilder key = new StringBuilder(path);
+        if (parameters != null) {
+            key.append(' ').append(new TreeMap<>(parameters));
+        }
+        return key.append(' ').append(headers.getFirst(header)).toString();
+    }
+
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.transport", havingValue = "reactive")
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class WebClientConfig {
+
+    private final String serverUrl;
+    private final HttpClientProperties properties;
+
+    public WebClientConfig(@Value("${shareit-server.url}") String serverUrl, HttpClientProperties properties) {
+        this.serverUrl = serverUrl;
+        this.properties = properties;
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareitServerConnectionProvider() {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.isHttp2() ? properties.getHttp2MaxConnections() : properties.getMaxPerRoute())
+                .pendingAcquireMaxCount(properties.getMaxPendingAcquires())
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getKeepAlive())
+                .evictInBackground(properties.getIdleEviction())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient shareitServerWebClient(WebClient.Builder builder, ConnectionProvider connectionProvider) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout())
+                .compress(true);
+        if (properties.isHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C);
+        }
+        return builder
+                .baseUrl(serverUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @Bean
+    public ServerTransport shareitServerTransport(WebClient webClient,
+                                                  @Value("${shareit-server.passthrough:false}") boolean passthrough) {
+        return new WebClientTransport(webClient, passthrough);
+    }
+
+}
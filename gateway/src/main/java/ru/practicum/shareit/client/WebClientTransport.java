@@ -0,0 +1,52 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class WebClientTransport implements ServerTransport {
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private final WebClient webClient;
+    private final boolean passthrough;
+
+    public WebClientTransport(WebClient webClient, boolean passthrough) {
+        this.webClient = webClient;
+        this.passthrough = passthrough;
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method,
+                                                              String path,
+                                                              HttpHeaders headers,
+                                                              @Nullable Map<String, Object> parameters,
+                                                              @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(requestHeaders -> requestHeaders.addAll(headers));
+        WebClient.RequestHeadersSpec<?> exchange = body != null ? request.bodyValue(body) : request;
+        return exchange.exchangeToMono(this::toGatewayResponse)
+                .toFuture();
+    }
+
+    private Mono<ResponseEntity<Object>> toGatewayResponse(ClientResponse response) {
+        HttpHeaders headers = ProxiedHeaders.of(response.headers().asHttpHeaders());
+        if (passthrough || response.statusCode().isError()) {
+            return response.bodyToMono(byte[].class)
+                    .defaultIfEmpty(EMPTY_BODY)
+                    .map(body -> new ResponseEntity<Object>(body, headers, response.rawStatusCode()));
+        }
+        return response.bodyToMono(Object.class)
+                .map(body -> new ResponseEntity<>(body, headers, response.rawStatusCode()))
+                .defaultIfEmpty(new ResponseEntity<>(null, headers, response.rawStatusCode()));
+    }
+
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit-gateway.timings.enabled", havingValue = "true")
+public class SelfTimeConfig {
+
+    @Bean
+    public FilterRegistrationBean<SelfTimeFilter> selfTimeFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SelfTimeFilter> registration = new FilterRegistrationBean<>(
+                new SelfTimeFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.client.ServerCallTimer;
+import ru.practicum.shareit.client.ServerTime;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records {@code gateway.self.time}: the time a request spends in the gateway, filters and
+ * (de)serialization included, minus the time it waited for shareit-server. A batch entry, which arrives with
+ * the {@link ServerTime} of its batch, records its calls in both.
+ */
+public class SelfTimeFilter extends OncePerRequestFilter {
+
+    private static final String START_ATTRIBUTE = SelfTimeFilter.class.getName() + ".START";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public SelfTimeFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start;
+        if (isAsyncDispatch(request)) {
+            Object asyncStart = request.getAttribute(START_ATTRIBUTE);
+            start = asyncStart instanceof Long ? (Long) asyncStart : System.nanoTime();
+        } else {
+            start = System.nanoTime();
+            Object batchServerTime = request.getAttribute(ServerCallTimer.SERVER_TIME_ATTRIBUTE);
+            request.setAttribute(ServerCallTimer.SERVER_TIME_ATTRIBUTE,
+                    new ServerTime(batchServerTime instanceof ServerTime ? (ServerTime) batchServerTime : null));
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (isAsyncStarted(request)) {
+                if (!isAsyncDispatch(request)) {
+                    request.setAttribute(START_ATTRIBUTE, start);
+                }
+            } else {
+                record(request, response, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long duration) {
+        Object serverTime = request.getAttribute(ServerCallTimer.SERVER_TIME_ATTRIBUTE);
+        long selfTime = serverTime instanceof ServerTime
+                ? Math.max(0, duration - ((ServerTime) serverTime).nanos())
+                : duration;
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        timerOf(new TimerKey(route != null ? route.toString() : "UNKNOWN", request.getMethod(), response.getStatus()))
+                .record(selfTime, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timerOf(TimerKey key) {
+        Timer timer = timers.get(key);
+        return timer != null ? timer : timers.computeIfAbsent(key, this::register);
+    }
+
+    private Timer register(TimerKey key) {
+        return Timer.builder("gateway.self.time")
+                .tag("route", key.route)
+                .tag("method", key.method)
+                .tag("status", Integer.toString(key.status))
+                .register(meterRegistry);
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static final class TimerKey {
+
+        private final String route;
+        private final String method;
+        private final int status;
+
+    }
+
+}
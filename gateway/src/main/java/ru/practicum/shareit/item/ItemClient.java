@@ -1,60 +1,57 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.DeleteMapping;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.comment.dto.IncomingCommentDto;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ServerTransport transport) {
+        super(API_PREFIX, transport);
     }
 
-    public ResponseEntity<Object> getAllOwnerItems(Long ownerId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllOwnerItems(Long ownerId, Integer from, Integer size) {
         return get("?from={from}&size={size}", ownerId, Map.of("from", from, "size", size));
     }
 
-    public ResponseEntity<Object> getItemById(Long ownerId, Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> getAllOwnerItems(Long ownerId, Integer size, String after) {
+        return get("?size={size}&after={after}", ownerId, Map.of("size", size, "after", after));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getItemById(Long ownerId, Long itemId) {
         return get("/" + itemId, ownerId);
     }
 
-    public ResponseEntity<Object> getItemsBySearch(Integer from, Integer size, Long userId, String text) {
+    public CompletableFuture<ResponseEntity<Object>> getItemsBySearch(Integer from, Integer size, Long userId, String text) {
         return get("/search?from={from}&size={size}&text={text}", userId,
                 Map.of("from", from, "size", size, "text", text));
     }
 
-    public ResponseEntity<Object> postItem(Long ownerId, IncomingItemDto incomingItemDto) {
+    public CompletableFuture<ResponseEntity<Object>> postItem(Long ownerId, IncomingItemDto incomingItemDto) {
         return post("", ownerId, incomingItemDto);
     }
 
-    public ResponseEntity<Object> postComment(Long authorId, Long itemId, IncomingCommentDto incomingCommentDto) {
+    public CompletableFuture<ResponseEntity<Object>> postComment(Long authorId, Long itemId, IncomingCommentDto incomingCommentDto) {
         return post("/" + itemId + "/comment", authorId, incomingCommentDto);
     }
 
-    public ResponseEntity<Object> patchItemById(Long ownerId, Long itemId, IncomingItemDto incomingItemDto) {
+    public CompletableFuture<ResponseEntity<Object>> patchItemById(Long ownerId, Long itemId, IncomingItemDto incomingItemDto) {
         return patch("/" + itemId, ownerId, incomingItemDto);
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> deleteItemById(Long ownerId, Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteItemById(Long ownerId, Long itemId) {
         return delete("/" + itemId, ownerId);
     }
 
@@ -9,14 +9,17 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comment.dto.IncomingCommentDto;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.validation.ValidationMarker;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
 import static ru.practicum.shareit.http.HttpHeader.header;
 
@@ -30,71 +33,74 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllOwnerItems(
+    public CompletableFuture<ResponseEntity<Object>> getAllOwnerItems(
             HttpServletRequest request,
             @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero Integer from,
             @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(20) Integer size,
+            @RequestParam(value = "after", required = false) @Pattern(regexp = Cursor.PATTERN) String after,
             @RequestHeader(header) @Positive Long ownerId) {
-        log.info("Id-{} {} {}?{}", ownerId, request.getMethod(), request.getRequestURI(), request.getQueryString());
-        return itemClient.getAllOwnerItems(ownerId, from, size);
+        log.debug("Id-{} {} {}?{}", ownerId, request.getMethod(), request.getRequestURI(), request.getQueryString());
+        return after == null
+                ? itemClient.getAllOwnerItems(ownerId, from, size)
+                : itemClient.getAllOwnerItems(ownerId, size, after);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(
+    public CompletableFuture<ResponseEntity<Object>> getItemById(
             HttpServletRequest request,
             @RequestHeader(header) @Positive Long ownerId,
             @PathVariable @Positive Long itemId) {
-        log.info("Id-{} {} {}", ownerId, request.getMethod(), request.getRequestURI());
+        log.debug("Id-{} {} {}", ownerId, request.getMethod(), request.getRequestURI());
         return itemClient.getItemById(ownerId, itemId);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getItemsBySearch(
+    public CompletableFuture<ResponseEntity<Object>> getItemsBySearch(
             HttpServletRequest request,
             @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero Integer from,
             @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(20) Integer size,
             @RequestHeader(header) @Positive Long userId,
             @RequestParam(value = "text") String text) {
-        log.info("Id-{} {} {}?{}", userId, request.getMethod(), request.getRequestURI(), request.getQueryString());
-        if (text.isBlank()) return new ResponseEntity<>(Collections.EMPTY_LIST, HttpStatus.OK);
+        log.debug("Id-{} {} {}?{}", userId, request.getMethod(), request.getRequestURI(), request.getQueryString());
+        if (text.isBlank()) return CompletableFuture.completedFuture(new ResponseEntity<>(Collections.EMPTY_LIST, HttpStatus.OK));
         return itemClient.getItemsBySearch(from, size, userId, text);
     }
 
     @PostMapping
-    public ResponseEntity<Object> postItem(
+    public CompletableFuture<ResponseEntity<Object>> postItem(
             HttpServletRequest request,
             @RequestHeader(header) @Positive Long ownerId,
             @RequestBody @Validated(ValidationMarker.OnCreate.class) IncomingItemDto incomingItemDto) {
-        log.info("Id-{} {} {} {}", ownerId, request.getMethod(), request.getRequestURI(), incomingItemDto);
+        log.debug("Id-{} {} {} {}", ownerId, request.getMethod(), request.getRequestURI(), incomingItemDto);
         return itemClient.postItem(ownerId, incomingItemDto);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> postComment(
+    public CompletableFuture<ResponseEntity<Object>> postComment(
             HttpServletRequest request,
             @RequestHeader(header) @Positive Long authorId,
             @PathVariable @Positive Long itemId,
             @RequestBody @Validated(ValidationMarker.OnCreate.class) IncomingCommentDto incomingCommentDto) {
-        log.info("Id-{} {} {} {}", authorId, request.getMethod(), request.getRequestURI(), incomingCommentDto);
+        log.debug("Id-{} {} {} {}", authorId, request.getMethod(), request.getRequestURI(), incomingCommentDto);
         return itemClient.postComment(authorId, itemId, incomingCommentDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> patchItemById(
+    public CompletableFuture<ResponseEntity<Object>> patchItemById(
             HttpServletRequest request,
             @RequestHeader(header) @Positive Long ownerId,
             @PathVariable @Positive Long itemId,
             @RequestBody @Validated(ValidationMarker.OnUpdate.class) IncomingItemDto incomingItemDto) {
-        log.info("Id-{} {} {} {}", ownerId, request.getMethod(), request.getRequestURI(), incomingItemDto);
+        log.debug("Id-{} {} {} {}", ownerId, request.getMethod(), request.getRequestURI(), incomingItemDto);
         return itemClient.patchItemById(ownerId, itemId, incomingItemDto);
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> deleteItemById(
+    public CompletableFuture<ResponseEntity<Object>> deleteItemById(
             HttpServletRequest request,
             @RequestHeader(header) @Positive Long ownerId,
             @PathVariable @Positive Long itemId) {
-        log.info("Id-{} {} {}", ownerId, request.getMethod(), request.getRequestURI());
+        log.debug("Id-{} {} {}", ownerId, request.getMethod(), request.getRequestURI());
         return itemClient.deleteItemById(ownerId, itemId);
     }
 
@@ -0,0 +1,121 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String CONTROLLER_SUFFIX = "Controller";
+
+    private final RateLimitProperties properties;
+    private final RateLimiter rateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, ControllerBuckets> controllerBuckets = new ConcurrentHashMap<>();
+    private final AtomicInteger bucketIds = new AtomicInteger();
+
+    public RateLimitInterceptor(RateLimitProperties properties, RateLimiter rateLimiter, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Long userId = userIdOf(request);
+        if (userId == null) {
+            return true;
+        }
+        ControllerBuckets buckets = controllerBuckets.computeIfAbsent(((HandlerMethod) handler).getBeanType(),
+                this::bucketsOf);
+        boolean read = HttpMethod.GET.matches(request.getMethod());
+        long waitNanos = rateLimiter.tryAcquire(userId, read ? buckets.read : buckets.write);
+        if (waitNanos == 0) {
+            return true;
+        }
+        (read ? buckets.readRejections : buckets.writeRejections).increment();
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        log.warn("Id-{} {} {} rejected, retry after {} s", userId, request.getMethod(), request.getRequestURI(),
+                retryAfterSeconds);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("TooManyRequests : Rate limit exceeded for user with id " + userId
+                + ", retry after " + retryAfterSeconds + " s");
+        return false;
+    }
+
+    private ControllerBuckets bucketsOf(Class<?> controller) {
+        String name = controller.getSimpleName();
+        if (name.endsWith(CONTROLLER_SUFFIX)) {
+            name = name.substring(0, name.length() - CONTROLLER_SUFFIX.length());
+        }
+        name = name.toLowerCase();
+        RateLimitProperties.ControllerBudgets budgets = properties.getControllers().get(name);
+        RateLimitProperties.Budget read = budgets != null && budgets.getRead() != null
+                ? budgets.getRead() : properties.getRead();
+        RateLimitProperties.Budget write = budgets != null && budgets.getWrite() != null
+                ? budgets.getWrite() : properties.getWrite();
+        return new ControllerBuckets(
+                new RateLimiter.Bucket(bucketIds.getAndIncrement(), read),
+                new RateLimiter.Bucket(bucketIds.getAndIncrement(), write),
+                meterRegistry.counter("gateway.rate.limit.rejected", "controller", name, "access", "read"),
+                meterRegistry.counter("gateway.rate.limit.rejected", "controller", name, "access", "write"));
+    }
+
+    private static Long userIdOf(HttpServletRequest request) {
+        String userId = request.getHeader(header);
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(userId.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class ControllerBuckets {
+
+        private final RateLimiter.Bucket read;
+        private final RateLimiter.Bucket write;
+        private final Counter readRejections;
+        private final Counter writeRejections;
+
+        private ControllerBuckets(RateLimiter.Bucket read,
+                                  RateLimiter.Bucket write,
+                                  Counter readRejections,
+                                  Counter writeRejections) {
+            this.read = read;
+            this.write = write;
+            this.readRejections = readRejections;
+            this.writeRejections = writeRejections;
+        }
+
+    }
+
+}
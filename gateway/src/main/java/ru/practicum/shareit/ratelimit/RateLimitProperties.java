@@ -0,0 +1,48 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.rate-limit")
+public class RateLimitProperties {
+
+    private Duration sweepInterval = Duration.ofSeconds(10);
+
+    private Budget read = new Budget(50, 100);
+
+    private Budget write = new Budget(10, 20);
+
+    private Map<String, ControllerBudgets> controllers = new HashMap<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Budget {
+
+        private double permitsPerSecond;
+
+        private int burst;
+
+    }
+
+    @Getter
+    @Setter
+    public static class ControllerBudgets {
+
+        private Budget read;
+
+        private Budget write;
+
+    }
+
+}
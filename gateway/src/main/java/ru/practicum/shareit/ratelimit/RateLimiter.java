@@ -0,0 +1,102 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Generic cell rate algorithm: each bucket is a single "theoretical arrival time" updated with CAS,
+ * which is equivalent to a token bucket refilled at {@code permitsPerSecond} holding up to {@code burst} tokens.
+ * A bucket whose arrival time has passed is full and carries no state, so {@link #sweep()} may drop it.
+ */
+public class RateLimiter {
+
+    private static final long RETIRED = Long.MAX_VALUE;
+    private static final Function<BucketKey, AtomicLong> NEW_ARRIVAL = key -> new AtomicLong(Long.MIN_VALUE);
+
+    private final ConcurrentMap<BucketKey, AtomicLong> arrivals = new ConcurrentHashMap<>();
+
+    /**
+     * @return 0 if the call is admitted, otherwise nanoseconds until it would be
+     */
+    public long tryAcquire(long userId, Bucket bucket) {
+        BucketKey key = new BucketKey(userId, bucket.id);
+        long now = System.nanoTime();
+        while (true) {
+            AtomicLong arrival = arrivals.computeIfAbsent(key, NEW_ARRIVAL);
+            long theoreticalArrival = arrival.get();
+            if (theoreticalArrival == RETIRED) {
+                arrivals.remove(key, arrival);
+                continue;
+            }
+            long nextArrival = Math.max(theoreticalArrival, now) + bucket.emissionInterval;
+            long waitNanos = nextArrival - bucket.tolerance - now;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (arrival.compareAndSet(theoreticalArrival, nextArrival)) {
+                return 0;
+            }
+        }
+    }
+
+    public void sweep() {
+        long now = System.nanoTime();
+        arrivals.forEach((key, arrival) -> {
+            long theoreticalArrival = arrival.get();
+            if (theoreticalArrival <= now && arrival.compareAndSet(theoreticalArrival, RETIRED)) {
+                arrivals.remove(key, arrival);
+            }
+        });
+    }
+
+    public int size() {
+        return arrivals.size();
+    }
+
+    public static final class Bucket {
+
+        private final int id;
+        private final long emissionInterval;
+        private final long tolerance;
+
+        public Bucket(int id, RateLimitProperties.Budget budget) {
+            this.id = id;
+            this.emissionInterval = (long) (TimeUnit.SECONDS.toNanos(1) / budget.getPermitsPerSecond());
+            this.tolerance = emissionInterval * budget.getBurst();
+        }
+
+    }
+
+    private static final class BucketKey {
+
+        private final long userId;
+        private final int bucketId;
+
+        private BucketKey(long userId, int bucketId) {
+            this.userId = userId;
+            this.bucketId = bucketId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BucketKey)) {
+                return false;
+            }
+            BucketKey other = (BucketKey) o;
+            return userId == other.userId && bucketId == other.bucketId;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode(userId) + bucketId;
+        }
+
+    }
+
+}
@@ -1,16 +1,14 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.request.dto.IncomingRequestDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class RequestClient extends BaseClient {
@@ -18,28 +16,33 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public RequestClient(ServerTransport transport) {
+        super(API_PREFIX, transport);
     }
 
-    public ResponseEntity<Object> getAllRequesterRequests(Long requesterId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllRequesterRequests(Long requesterId, Integer from, Integer size) {
         return get("?from={from}&size={size}", requesterId, Map.of("from", from, "size", size));
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllRequesterRequests(Long requesterId,
+                                                                             Integer size,
+                                                                             String after) {
+        return get("?size={size}&after={after}", requesterId, Map.of("size", size, "after", after));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(Long userId, Integer from, Integer size) {
         return get("/all?from={from}&size={size}", userId, Map.of("from", from, "size", size));
     }
 
-    public ResponseEntity<Object> getRequestById(Long userId, Long requestId) {
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(Long userId, Integer size, String after) {
+        return get("/all?size={size}&after={after}", userId, Map.of("size", size, "after", after));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 
-    public ResponseEntity<Object> postRequest(Long requesterId, IncomingRequestDto incomingRequestDto) {
+    public CompletableFuture<ResponseEntity<Object>> postRequest(Long requesterId, IncomingRequestDto incomingRequestDto) {
         return post("", requesterId, incomingRequestDto);
     }
 
@@ -6,14 +6,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.IncomingRequestDto;
 import ru.practicum.shareit.validation.ValidationMarker;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.concurrent.CompletableFuture;
 
 import static ru.practicum.shareit.http.HttpHeader.header;
 
@@ -27,40 +30,46 @@ public class RequestController {
     private final RequestClient requestClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllRequesterRequests(
+    public CompletableFuture<ResponseEntity<Object>> getAllRequesterRequests(
             HttpServletRequest request,
             @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero Integer from,
             @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(20) Integer size,
+            @RequestParam(value = "after", required = false) @Pattern(regexp = Cursor.PATTERN) String after,
             @RequestHeader(header) @Positive Long requesterId) {
-        log.info("Id-{} {} {}?{}", requesterId, request.getMethod(), request.getRequestURI(), request.getQueryString());
-        return requestClient.getAllRequesterRequests(requesterId, from, size);
+        log.debug("Id-{} {} {}?{}", requesterId, request.getMethod(), request.getRequestURI(), request.getQueryString());
+        return after == null
+                ? requestClient.getAllRequesterRequests(requesterId, from, size)
+                : requestClient.getAllRequesterRequests(requesterId, size, after);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(
             HttpServletRequest request,
             @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero Integer from,
             @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(20) Integer size,
+            @RequestParam(value = "after", required = false) @Pattern(regexp = Cursor.PATTERN) String after,
             @RequestHeader(header) @Positive Long userId) {
-        log.info("Id-{} {} {}?{}", userId, request.getMethod(), request.getRequestURI(), request.getQueryString());
-        return requestClient.getAllRequests(userId, from, size);
+        log.debug("Id-{} {} {}?{}", userId, request.getMethod(), request.getRequestURI(), request.getQueryString());
+        return after == null
+                ? requestClient.getAllRequests(userId, from, size)
+                : requestClient.getAllRequests(userId, size, after);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(
             HttpServletRequest request,
             @RequestHeader(header) @Positive Long userId,
             @PathVariable @Positive Long requestId) {
-        log.info("Id-{} {} {}", userId, request.getMethod(), request.getRequestURI());
+        log.debug("Id-{} {} {}", userId, request.getMethod(), request.getRequestURI());
         return requestClient.getRequestById(userId, requestId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> postRequest(
+    public CompletableFuture<ResponseEntity<Object>> postRequest(
             HttpServletRequest request,
             @RequestHeader(header) @Positive Long requesterId,
             @RequestBody @Validated(ValidationMarker.OnCreate.class) IncomingRequestDto incomingRequestDto) {
-        log.info("Id-{} {} {} {}", requesterId, request.getMethod(), request.getRequestURI(), incomingRequestDto);
+        log.debug("Id-{} {} {} {}", requesterId, request.getMethod(), request.getRequestURI(), incomingRequestDto);
         return requestClient.postRequest(requesterId, incomingRequestDto);
     }
 
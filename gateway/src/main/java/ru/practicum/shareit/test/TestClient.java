@@ -1,13 +1,12 @@
 package ru.practicum.shareit.test;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
+
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class TestClient extends BaseClient {
@@ -15,16 +14,11 @@ public class TestClient extends BaseClient {
     private static final String API_PREFIX = "/test";
 
     @Autowired
-    public TestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public TestClient(ServerTransport transport) {
+        super(API_PREFIX, transport);
     }
 
-    public ResponseEntity<Object> getTest() {
+    public CompletableFuture<ResponseEntity<Object>> getTest() {
         return get("");
     }
 
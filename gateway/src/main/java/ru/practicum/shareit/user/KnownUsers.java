@@ -0,0 +1,239 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.client.ServerTransportDecorator;
+import ru.practicum.shareit.exeption.NotFoundException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+/**
+ * Answers 404 in the gateway for user ids that are definitely not on the server. The Bloom filter is rebuilt
+ * every refresh interval from the server's id snapshot, read in pages of ascending ids, and learns users
+ * created through this gateway in between; deleted users stay in it until the next rebuild and are answered
+ * by the server as before. Seeding starts once the application is ready; until the first snapshot arrives every
+ * request is passed through.
+ * <p>
+ * A user created through another gateway instance or on the server directly is answered 404 here until the
+ * next rebuild, so the filter is off unless {@code shareit-server.known-users.enabled} is set, and only fits
+ * a single gateway in front of the server.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit-server.known-users.enabled", havingValue = "true")
+@EnableConfigurationProperties(KnownUsersProperties.class)
+public class KnownUsers implements ServerTransportDecorator, DisposableBean {
+
+    public static final int ORDER = 20;
+
+    private static final String USERS_PATH = "/users";
+    private static final String SNAPSHOT_PATH = "/users/ids?after={after}&size={size}";
+    private static final long SEED_RETRY_SECONDS = 5;
+
+    private final KnownUsersProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+    private final ScheduledExecutorService refresher;
+    private final Set<Long> createdDuringRefresh = new HashSet<>();
+    @Nullable
+    private volatile ServerTransport snapshotTransport;
+    private volatile UserIdBloomFilter filter;
+    private boolean refreshing;
+
+    public KnownUsers(KnownUsersProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.rejected = meterRegistry.counter("gateway.known.users.rejected");
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "known-users-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    @Override
+    public ServerTransport decorate(ServerTransport transport) {
+        snapshotTransport = transport;
+        return (method, path, headers, parameters, body) -> {
+            String userId = headers.getFirst(header);
+            if (userId != null && isUnknown(userId)) {
+                rejected.increment();
+                return CompletableFuture.failedFuture(new NotFoundException("There's no user with id " + userId));
+            }
+            if (method == HttpMethod.POST && USERS_PATH.equals(path)) {
+                return exchange(transport, method, path, headers, parameters, body)
+                        .thenApply(this::learnCreatedUser);
+            }
+            return transport.exchange(method, path, headers, parameters, body);
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        ServerTransport transport = snapshotTransport;
+        if (transport != null) {
+            refresher.execute(() -> seed(transport));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+    }
+
+    private boolean isUnknown(String userId) {
+        UserIdBloomFilter current = filter;
+        if (current == null) {
+            return false;
+        }
+        try {
+            return !current.mightContain(Long.parseLong(userId));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private ResponseEntity<Object> learnCreatedUser(ResponseEntity<Object> response) {
+        if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+            try {
+                Object body = response.getBody();
+                JsonNode user = body instanceof byte[]
+                        ? objectMapper.readTree((byte[]) body)
+                        : objectMapper.valueToTree(body);
+                JsonNode id = user.get("id");
+                if (id != null && id.canConvertToLong()) {
+                    learn(id.asLong());
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("Could not read the id of a created user : {}", e.getMessage());
+            }
+        }
+        return response;
+    }
+
+    private synchronized void learn(long userId) {
+        UserIdBloomFilter current = filter;
+        if (current != null) {
+            current.put(userId);
+        }
+        if (refreshing) {
+            createdDuringRefresh.add(userId);
+        }
+    }
+
+    private void seed(ServerTransport transport) {
+        if (refresh(transport)) {
+            long interval = properties.getRefreshInterval().toMillis();
+            refresher.scheduleWithFixedDelay(() -> refresh(transport), interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            refresher.schedule(() -> seed(transport), SEED_RETRY_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    private boolean refresh(ServerTransport transport) {
+        synchronized (this) {
+            refreshing = true;
+            createdDuringRefresh.clear();
+        }
+        try {
+            int pageSize = Math.max(1, properties.getSnapshotPageSize());
+            long[] ids = new long[0];
+            int count = 0;
+            long afterId = 0;
+            long[] page;
+            do {
+                page = snapshotPage(transport, afterId, pageSize);
+                if (count + page.length > ids.length) {
+                    ids = Arrays.copyOf(ids, Math.max(2 * ids.length, count + page.length));
+                }
+                System.arraycopy(page, 0, ids, count, page.length);
+                count += page.length;
+                if (page.length > 0) {
+                    afterId = page[page.length - 1];
+                }
+            } while (page.length == pageSize);
+            UserIdBloomFilter rebuilt = UserIdBloomFilter.create(
+                    Math.max(2L * count, properties.getMinExpectedUsers()), properties.getFalsePositiveRate());
+            for (int i = 0; i < count; i++) {
+                rebuilt.put(ids[i]);
+            }
+            synchronized (this) {
+                createdDuringRefresh.forEach(rebuilt::put);
+                filter = rebuilt;
+            }
+            log.info("Known user filter rebuilt from {} user ids", count);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.warn("Could not refresh the known user filter : {}", e.getMessage());
+            return false;
+        } finally {
+            synchronized (this) {
+                refreshing = false;
+                createdDuringRefresh.clear();
+            }
+        }
+    }
+
+    /**
+     * @return up to {@code size} user ids following {@code afterId}, in ascending order
+     */
+    private long[] snapshotPage(ServerTransport transport, long afterId, int size) throws Exception {
+        ResponseEntity<Object> response = transport
+                .exchange(HttpMethod.GET, SNAPSHOT_PATH, new HttpHeaders(), Map.of("after", afterId, "size", size),
+                        null)
+                .get(properties.getSnapshotTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException("User id snapshot request answered " + response.getStatusCodeValue());
+        }
+        Object body = response.getBody();
+        return body instanceof byte[]
+                ? objectMapper.readValue((byte[]) body, long[].class)
+                : objectMapper.convertValue(body, long[].class);
+    }
+
+    private static CompletableFuture<ResponseEntity<Object>> exchange(ServerTransport transport,
+                                                                      HttpMethod method,
+                                                                      String path,
+                                                                      HttpHeaders headers,
+                                                                      @Nullable Map<String, Object> parameters,
+                                                                      @Nullable Object body) {
+        try {
+            return transport.exchange(method, path, headers, parameters, body);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+}
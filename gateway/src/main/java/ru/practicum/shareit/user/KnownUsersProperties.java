@@ -0,0 +1,24 @@
+package ru.practicum.shareit.user;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.known-users")
+public class KnownUsersProperties {
+
+    private Duration refreshInterval = Duration.ofMinutes(1);
+
+    private Duration snapshotTimeout = Duration.ofSeconds(10);
+
+    private int snapshotPageSize = 10_000;
+
+    private double falsePositiveRate = 0.01;
+
+    private long minExpectedUsers = 1024;
+
+}
@@ -1,48 +1,45 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransport;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public UserClient(ServerTransport transport) {
+        super(API_PREFIX, transport);
     }
 
-    public ResponseEntity<Object> getAllUsers(Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllUsers(Integer from, Integer size) {
         return get("?from={from}&size={size}", null, Map.of("from", from, "size", size));
     }
 
-    public ResponseEntity<Object> getUserById(Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getAllUsers(Integer size, String after) {
+        return get("?size={size}&after={after}", null, Map.of("size", size, "after", after));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getUserById(Long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> postUser(UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> postUser(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> patchUserById(Long userId, UserDto userDto) {
+    public CompletableFuture<ResponseEntity<Object>> patchUserById(Long userId, UserDto userDto) {
         return patch("/" + userId, userDto);
     }
 
-    public ResponseEntity<Object> deleteUserById(Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteUserById(Long userId) {
         return delete("/" + userId);
     }
 
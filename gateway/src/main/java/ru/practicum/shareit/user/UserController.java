@@ -6,13 +6,16 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.validation.ValidationMarker;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Positive;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Controller
@@ -24,44 +27,47 @@ public class UserController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers(
+    public CompletableFuture<ResponseEntity<Object>> getAllUsers(
             HttpServletRequest request,
             @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
-            @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(20) Integer size) {
-        log.info("{} {}?{}", request.getMethod(), request.getRequestURI(), request.getQueryString());
-        return userClient.getAllUsers(from, size);
+            @RequestParam(value = "size", defaultValue = "20") @Min(1) @Max(20) Integer size,
+            @RequestParam(value = "after", required = false) @Pattern(regexp = Cursor.PATTERN) String after) {
+        log.debug("{} {}?{}", request.getMethod(), request.getRequestURI(), request.getQueryString());
+        return after == null
+                ? userClient.getAllUsers(from, size)
+                : userClient.getAllUsers(size, after);
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(
+    public CompletableFuture<ResponseEntity<Object>> getUserById(
             HttpServletRequest request,
             @PathVariable @Positive Long userId) {
-        log.info("{} {}", request.getMethod(), request.getRequestURI());
+        log.debug("{} {}", request.getMethod(), request.getRequestURI());
         return userClient.getUserById(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> postUser(
+    public CompletableFuture<ResponseEntity<Object>> postUser(
             HttpServletRequest request,
             @RequestBody @Validated(ValidationMarker.OnCreate.class) UserDto userDto) {
-        log.info("{} {} {}", request.getMethod(), request.getRequestURI(), userDto);
+        log.debug("{} {} {}", request.getMethod(), request.getRequestURI(), userDto);
         return userClient.postUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> patchUserById(
+    public CompletableFuture<ResponseEntity<Object>> patchUserById(
             HttpServletRequest request,
             @PathVariable @Positive Long userId,
             @RequestBody @Validated(ValidationMarker.OnUpdate.class) UserDto userDto) {
-        log.info("{} {} {}", request.getMethod(), request.getRequestURI(), userDto);
+        log.debug("{} {} {}", request.getMethod(), request.getRequestURI(), userDto);
         return userClient.patchUserById(userId, userDto);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUserById(
+    public CompletableFuture<ResponseEntity<Object>> deleteUserById(
             HttpServletRequest request,
             @PathVariable @Positive Long userId) {
-        log.info("{} {}", request.getMethod(), request.getRequestURI());
+        log.debug("{} {}", request.getMethod(), request.getRequestURI());
         return userClient.deleteUserById(userId);
     }
 
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.TextNode;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.batch.dto.BatchRequestEntry;
+import ru.practicum.shareit.batch.dto.BatchResponseEntry;
+import ru.practicum.shareit.exeption.ExceptionResolver;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.ConstraintViolationException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+@WebMvcTest({BatchController.class, ExceptionResolver.class})
+class BatchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private BatchDispatcher batchDispatcher;
+
+    @Test
+    @SneakyThrows
+    void postBatch_whenInvoke_shouldInvokeBatchDispatcherMethod() {
+        List<BatchRequestEntry> entries = List.of(
+                new BatchRequestEntry("GET", "/users/1", null),
+                new BatchRequestEntry("GET", "/items?from=0&size=5", null));
+        List<BatchResponseEntry> responses = List.of(
+                new BatchResponseEntry(200, objectMapper.readTree("{\"id\":1,\"name\":\"User\"}")),
+                new BatchResponseEntry(404, TextNode.valueOf("There's no item")));
+        when(batchDispatcher.dispatch(any(HttpServletRequest.class), eq(entries)))
+                .thenReturn(CompletableFuture.completedFuture(responses));
+        MvcResult mvcResult = mockMvc.perform(post("/batch")
+                        .header(header, 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"method\":\"GET\",\"path\":\"/users/1\"},"
+                                + "{\"method\":\"GET\",\"path\":\"/items?from=0&size=5\"}]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(responses)));
+        verify(batchDispatcher).dispatch(any(HttpServletRequest.class), eq(entries));
+    }
+
+    @Test
+    @SneakyThrows
+    void postBatch_whenEmpty_shouldThrowConstraintViolationException() {
+        mockMvc.perform(post("/batch")
+                        .header(header, 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Collections.emptyList())))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException()
+                        instanceof ConstraintViolationException))
+                .andExpect(content().string("{\"error\":\"Batch must contain from 1 to 20 entries!\"}"));
+        verifyNoInteractions(batchDispatcher);
+    }
+
+    @Test
+    @SneakyThrows
+    void postBatch_whenEntryAddressesBatch_shouldThrowConstraintViolationException() {
+        mockMvc.perform(post("/batch")
+                        .header(header, 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                List.of(new BatchRequestEntry("GET", "/batch", null)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException()
+                        instanceof ConstraintViolationException))
+                .andExpect(content().string("{\"error\":\"Batch entry path field must address users, items, "
+                        + "bookings or requests!\"}"));
+        verifyNoInteractions(batchDispatcher);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/items/../batch", "/items/%2e%2e/batch", "/items/./1", "/items//batch",
+            "/users/1;/../../batch", "/items\\..\\batch"})
+    @SneakyThrows
+    void postBatch_whenEntryPathLeavesAllowedResources_shouldThrowConstraintViolationException(String path) {
+        mockMvc.perform(post("/batch")
+                        .header(header, 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                List.of(new BatchRequestEntry("GET", path, null)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException()
+                        instanceof ConstraintViolationException));
+        verifyNoInteractions(batchDispatcher);
+    }
+
+    @Test
+    @SneakyThrows
+    void postBatch_whenNotSupportedMethod_shouldThrowConstraintViolationException() {
+        mockMvc.perform(post("/batch")
+                        .header(header, 1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                List.of(new BatchRequestEntry("PUT", "/users/1", null)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("{\"error\":\"Batch entry method field must be one of GET, POST, "
+                        + "PATCH, DELETE!\"}"));
+        verifyNoInteractions(batchDispatcher);
+    }
+
+}
@@ -0,0 +1,237 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.DispatcherServlet;
+import ru.practicum.shareit.batch.dto.BatchRequestEntry;
+import ru.practicum.shareit.batch.dto.BatchResponseEntry;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.exeption.ExceptionResolver;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.request.RequestClient;
+import ru.practicum.shareit.request.RequestController;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.UserController;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+@WebMvcTest(value = {
+        UserController.class,
+        ItemController.class,
+        BookingController.class,
+        RequestController.class,
+        ExceptionResolver.class},
+        properties = {
+                "shareit-gateway.rate-limit.controllers.booking.read.permits-per-second=0.001",
+                "shareit-gateway.rate-limit.controllers.booking.read.burst=1"})
+@Import(BatchDispatcher.class)
+class BatchDispatcherTest {
+
+    private static final List<String> FILTERED = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private BatchDispatcher batchDispatcher;
+
+    @Autowired
+    private DispatcherServlet dispatcherServlet;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserClient userClient;
+
+    @MockBean
+    private ItemClient itemClient;
+
+    @MockBean
+    private BookingClient bookingClient;
+
+    @MockBean
+    private RequestClient requestClient;
+
+    @BeforeEach
+    @SneakyThrows
+    void initDispatcherServlet() {
+        if (dispatcherServlet.getServletConfig() == null) {
+            dispatcherServlet.init(new MockServletConfig(context.getServletContext()));
+        }
+        FILTERED.clear();
+    }
+
+    @Test
+    @SneakyThrows
+    void dispatch_whenGetUser_shouldServeEntryThroughFiltersAndController() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        when(userClient.getUserById(1L))
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(
+                        "{\"id\":1,\"name\":\"User\"}".getBytes(StandardCharsets.UTF_8), headers, HttpStatus.OK)));
+        List<BatchResponseEntry> responses = dispatch(1L, new BatchRequestEntry("GET", "/users/1", null));
+        assertEquals(200, responses.get(0).getStatus());
+        assertEquals(objectMapper.readTree("{\"id\":1,\"name\":\"User\"}"), responses.get(0).getBody());
+        assertEquals(List.of("GET /users/1"), FILTERED);
+    }
+
+    @Test
+    @SneakyThrows
+    void dispatch_whenAnsweredLater_shouldWaitForAsyncDispatch() {
+        CompletableFuture<ResponseEntity<Object>> call = new CompletableFuture<>();
+        when(userClient.getUserById(1L)).thenReturn(call);
+        CompletableFuture<List<BatchResponseEntry>> responses = batchDispatcher.dispatch(batchRequest(1L),
+                List.of(new BatchRequestEntry("GET", "/users/1", null)));
+        assertFalse(responses.isDone());
+        call.complete(new ResponseEntity<>(new UserDto(1L, "User", "user@mail.ru"), HttpStatus.OK));
+        assertEquals(200, responses.get().get(0).getStatus());
+        assertEquals(objectMapper.readTree("{\"id\":1,\"name\":\"User\",\"email\":\"user@mail.ru\"}"),
+                responses.get().get(0).getBody());
+    }
+
+    @Test
+    @SneakyThrows
+    void dispatch_whenSearch_shouldPassDecodedParametersAndDefaults() {
+        when(itemClient.getItemsBySearch(0, 20, 1L, "power drill"))
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(List.of(), HttpStatus.OK)));
+        List<BatchResponseEntry> responses = dispatch(1L,
+                new BatchRequestEntry("GET", "/items/search?text=power%20drill", null));
+        assertEquals(200, responses.get(0).getStatus());
+        assertEquals(objectMapper.readTree("[]"), responses.get(0).getBody());
+        verify(itemClient).getItemsBySearch(0, 20, 1L, "power drill");
+    }
+
+    @Test
+    @SneakyThrows
+    void dispatch_whenBodyNotValid_shouldAnswerBadRequest_andNotInvokeClient() {
+        List<BatchResponseEntry> responses = dispatch(null, new BatchRequestEntry("POST", "/users",
+                objectMapper.valueToTree(new UserDto(null, "User", "not an email"))));
+        assertEquals(400, responses.get(0).getStatus());
+        assertEquals(objectMapper.readTree("{\"email\":\"Wrong email format!\"}"), responses.get(0).getBody());
+        verifyNoInteractions(userClient);
+    }
+
+    @Test
+    @SneakyThrows
+    void dispatch_whenHeaderMissing_shouldAnswerBadRequest() {
+        List<BatchResponseEntry> responses = dispatch(null, new BatchRequestEntry("GET", "/items/1", null));
+        assertEquals(400, responses.get(0).getStatus());
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    @SneakyThrows
+    void dispatch_whenNoEndpoint_shouldAnswerNotFound() {
+        List<BatchResponseEntry> responses = dispatch(1L, new BatchRequestEntry("GET", "/items/1/nope", null));
+        assertEquals(404, responses.get(0).getStatus());
+    }
+
+    @Test
+    @SneakyThrows
+    void dispatch_whenMethodNotMapped_shouldAnswerLikeStandaloneCall() {
+        int standalone = mockMvc.perform(get("/items/1/comment").header(header, 1))
+                .andReturn().getResponse().getStatus();
+        List<BatchResponseEntry> responses = dispatch(1L, new BatchRequestEntry("GET", "/items/1/comment", null));
+        assertEquals(standalone, responses.get(0).getStatus());
+        verifyNoInteractions(itemClient);
+    }
+
+    @Test
+    @SneakyThrows
+    void dispatch_whenCallFails_shouldNotExposeExceptionText() {
+        when(userClient.getUserById(1L))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("pool internals")));
+        List<BatchResponseEntry> responses = dispatch(1L, new BatchRequestEntry("GET", "/users/1", null));
+        assertEquals(500, responses.get(0).getStatus());
+        assertEquals(objectMapper.readTree("{\"error\":\"Internal Server Error\"}"), responses.get(0).getBody());
+    }
+
+    @Test
+    @SneakyThrows
+    void dispatch_whenEntriesExceedControllerBudget_shouldRejectThemLikeStandaloneCalls() {
+        when(bookingClient.getBookingById(1L, 1L))
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(List.of(), HttpStatus.OK)));
+        List<BatchResponseEntry> responses = batchDispatcher.dispatch(batchRequest(1L), List.of(
+                new BatchRequestEntry("GET", "/bookings/1", null),
+                new BatchRequestEntry("GET", "/bookings/1", null))).get();
+        assertEquals(200, responses.get(0).getStatus());
+        assertEquals(429, responses.get(1).getStatus());
+        assertTrue(responses.get(1).getBody().asText().startsWith("TooManyRequests"));
+        verify(bookingClient, times(1)).getBookingById(1L, 1L);
+    }
+
+    @SneakyThrows
+    private List<BatchResponseEntry> dispatch(Long userId, BatchRequestEntry entry) {
+        return batchDispatcher.dispatch(batchRequest(userId), List.of(entry)).get();
+    }
+
+    private static MockHttpServletRequest batchRequest(Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/batch");
+        if (userId != null) {
+            request.addHeader(header, userId);
+        }
+        return request;
+    }
+
+    @TestConfiguration
+    static class DispatcherServletConfig {
+
+        @Bean
+        DispatcherServlet dispatcherServlet() {
+            return new DispatcherServlet();
+        }
+
+        @Bean
+        FilterRegistrationBean<OncePerRequestFilter> recordingFilter() {
+            return new FilterRegistrationBean<>(new OncePerRequestFilter() {
+                @Override
+                @SneakyThrows
+                protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                                FilterChain filterChain) {
+                    FILTERED.add(request.getMethod() + " " + request.getRequestURI());
+                    filterChain.doFilter(request, response);
+                }
+            });
+        }
+
+    }
+
+}
@@ -11,6 +11,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import ru.practicum.shareit.booking.dto.IncomingBookingDto;
@@ -24,6 +25,7 @@ import javax.validation.ConstraintViolationException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -31,6 +33,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.http.HttpHeader.header;
 
@@ -71,15 +74,44 @@ class BookingControllerTest {
     void getAllUserBookings_whenAllParamsAreValid_shouldInvokeClientMethod_andReturnBookingList() {
         when(bookingClient.getAllUserBookings(2L, "ALL",
                 0, 20))
-                .thenReturn(new ResponseEntity<>(List.of(outgoingBookingDto), HttpStatus.OK));
-        mockMvc.perform(get("/bookings?state=ALL&from=0&size=20")
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(List.of(outgoingBookingDto), HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(get("/bookings?state=ALL&from=0&size=20")
                         .header(header, 2))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper
                         .writeValueAsString(List.of(outgoingBookingDto))));
         verify(bookingClient).getAllUserBookings(2L, "ALL", 0, 20);
     }
 
+    @Test
+    @SneakyThrows
+    void getAllUserBookings_whenCursor_shouldInvokeClientMethodWithCursor() {
+        when(bookingClient.getAllUserBookings(2L, "ALL", 20, "MjAzMC0wMS0wMVQxMDowMH45"))
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(List.of(outgoingBookingDto), HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(get("/bookings?after=MjAzMC0wMS0wMVQxMDowMH45")
+                        .header(header, 2))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+        verify(bookingClient).getAllUserBookings(2L, "ALL", 20, "MjAzMC0wMS0wMVQxMDowMH45");
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllOwnerItemBookings_whenNotValidCursor_shouldThrowConstraintViolationException() {
+        mockMvc.perform(get("/bookings/owner?after=not+a+cursor")
+                        .header(header, 1))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException()
+                        instanceof ConstraintViolationException))
+                .andExpect(content().string(containsString("must match")));
+        verifyNoInteractions(bookingClient);
+    }
+
     @Test
     @SneakyThrows
     void getAllUserBookings_whenNotValidRequestHeader_shouldThrowMissingRequestHeaderException() {
@@ -135,9 +167,12 @@ class BookingControllerTest {
     void getAllOwnerItemBookings_whenAllParamsAreValid_shouldInvokeClientMethod_andReturnBookingList() {
         when(bookingClient.getAllOwnerItemBookings(1L, "ALL",
                 0, 20))
-                .thenReturn(new ResponseEntity<>(List.of(outgoingBookingDto), HttpStatus.OK));
-        mockMvc.perform(get("/bookings/owner?state=ALL&from=0&size=20")
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(List.of(outgoingBookingDto), HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(get("/bookings/owner?state=ALL&from=0&size=20")
                         .header(header, 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper
                         .writeValueAsString(List.of(outgoingBookingDto))));
@@ -161,9 +196,12 @@ class BookingControllerTest {
     @SneakyThrows
     void getBookingById_whenAllParamsAreValid_shouldInvokeClientMethod_andReturnBooking() {
         when(bookingClient.getBookingById(2L, 1L))
-                .thenReturn(new ResponseEntity<>(outgoingBookingDto, HttpStatus.OK));
-        mockMvc.perform(get("/bookings/{id}", 1)
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(outgoingBookingDto, HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(get("/bookings/{id}", 1)
                         .header(header, 2))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper
                         .writeValueAsString(outgoingBookingDto)));
@@ -193,12 +231,15 @@ class BookingControllerTest {
                 LocalDateTime.now().plusDays(2),
                 1L);
         when(bookingClient.postBooking(2L, incomingBookingDto))
-                .thenReturn(new ResponseEntity<>(outgoingBookingDto, HttpStatus.OK));
-        mockMvc.perform(post("/bookings")
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(outgoingBookingDto, HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(post("/bookings")
                         .header(header, 2)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(incomingBookingDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper
                         .writeValueAsString(outgoingBookingDto)));
@@ -277,10 +318,13 @@ class BookingControllerTest {
     @SneakyThrows
     void patchBooking_whenValidParams_shouldInvokeClientMethod_andReturnBooking() {
         when(bookingClient.patchBooking(1L, 1L, true))
-                .thenReturn(new ResponseEntity<>(outgoingBookingDto, HttpStatus.OK));
-        mockMvc.perform(patch("/bookings/{id}", 1)
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(outgoingBookingDto, HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(patch("/bookings/{id}", 1)
                         .header(header, 1)
                         .param("approved", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(outgoingBookingDto)));
         verify(bookingClient).patchBooking(1L, 1L, true);
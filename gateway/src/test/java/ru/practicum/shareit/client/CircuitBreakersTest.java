@@ -0,0 +1,181 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.exeption.ExceptionResolver;
+import ru.practicum.shareit.exeption.ServiceUnavailableException;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.UserController;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CircuitBreakersTest {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig
+            .custom()
+            .slidingWindowSize(2)
+            .minimumNumberOfCalls(2)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofMillis(200))
+            .automaticTransitionFromOpenToHalfOpenEnabled(true)
+            .permittedNumberOfCallsInHalfOpenState(1)
+            .build());
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(2)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+    private final List<CompletableFuture<ResponseEntity<Object>>> calls = new CopyOnWriteArrayList<>();
+    private final List<CompletableFuture<ResponseEntity<Object>>> answers = new CopyOnWriteArrayList<>();
+    private ServerTransport transport;
+
+    @BeforeEach
+    void setTransport() {
+        transport = new CircuitBreakers(circuitBreakerRegistry, bulkheadRegistry)
+                .decorate((method, path, headers, parameters, body) -> {
+                    CompletableFuture<ResponseEntity<Object>> call = answers.isEmpty()
+                            ? new CompletableFuture<>()
+                            : answers.remove(0);
+                    calls.add(call);
+                    return call;
+                });
+    }
+
+    @Test
+    void exchange_whenCallsFail_shouldOpenCircuit_andFailFastWithoutServer() {
+        answer(CompletableFuture.failedFuture(new IllegalStateException("connection reset")));
+        answer(CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR)));
+        assertThrows(CompletionException.class, () -> get("/users/1").join());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, get("/users/1").join().getStatusCode());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker("users").getState());
+
+        CompletionException e = assertThrows(CompletionException.class, () -> get("/users/2").join());
+        assertInstanceOf(ServiceUnavailableException.class, e.getCause());
+        assertEquals(2, calls.size());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakerRegistry.circuitBreaker("items").getState());
+        answer(CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.OK)));
+        assertEquals(HttpStatus.OK, get("/items/1").join().getStatusCode());
+    }
+
+    @Test
+    void exchange_whenHalfOpenCallSucceeds_shouldCloseCircuit() {
+        open("users");
+        await(() -> circuitBreakerRegistry.circuitBreaker("users").getState() == CircuitBreaker.State.HALF_OPEN);
+        answer(CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.OK)));
+        assertEquals(HttpStatus.OK, get("/users/1").join().getStatusCode());
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakerRegistry.circuitBreaker("users").getState());
+    }
+
+    @Test
+    void exchange_whenHalfOpenCallFails_shouldOpenCircuitAgain() {
+        open("users");
+        await(() -> circuitBreakerRegistry.circuitBreaker("users").getState() == CircuitBreaker.State.HALF_OPEN);
+        answer(CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE)));
+        get("/users/1").join();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker("users").getState());
+    }
+
+    @Test
+    void exchange_whenHalfOpenPermitsTaken_shouldFailFast() {
+        open("users");
+        await(() -> circuitBreakerRegistry.circuitBreaker("users").getState() == CircuitBreaker.State.HALF_OPEN);
+        CompletableFuture<ResponseEntity<Object>> probe = get("/users/1");
+        CompletionException e = assertThrows(CompletionException.class, () -> get("/users/2").join());
+        assertInstanceOf(ServiceUnavailableException.class, e.getCause());
+        assertTrue(e.getCause().getMessage().contains("HALF_OPEN"));
+        calls.get(calls.size() - 1).complete(new ResponseEntity<>(HttpStatus.OK));
+        assertEquals(HttpStatus.OK, probe.join().getStatusCode());
+    }
+
+    @Test
+    void exchange_whenBulkheadIsFull_shouldRejectUntilCallCompletes() {
+        CompletableFuture<ResponseEntity<Object>> pending = get("/bookings/1");
+        get("/bookings/2");
+        CompletionException e = assertThrows(CompletionException.class, () -> get("/bookings/3").join());
+        assertInstanceOf(ServiceUnavailableException.class, e.getCause());
+        assertTrue(e.getCause().getMessage().startsWith("Too many concurrent calls to bookings"));
+        assertEquals(2, calls.size());
+        calls.get(0).complete(new ResponseEntity<>(HttpStatus.OK));
+        assertEquals(HttpStatus.OK, pending.join().getStatusCode());
+        answer(CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.OK)));
+        assertEquals(HttpStatus.OK, get("/bookings/3").join().getStatusCode());
+    }
+
+    @Test
+    void exchange_whenCallerCancels_shouldReleasePermits_andNotRecordFailure() {
+        get("/requests/1").cancel(true);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("requests");
+        assertEquals(2, bulkhead.getMetrics().getAvailableConcurrentCalls());
+        CircuitBreaker.Metrics metrics = circuitBreakerRegistry.circuitBreaker("requests").getMetrics();
+        assertEquals(0, metrics.getNumberOfFailedCalls());
+        assertEquals(0, metrics.getNumberOfSuccessfulCalls());
+    }
+
+    @Test
+    @SneakyThrows
+    void getUser_whenCircuitIsOpen_shouldAnswerServiceUnavailable() {
+        circuitBreakerRegistry.circuitBreaker("users").transitionToForcedOpenState();
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new UserController(new UserClient(transport)))
+                .setControllerAdvice(new ExceptionResolver())
+                .build();
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/users/1")).andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().string(startsWith("ServiceUnavailableException : Circuit breaker for users")));
+    }
+
+    private void open(String client) {
+        answer(CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.BAD_GATEWAY)));
+        answer(CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.BAD_GATEWAY)));
+        get("/" + client + "/1").join();
+        get("/" + client + "/1").join();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker(client).getState());
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> get(String path) {
+        return transport.exchange(HttpMethod.GET, path, new HttpHeaders(), null, null);
+    }
+
+    private void answer(CompletableFuture<ResponseEntity<Object>> answer) {
+        answers.add(answer);
+    }
+
+    @SneakyThrows
+    private static void await(BooleanSupplier condition) {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < until, "Condition not met within 1 s");
+            Thread.sleep(1);
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exeption.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.http.HttpHeader.deadline;
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+class DeadlinesTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<HttpHeaders> sent = new CopyOnWriteArrayList<>();
+    private final List<CompletableFuture<ResponseEntity<Object>>> calls = new CopyOnWriteArrayList<>();
+    private Deadlines deadlines;
+    private ServerTransport attempt;
+
+    @BeforeEach
+    void setDeadlines() {
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setDefaultBudget(Duration.ofMillis(200));
+        properties.setBudgets(Map.of("/items/search", Duration.ofMillis(1000)));
+        deadlines = new Deadlines(properties, meterRegistry);
+        attempt = new Deadlines.AttemptDeadline().decorate((method, path, headers, parameters, body) -> {
+            sent.add(headers);
+            CompletableFuture<ResponseEntity<Object>> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        });
+    }
+
+    @AfterEach
+    void shutDown() {
+        deadlines.destroy();
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_shouldSendTimeLeftOfRouteBudget_andNotChangeCallerHeaders() {
+        HttpHeaders headers = userHeaders();
+        CompletableFuture<ResponseEntity<Object>> result = deadlines.decorate(attempt)
+                .exchange(HttpMethod.GET, "/items/search?text={text}", headers, Map.of("text", "drill"), null);
+        long sentBudget = Long.parseLong(sent.get(0).getFirst(deadline));
+        assertTrue(sentBudget > 200 && sentBudget <= 1000, "sent " + sentBudget);
+        assertNull(sent.get(0).getFirst(Deadlines.DEADLINE_NANOS));
+        assertEquals("1", sent.get(0).getFirst(header));
+        assertEquals(userHeaders(), headers);
+        calls.get(0).complete(new ResponseEntity<>(HttpStatus.OK));
+        assertEquals(HttpStatus.OK, result.get().getStatusCode());
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenAttemptIsSentLater_shouldSendLessTimeLeft() {
+        ServerTransport retrying = (method, path, headers, parameters, body) -> {
+            attempt.exchange(method, path, headers, parameters, body);
+            sleep(50);
+            return attempt.exchange(method, path, headers, parameters, body);
+        };
+        deadlines.decorate(retrying).exchange(HttpMethod.GET, "/users/1", userHeaders(), null, null);
+        long first = Long.parseLong(sent.get(0).getFirst(deadline));
+        long second = Long.parseLong(sent.get(1).getFirst(deadline));
+        assertTrue(first <= 200 && second <= first - 50, first + " then " + second);
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenAttemptIsSentAfterDeadline_shouldSendNoTimeLeft() {
+        ServerTransport late = (method, path, headers, parameters, body) -> {
+            sleep(250);
+            return attempt.exchange(method, path, headers, parameters, body);
+        };
+        deadlines.decorate(late).exchange(HttpMethod.GET, "/users/1", userHeaders(), null, null);
+        assertEquals("0", sent.get(0).getFirst(deadline));
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenNoResponseWithinBudget_shouldFailWithDeadlineExceeded_andCountIt() {
+        CompletableFuture<ResponseEntity<Object>> result = deadlines.decorate(attempt)
+                .exchange(HttpMethod.GET, "/users/1", userHeaders(), null, null);
+        ExecutionException e = assertThrows(ExecutionException.class, result::get);
+        assertInstanceOf(DeadlineExceededException.class, e.getCause());
+        await(() -> meterRegistry.counter("gateway.deadline.exceeded").count() == 1.0);
+        assertFalse(calls.get(0).isDone());
+    }
+
+    @Test
+    void exchange_whenAnsweredInTime_shouldNotCountIt() {
+        CompletableFuture<ResponseEntity<Object>> result = deadlines.decorate(attempt)
+                .exchange(HttpMethod.GET, "/users/1", userHeaders(), null, null);
+        calls.get(0).complete(new ResponseEntity<>(HttpStatus.OK));
+        assertEquals(HttpStatus.OK, result.join().getStatusCode());
+        assertEquals(0.0, meterRegistry.counter("gateway.deadline.exceeded").count());
+    }
+
+    @Test
+    void attemptDeadline_whenCallHasNoDeadline_shouldSendHeadersAsTheyAre() {
+        HttpHeaders headers = userHeaders();
+        attempt.exchange(HttpMethod.GET, "/users/1", headers, null, null);
+        assertEquals(headers, sent.get(0));
+    }
+
+    private static HttpHeaders userHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(header, "1");
+        return headers;
+    }
+
+    @SneakyThrows
+    private static void sleep(long millis) {
+        Thread.sleep(millis);
+    }
+
+    @SneakyThrows
+    private static void await(BooleanSupplier condition) {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < until, "Condition not met within 1 s");
+            Thread.sleep(1);
+        }
+    }
+
+}
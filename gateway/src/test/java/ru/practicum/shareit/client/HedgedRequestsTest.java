@@ -0,0 +1,178 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgedRequestsTest {
+
+    private final HedgingProperties properties = new HedgingProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final List<CompletableFuture<ResponseEntity<Object>>> calls = new CopyOnWriteArrayList<>();
+    private final List<CompletableFuture<ResponseEntity<Object>>> answers = new CopyOnWriteArrayList<>();
+    private HedgedRequests hedgedRequests;
+    private ServerTransport transport;
+
+    @BeforeEach
+    void setTransport() {
+        properties.setMaxDelay(Duration.ofMillis(20));
+        hedgedRequests = new HedgedRequests(properties, meterRegistry, "reactive");
+        ServerTransport stub = (method, path, headers, parameters, body) -> {
+            CompletableFuture<ResponseEntity<Object>> call = answers.isEmpty()
+                    ? new CompletableFuture<>()
+                    : answers.remove(0);
+            calls.add(call);
+            return call;
+        };
+        transport = hedgedRequests.decorate(new CircuitBreakers(circuitBreakerRegistry, bulkheadRegistry)
+                .decorate(stub));
+    }
+
+    @AfterEach
+    void shutDown() {
+        hedgedRequests.destroy();
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenPrimaryIsSlow_shouldAnswerFromHedge_andReturnBulkheadPermits() {
+        answers.add(new CompletableFuture<>());
+        answers.add(CompletableFuture.completedFuture(ok("hedge")));
+        ResponseEntity<Object> result = get().get(1, TimeUnit.SECONDS);
+        assertEquals("hedge", result.getBody());
+        assertEquals(2, calls.size());
+        await(() -> calls.get(0).isCancelled());
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("items");
+        await(() -> bulkhead.getMetrics().getAvailableConcurrentCalls()
+                == bulkhead.getBulkheadConfig().getMaxConcurrentCalls());
+        CircuitBreaker.Metrics metrics = circuitBreakerRegistry.circuitBreaker("items").getMetrics();
+        assertEquals(1, metrics.getNumberOfSuccessfulCalls());
+        assertEquals(0, metrics.getNumberOfFailedCalls());
+        await(() -> meterRegistry.get("gateway.hedged.requests").tag("outcome", "won").counter().count() == 1);
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenHedged_shouldSendHedgeWithAttributesOfRequest() {
+        List<RequestAttributes> sentWith = new CopyOnWriteArrayList<>();
+        ServerTransport stub = (method, path, headers, parameters, body) -> {
+            sentWith.add(RequestContextHolder.getRequestAttributes());
+            return sentWith.size() == 1 ? new CompletableFuture<>() : CompletableFuture.completedFuture(ok("hedge"));
+        };
+        RequestAttributes request = new ServletRequestAttributes(new MockHttpServletRequest("GET", "/items/1"));
+        RequestContextHolder.setRequestAttributes(request);
+        CompletableFuture<ResponseEntity<Object>> result;
+        try {
+            result = hedgedRequests.decorate(stub).exchange(HttpMethod.GET, "/items/1", new HttpHeaders(), null, null);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+        assertEquals("hedge", result.get(1, TimeUnit.SECONDS).getBody());
+        assertEquals(List.of(request, request), sentWith);
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenManySlowPrimaries_shouldNotExhaustBulkhead() {
+        int maxConcurrentCalls = bulkheadRegistry.bulkhead("items").getBulkheadConfig().getMaxConcurrentCalls();
+        properties.setRetryBudgetMaxTokens(maxConcurrentCalls * 2);
+        setTransport();
+        for (int i = 0; i < maxConcurrentCalls * 2; i++) {
+            answers.add(new CompletableFuture<>());
+            answers.add(CompletableFuture.completedFuture(ok("hedge")));
+            assertEquals("hedge", get().get(1, TimeUnit.SECONDS).getBody());
+        }
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("items");
+        await(() -> bulkhead.getMetrics().getAvailableConcurrentCalls() == maxConcurrentCalls);
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenRetryBudgetIsEmpty_shouldNotHedge() {
+        properties.setRetryBudgetMaxTokens(0);
+        setTransport();
+        CompletableFuture<ResponseEntity<Object>> result = get();
+        await(() -> meterRegistry.get("gateway.retry.budget.exhausted").tag("attempt", "hedge")
+                .counter().count() == 1);
+        assertEquals(1, calls.size());
+        calls.get(0).complete(ok("primary"));
+        assertEquals("primary", result.get(1, TimeUnit.SECONDS).getBody());
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenConnectFails_shouldRetryOnce() {
+        answers.add(CompletableFuture.failedFuture(new ConnectException("Connection refused")));
+        answers.add(CompletableFuture.completedFuture(ok("retry")));
+        assertEquals("retry", get().get(1, TimeUnit.SECONDS).getBody());
+        assertEquals(2, calls.size());
+        assertEquals(1, meterRegistry.get("gateway.retried.requests").counter().count());
+    }
+
+    @Test
+    void exchange_whenCallFailsOtherwise_shouldNotRetry() {
+        answers.add(CompletableFuture.failedFuture(new IllegalStateException("Broken response")));
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> get().get(1, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenNotGet_shouldPassThrough() {
+        answers.add(new CompletableFuture<>());
+        CompletableFuture<ResponseEntity<Object>> result = transport.exchange(HttpMethod.POST, "/items",
+                new HttpHeaders(), null, "{}");
+        Thread.sleep(properties.getMaxDelay().toMillis() * 3);
+        assertEquals(1, calls.size());
+        calls.get(0).complete(ok("created"));
+        assertEquals("created", result.get(1, TimeUnit.SECONDS).getBody());
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> get() {
+        return transport.exchange(HttpMethod.GET, "/items/1", new HttpHeaders(), null, null);
+    }
+
+    private static ResponseEntity<Object> ok(String body) {
+        return new ResponseEntity<>(body, HttpStatus.OK);
+    }
+
+    @SneakyThrows
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 1 s");
+            Thread.sleep(1);
+        }
+    }
+
+}
@@ -0,0 +1,198 @@
+package ru.practicum.shareit.client;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.batch.BatchController;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.exeption.ExceptionResolver;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.request.RequestClient;
+import ru.practicum.shareit.request.RequestController;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.UserController;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+@WebMvcTest(value = {
+        UserController.class,
+        ItemController.class,
+        BookingController.class,
+        RequestController.class,
+        ExceptionResolver.class},
+        properties = "shareit-server.forward-raw-body=true")
+@Import({UserClient.class, ItemClient.class, BookingClient.class, RequestClient.class})
+class RawRequestBodyAdviceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RawRequestBodyAdvice rawRequestBodyAdvice;
+
+    @MockBean
+    private ServerTransport transport;
+
+    private final ArgumentCaptor<Object> sentBody = ArgumentCaptor.forClass(Object.class);
+
+    @BeforeEach
+    void setTransport() {
+        when(transport.exchange(any(HttpMethod.class), any(String.class), any(HttpHeaders.class), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.OK)));
+    }
+
+    @Test
+    void postUser_whenValid_shouldForwardBytesAsSent() {
+        String body = "{ \"name\" : \"User\",\n  \"email\" : \"user@mail.ru\" }";
+        perform(post("/users"), null, body, HttpStatus.OK);
+        verify(transport).exchange(eq(HttpMethod.POST), eq("/users"), any(HttpHeaders.class), isNull(),
+                sentBody.capture());
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) sentBody.getValue());
+    }
+
+    @Test
+    void postUser_whenBodyHasFieldsDtoDrops_shouldForwardParsedDto() {
+        perform(post("/users"), null, "{\"name\":\"User\",\"email\":\"user@mail.ru\",\"admin\":true}",
+                HttpStatus.OK);
+        verify(transport).exchange(eq(HttpMethod.POST), eq("/users"), any(HttpHeaders.class), isNull(),
+                sentBody.capture());
+        assertEquals(new UserDto(null, "User", "user@mail.ru"), sentBody.getValue());
+    }
+
+    @Test
+    void postUser_whenIdIsSet_shouldAnswerBadRequest_andNotForward() {
+        perform(post("/users"), null, "{\"id\":1,\"name\":\"User\",\"email\":\"user@mail.ru\"}",
+                HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(transport);
+    }
+
+    @Test
+    void patchUser_whenOnlyEmail_shouldValidateUpdateGroup_andForwardBytes() {
+        String body = "{\"email\":\"new@mail.ru\"}";
+        perform(patch("/users/1"), null, body, HttpStatus.OK);
+        verify(transport).exchange(eq(HttpMethod.PATCH), eq("/users/1"), any(HttpHeaders.class), isNull(),
+                sentBody.capture());
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) sentBody.getValue());
+    }
+
+    @Test
+    void patchUser_whenEmailNotValid_shouldAnswerBadRequest_andNotForward() {
+        perform(patch("/users/1"), null, "{\"email\":\"not an email\"}", HttpStatus.BAD_REQUEST);
+        verifyNoInteractions(transport);
+    }
+
+    @Test
+    void postItem_whenValid_shouldForwardBytes() {
+        String body = "{\"name\":\"Drill\",\"description\":\"Power drill\",\"available\":true}";
+        perform(post("/items"), 1L, body, HttpStatus.OK);
+        verify(transport).exchange(eq(HttpMethod.POST), eq("/items"), any(HttpHeaders.class), isNull(),
+                sentBody.capture());
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) sentBody.getValue());
+    }
+
+    @Test
+    void postComment_whenValid_shouldForwardBytes() {
+        String body = "{\"text\":\"Works\"}";
+        perform(post("/items/1/comment"), 1L, body, HttpStatus.OK);
+        verify(transport).exchange(eq(HttpMethod.POST), eq("/items/1/comment"), any(HttpHeaders.class), isNull(),
+                sentBody.capture());
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) sentBody.getValue());
+    }
+
+    @Test
+    void postRequest_whenValid_shouldForwardBytes() {
+        String body = "{\"description\":\"Need a drill\"}";
+        perform(post("/requests"), 1L, body, HttpStatus.OK);
+        verify(transport).exchange(eq(HttpMethod.POST), eq("/requests"), any(HttpHeaders.class), isNull(),
+                sentBody.capture());
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) sentBody.getValue());
+    }
+
+    @Test
+    void postBooking_whenDatesValid_shouldForwardBytes() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        String body = "{\"itemId\":1,\"start\":\"" + start + "\",\"end\":\"" + start.plusDays(1) + "\"}";
+        perform(post("/bookings"), 1L, body, HttpStatus.OK);
+        verify(transport).exchange(eq(HttpMethod.POST), eq("/bookings"), any(HttpHeaders.class), isNull(),
+                sentBody.capture());
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) sentBody.getValue());
+    }
+
+    @Test
+    @SneakyThrows
+    void postBooking_whenStartInPast_shouldAnswerBadRequest_andNotForward() {
+        LocalDateTime start = LocalDateTime.now().minusDays(1).withNano(0);
+        String body = "{\"itemId\":1,\"start\":\"" + start + "\",\"end\":\"" + start.plusDays(2) + "\"}";
+        MvcResult result = perform(post("/bookings"), 1L, body, HttpStatus.BAD_REQUEST);
+        assertTrue(result.getResponse().getContentAsString(StandardCharsets.UTF_8)
+                .contains("Creating booking start is in past!"));
+        verifyNoInteractions(transport);
+    }
+
+    @Test
+    @SneakyThrows
+    void supports_whenBatchBody_shouldNotBufferIt() {
+        Method postBatch = BatchController.class.getMethod("postBatch", HttpServletRequest.class, Long.class,
+                List.class);
+        assertFalse(rawRequestBodyAdvice.supports(new MethodParameter(postBatch, 2), List.class,
+                MappingJackson2HttpMessageConverter.class));
+    }
+
+    @SneakyThrows
+    private MvcResult perform(MockHttpServletRequestBuilder request, Long userId, String body, HttpStatus expected) {
+        if (userId != null) {
+            request.header(header, userId);
+        }
+        MvcResult result = mockMvc.perform(request
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .content(body))
+                .andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            mockMvc.perform(asyncDispatch(result)).andExpect(status().is(expected.value()));
+        } else {
+            assertEquals(expected.value(), result.getResponse().getStatus());
+        }
+        return result;
+    }
+
+}
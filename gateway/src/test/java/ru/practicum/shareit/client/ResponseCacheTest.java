@@ -0,0 +1,191 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+class ResponseCacheTest {
+
+    private static final String E_TAG = "\"0a1b\"";
+
+    private final ResponseCacheProperties properties = new ResponseCacheProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<HttpHeaders> sent = new CopyOnWriteArrayList<>();
+    private final List<CompletableFuture<ResponseEntity<Object>>> answers = new CopyOnWriteArrayList<>();
+    private ServerTransport transport;
+
+    @BeforeEach
+    void setTransport() {
+        ResponseCache responseCache = new ResponseCache(properties, meterRegistry, true);
+        transport = responseCache.decorate((method, path, headers, parameters, body) -> {
+            sent.add(headers);
+            return answers.isEmpty() ? new CompletableFuture<>() : answers.remove(0);
+        });
+    }
+
+    @Test
+    void constructor_whenNotPassthrough_shouldFail() {
+        assertThrows(IllegalStateException.class, () -> new ResponseCache(properties, meterRegistry, false));
+    }
+
+    @Test
+    void get_whenNotModified_shouldRevalidateWithETag_andAnswerCachedBody() {
+        answer(ok("user"));
+        answer(new ResponseEntity<>(HttpStatus.NOT_MODIFIED));
+        assertEquals("user", bodyOf(get("/users/1", 1)));
+        ResponseEntity<Object> revalidated = get("/users/1", 1);
+        assertEquals(HttpStatus.OK, revalidated.getStatusCode());
+        assertEquals("user", bodyOf(revalidated));
+        assertNull(sent.get(0).getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(E_TAG, sent.get(1).getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals("1", sent.get(1).getFirst(header));
+        assertEquals(1.0, meterRegistry.counter("gateway.response.cache.revalidated").count());
+    }
+
+    @Test
+    void get_whenChanged_shouldAnswerAndCacheNewBody() {
+        answer(ok("user"));
+        answer(ok("renamed"));
+        answer(new ResponseEntity<>(HttpStatus.NOT_MODIFIED));
+        get("/users/1", 1);
+        assertEquals("renamed", bodyOf(get("/users/1", 1)));
+        assertEquals("renamed", bodyOf(get("/users/1", 1)));
+    }
+
+    @Test
+    void get_whenOtherUser_shouldNotShareCachedResponse() {
+        answer(ok("seen by 1"));
+        answer(ok("seen by 2"));
+        get("/items/1", 1);
+        assertEquals("seen by 2", bodyOf(get("/items/1", 2)));
+        assertNull(sent.get(1).getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void get_whenFreshForIsSet_shouldAnswerFromCacheWithoutServer() {
+        properties.setFreshFor(Duration.ofMinutes(1));
+        setTransport();
+        answer(ok("user"));
+        get("/users/1", 1);
+        assertEquals("user", bodyOf(get("/users/1", 1)));
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    void get_whenNotCacheablePath_shouldNotCache() {
+        answer(ok("users"));
+        answer(ok("users"));
+        get("/users", 1);
+        get("/users", 1);
+        assertNull(sent.get(1).getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void patch_shouldInvalidateCachedResource() {
+        answer(ok("user"));
+        answer(ok("renamed"));
+        answer(ok("renamed"));
+        get("/users/1", 1);
+        transport.exchange(HttpMethod.PATCH, "/users/1", userHeaders(1), null, "{}").join();
+        get("/users/1", 1);
+        assertNull(sent.get(2).getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void delete_shouldInvalidateCachedResourceForAllUsers() {
+        answer(ok("item"));
+        answer(ok("item"));
+        answer(new ResponseEntity<>(HttpStatus.OK));
+        answer(new ResponseEntity<>("Not found".getBytes(StandardCharsets.UTF_8), HttpStatus.NOT_FOUND));
+        get("/items/1", 1);
+        get("/items/1", 2);
+        transport.exchange(HttpMethod.DELETE, "/items/1", userHeaders(1), null, null).join();
+        assertEquals(HttpStatus.NOT_FOUND, get("/items/1", 2).getStatusCode());
+        assertNull(sent.get(3).getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    @Test
+    void get_whenServerFailsWithinStaleGrace_shouldAnswerStaleWithWarning() {
+        answer(ok("user"));
+        answer(new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE));
+        get("/users/1", 1);
+        ResponseEntity<Object> stale = get("/users/1", 1);
+        assertEquals(HttpStatus.OK, stale.getStatusCode());
+        assertEquals("user", bodyOf(stale));
+        assertEquals("110 - \"Response is Stale\"", stale.getHeaders().getFirst(HttpHeaders.WARNING));
+        assertEquals(1.0, meterRegistry.counter("gateway.response.cache.stale").count());
+    }
+
+    @Test
+    void get_whenServerDoesNotAnswerInTime_shouldAnswerStaleWithWarning() {
+        properties.setRevalidateTimeout(Duration.ofMillis(20));
+        setTransport();
+        answer(ok("user"));
+        get("/users/1", 1);
+        ResponseEntity<Object> stale = get("/users/1", 1);
+        assertEquals("user", bodyOf(stale));
+        assertEquals("110 - \"Response is Stale\"", stale.getHeaders().getFirst(HttpHeaders.WARNING));
+    }
+
+    @Test
+    void get_whenServerFailsAfterStaleGrace_shouldAnswerServerError() {
+        properties.setStaleGrace(Duration.ZERO);
+        setTransport();
+        answer(ok("user"));
+        answer(new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE));
+        get("/users/1", 1);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, get("/users/1", 1).getStatusCode());
+        assertEquals(0.0, meterRegistry.counter("gateway.response.cache.stale").count());
+    }
+
+    @Test
+    void get_whenClientError_shouldDropCachedResponse() {
+        answer(ok("user"));
+        answer(new ResponseEntity<>("Not found".getBytes(StandardCharsets.UTF_8), HttpStatus.NOT_FOUND));
+        answer(ok("user"));
+        get("/users/1", 1);
+        assertEquals(HttpStatus.NOT_FOUND, get("/users/1", 1).getStatusCode());
+        get("/users/1", 1);
+        assertNull(sent.get(2).getFirst(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    private ResponseEntity<Object> get(String path, long userId) {
+        return transport.exchange(HttpMethod.GET, path, userHeaders(userId), null, null).join();
+    }
+
+    private void answer(ResponseEntity<Object> response) {
+        answers.add(CompletableFuture.completedFuture(response));
+    }
+
+    private static ResponseEntity<Object> ok(String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(E_TAG);
+        return new ResponseEntity<>(body.getBytes(StandardCharsets.UTF_8), headers, HttpStatus.OK);
+    }
+
+    private static HttpHeaders userHeaders(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(header, String.valueOf(userId));
+        return headers;
+    }
+
+    private static String bodyOf(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+
+}
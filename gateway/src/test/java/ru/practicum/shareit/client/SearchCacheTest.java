@@ -0,0 +1,107 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+class SearchCacheTest {
+
+    private static final String SEARCH_PATH = "/items/search?from={from}&size={size}&text={text}";
+
+    private final List<Map<String, Object>> searches = new ArrayList<>();
+    private HttpStatus status = HttpStatus.OK;
+    private ServerTransport transport;
+
+    @BeforeEach
+    void setTransport() {
+        ServerTransport stub = (method, path, headers, parameters, body) -> {
+            if (method == HttpMethod.GET) {
+                searches.add(parameters);
+            }
+            return CompletableFuture.completedFuture(new ResponseEntity<>("[]", status));
+        };
+        transport = new SearchCache(new SearchCacheProperties(), new SimpleMeterRegistry()).decorate(stub);
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenSameSearchRepeated_shouldAnswerFromCache() {
+        search(1L, "Drill");
+        ResponseEntity<Object> result = search(1L, "Drill");
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(1, searches.size());
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenTextDiffersInCaseAndSpaces_shouldShareEntry_andForwardOriginalText() {
+        search(1L, " Drill ");
+        search(1L, "drill");
+        assertEquals(1, searches.size());
+        assertEquals(" Drill ", searches.get(0).get("text"));
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenUserHasNotSearchedYet_shouldAskServer() {
+        search(1L, "Drill");
+        search(2L, "Drill");
+        assertEquals(2, searches.size());
+        search(2L, "Drill");
+        assertEquals(2, searches.size());
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenUserIsUnknown_shouldKeepAnsweringWithServerStatus() {
+        search(1L, "Drill");
+        status = HttpStatus.NOT_FOUND;
+        assertEquals(HttpStatus.NOT_FOUND, search(99L, "Drill").getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, search(99L, "Drill").getStatusCode());
+        assertEquals(3, searches.size());
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenUserDeleted_shouldAskServerAgain() {
+        search(1L, "Drill");
+        transport.exchange(HttpMethod.DELETE, "/users/1", new HttpHeaders(), null, null).get();
+        search(1L, "Drill");
+        assertEquals(2, searches.size());
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenItemWritten_shouldDropCachedPages() {
+        search(1L, "Drill");
+        transport.exchange(HttpMethod.PATCH, "/items/1", headersOf(1L), null, "{}").get();
+        search(1L, "Drill");
+        assertEquals(2, searches.size());
+    }
+
+    @SneakyThrows
+    private ResponseEntity<Object> search(long userId, String text) {
+        return transport.exchange(HttpMethod.GET, SEARCH_PATH, headersOf(userId),
+                Map.of("from", 0, "size", 10, "text", text), null).get();
+    }
+
+    private static HttpHeaders headersOf(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(header, Long.toString(userId));
+        return headers;
+    }
+
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerCallTimerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ServerCallTimer serverCallTimer = new ServerCallTimer(meterRegistry);
+    private final List<CompletableFuture<ResponseEntity<Object>>> calls = new CopyOnWriteArrayList<>();
+    private final ServerTransport stub = (method, path, headers, parameters, body) -> {
+        CompletableFuture<ResponseEntity<Object>> call = new CompletableFuture<>();
+        calls.add(call);
+        return call;
+    };
+    private final ServerTime serverTime = new ServerTime(null);
+
+    @BeforeEach
+    void setRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/{userId}");
+        request.setAttribute(ServerCallTimer.SERVER_TIME_ATTRIBUTE, serverTime);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void exchange_shouldTimeCallByRouteAndStatus_andRecordServerTime() throws InterruptedException {
+        CompletableFuture<ResponseEntity<Object>> result = serverCallTimer.decorate(stub)
+                .exchange(HttpMethod.GET, "/users/1", new HttpHeaders(), null, null);
+        Thread.sleep(20);
+        calls.get(0).complete(new ResponseEntity<>(HttpStatus.OK));
+        assertEquals(HttpStatus.OK, result.join().getStatusCode());
+        Timer timer = meterRegistry.get("gateway.server.requests")
+                .tag("route", "/users/{userId}")
+                .tag("method", "GET")
+                .tag("status", "200")
+                .tag("exception", "None")
+                .timer();
+        assertEquals(1, timer.count());
+        assertTrue(serverTime.nanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(timer.totalTime(TimeUnit.NANOSECONDS), serverTime.nanos(), TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @Test
+    void exchange_whenCallsOverlap_shouldCountServerTimeOnce() throws InterruptedException {
+        ServerTransport transport = serverCallTimer.decorate(stub);
+        transport.exchange(HttpMethod.GET, "/users/1", new HttpHeaders(), null, null);
+        transport.exchange(HttpMethod.GET, "/users/1", new HttpHeaders(), null, null);
+        Thread.sleep(20);
+        calls.get(0).complete(new ResponseEntity<>(HttpStatus.OK));
+        calls.get(1).complete(new ResponseEntity<>(HttpStatus.OK));
+        Timer timer = meterRegistry.get("gateway.server.requests").timer();
+        assertEquals(2, timer.count());
+        assertTrue(serverTime.nanos() < timer.totalTime(TimeUnit.NANOSECONDS));
+        assertTrue(serverTime.nanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    void exchange_whenCallFails_shouldTagException() {
+        serverCallTimer.decorate((method, path, headers, parameters, body) -> {
+            throw new IllegalStateException("refused");
+        }).exchange(HttpMethod.POST, "/users", new HttpHeaders(), null, null);
+        assertEquals(1, meterRegistry.get("gateway.server.requests")
+                .tag("method", "POST")
+                .tag("status", "NONE")
+                .tag("exception", "IllegalStateException")
+                .timer()
+                .count());
+    }
+
+    @Test
+    void gatewayServerTransport_whenOuterDecoratorAnswers_shouldNotTimeIt() {
+        ServerTransportDecorator cache = new ServerTransportDecorator() {
+            @Override
+            public ServerTransport decorate(ServerTransport transport) {
+                return (method, path, headers, parameters, body) -> CompletableFuture.completedFuture(
+                        new ResponseEntity<>(HttpStatus.OK));
+            }
+
+            @Override
+            public int getOrder() {
+                return ResponseCache.ORDER;
+            }
+        };
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.getBeanFactory().registerSingleton("serverCallTimer", serverCallTimer);
+        context.getBeanFactory().registerSingleton("cache", cache);
+        ObjectProvider<ServerTransportDecorator> decorators = context.getBeanProvider(ServerTransportDecorator.class);
+        ServerTransport transport = new ServerTransportConfig().gatewayServerTransport(stub, decorators);
+        assertEquals(HttpStatus.OK, transport.exchange(HttpMethod.GET, "/users/1", new HttpHeaders(), null, null)
+                .join().getStatusCode());
+        assertTrue(calls.isEmpty());
+        assertNull(meterRegistry.find("gateway.server.requests").timer());
+        assertEquals(0, serverTime.nanos());
+    }
+
+}
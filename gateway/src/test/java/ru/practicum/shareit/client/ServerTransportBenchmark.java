@@ -0,0 +1,134 @@
+package ru.practicum.shareit.client;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Proxies a batch of concurrent calls to a stub server answering after a fixed delay, with the calls
+ * dispatched from a small worker pool the size of a constrained Tomcat executor.
+ * {@code reactive-h2c} multiplexes the calls over a few cleartext HTTP/2 connections instead of one
+ * HTTP/1.1 connection per in-flight call.
+ * Run with {@code mvn -pl gateway -am test-compile} and then {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ServerTransportBenchmark {
+
+    private static final byte[] ITEMS_PAGE = IntStream.rangeClosed(1, 20)
+            .mapToObj(id -> "{\"id\":" + id + ",\"name\":\"Item " + id + "\",\"description\":\"Item description\","
+                    + "\"available\":true,\"lastBooking\":null,\"nextBooking\":null,\"comments\":[],\"requestId\":null}")
+            .collect(Collectors.joining(",", "[", "]"))
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"blocking", "reactive", "reactive-h2c"})
+    private String transportType;
+
+    @Param({"false", "true"})
+    private boolean passthrough;
+
+    @Param("1000")
+    private int concurrentRequests;
+
+    @Param("16")
+    private int workerThreads;
+
+    @Param("50")
+    private int serverDelayMillis;
+
+    private DisposableServer server;
+    private ExecutorService workers;
+    private ConnectionProvider connectionProvider;
+    private ServerTransport transport;
+
+    @Setup
+    public void setUp() {
+        LoggingSystem.get(getClass().getClassLoader()).setLogLevel(LoggingSystem.ROOT_LOGGER_NAME, LogLevel.WARN);
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+                .http2Settings(settings -> settings.maxConcurrentStreams(200))
+                .route(routes -> routes.get("/items", (request, response) -> response
+                        .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                        .sendByteArray(Mono.delay(Duration.ofMillis(serverDelayMillis)).thenReturn(ITEMS_PAGE))))
+                .bindNow();
+        String serverUrl = "http://localhost:" + server.port();
+
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxTotal(concurrentRequests);
+        properties.setMaxPerRoute(concurrentRequests);
+        properties.setMaxPendingAcquires(concurrentRequests);
+        properties.setConnectionRequestTimeout(Duration.ofSeconds(30));
+        properties.setHttp2("reactive-h2c".equals(transportType));
+        if ("blocking".equals(transportType)) {
+            HttpClientConfig config = new HttpClientConfig(serverUrl, properties);
+            transport = config.shareitServerTransport(new RestTemplateBuilder(),
+                    config.shareitServerRequestFactory(
+                            config.shareitServerHttpClient(config.shareitServerConnectionManager())),
+                    passthrough);
+        } else {
+            WebClientConfig config = new WebClientConfig(serverUrl, properties);
+            connectionProvider = config.shareitServerConnectionProvider();
+            transport = config.shareitServerTransport(
+                    config.shareitServerWebClient(WebClient.builder(), connectionProvider), passthrough);
+        }
+        workers = Executors.newFixedThreadPool(workerThreads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        workers.shutdownNow();
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+        server.disposeNow();
+    }
+
+    @Benchmark
+    public Object proxyConcurrentRequests() {
+        CompletableFuture<?>[] responses = new CompletableFuture<?>[concurrentRequests];
+        for (int i = 0; i < concurrentRequests; i++) {
+            String path = "/items?from=" + i;
+            responses[i] = CompletableFuture
+                    .supplyAsync(() -> transport.exchange(HttpMethod.GET, path, new HttpHeaders(), null, null), workers)
+                    .thenCompose(response -> response);
+        }
+        CompletableFuture.allOf(responses).join();
+        return ((ResponseEntity<?>) responses[concurrentRequests - 1].join()).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ServerTransportBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+}
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<CompletableFuture<ResponseEntity<Object>>> calls = new CopyOnWriteArrayList<>();
+    private ServerTransport transport;
+
+    @BeforeEach
+    void setTransport() {
+        transport = new SingleFlight(meterRegistry).decorate((method, path, headers, parameters, body) -> {
+            CompletableFuture<ResponseEntity<Object>> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        });
+    }
+
+    @Test
+    void exchange_whenConcurrentIdenticalGets_shouldShareOneCall() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CompletableFuture<ResponseEntity<Object>>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return get("/users/1", 1, null);
+                }));
+            }
+            start.countDown();
+            List<CompletableFuture<ResponseEntity<Object>>> responses = new ArrayList<>();
+            for (Future<CompletableFuture<ResponseEntity<Object>>> result : results) {
+                responses.add(result.get(1, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.size());
+            ResponseEntity<Object> response = new ResponseEntity<>("user", HttpStatus.OK);
+            calls.get(0).complete(response);
+            for (CompletableFuture<ResponseEntity<Object>> result : responses) {
+                assertSame(response, result.get(1, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1.0, counter("leader"));
+        assertEquals(threads - 1.0, counter("follower"));
+    }
+
+    @Test
+    void exchange_whenFollowerCancels_shouldNotAffectLeaderOrOtherFollowers() {
+        CompletableFuture<ResponseEntity<Object>> leader = get("/users/1", 1, null);
+        CompletableFuture<ResponseEntity<Object>> follower = get("/users/1", 1, null);
+        CompletableFuture<ResponseEntity<Object>> other = get("/users/1", 1, null);
+        assertNotSame(leader, follower);
+        assertNotSame(follower, other);
+        follower.cancel(true);
+        other.completeExceptionally(new IllegalStateException("abandoned"));
+        calls.get(0).complete(new ResponseEntity<>("user", HttpStatus.OK));
+        assertEquals("user", leader.join().getBody());
+        assertTrue(follower.isCancelled());
+        assertEquals(1, calls.size());
+        assertTrue(calls.get(0).isDone() && !calls.get(0).isCompletedExceptionally());
+    }
+
+    @Test
+    void exchange_whenUsersOrParametersDiffer_shouldNotCoalesce() {
+        get("/items/search?text={text}", 1, Map.of("text", "drill"));
+        get("/items/search?text={text}", 2, Map.of("text", "drill"));
+        get("/items/search?text={text}", 1, Map.of("text", "saw"));
+        get("/items/1", 1, null);
+        assertEquals(4, calls.size());
+        assertEquals(0.0, counter("follower"));
+    }
+
+    @Test
+    void exchange_whenParametersAreEqualInOtherOrder_shouldCoalesce() {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("from", 0);
+        parameters.put("size", 20);
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("size", 20);
+        reordered.put("from", 0);
+        get("/users?from={from}&size={size}", 1, parameters);
+        get("/users?from={from}&size={size}", 1, reordered);
+        assertEquals(1, calls.size());
+    }
+
+    @Test
+    void exchange_whenLeaderFails_shouldFailFollowers_andLetNextCallThrough() {
+        CompletableFuture<ResponseEntity<Object>> leader = get("/users/1", 1, null);
+        CompletableFuture<ResponseEntity<Object>> follower = get("/users/1", 1, null);
+        IllegalStateException failure = new IllegalStateException("connection reset");
+        calls.get(0).completeExceptionally(failure);
+        assertSame(failure, assertThrows(CompletionException.class, leader::join).getCause());
+        assertSame(failure, assertThrows(CompletionException.class, follower::join).getCause());
+        get("/users/1", 1, null);
+        assertEquals(2, calls.size());
+        assertEquals(1.0, gauge("gateway.single.flight.in.flight"));
+    }
+
+    @Test
+    void exchange_whenTransportThrows_shouldFailCall_andNotKeepItInFlight() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ServerTransport throwing = new SingleFlight(registry).decorate((method, path, headers, parameters, body) -> {
+            throw new IllegalStateException("refused");
+        });
+        CompletableFuture<ResponseEntity<Object>> result = throwing.exchange(HttpMethod.GET, "/users/1",
+                userHeaders(1), null, null);
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(0.0, registry.get("gateway.single.flight.in.flight").gauge().value());
+    }
+
+    @Test
+    void exchange_whenNotGet_shouldNotCoalesce() {
+        transport.exchange(HttpMethod.PATCH, "/users/1", userHeaders(1), null, "{}");
+        transport.exchange(HttpMethod.PATCH, "/users/1", userHeaders(1), null, "{}");
+        assertEquals(2, calls.size());
+        assertEquals(0.0, counter("leader"));
+    }
+
+    @Test
+    void coalescingRatio_shouldBeShareOfFollowers() {
+        assertEquals(0.0, gauge("gateway.single.flight.coalescing.ratio"));
+        get("/users/1", 1, null);
+        get("/users/1", 1, null);
+        get("/users/1", 1, null);
+        get("/users/2", 1, null);
+        assertEquals(0.5, gauge("gateway.single.flight.coalescing.ratio"));
+        assertEquals(2.0, gauge("gateway.single.flight.in.flight"));
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> get(String path, long userId, Map<String, Object> parameters) {
+        return transport.exchange(HttpMethod.GET, path, userHeaders(userId), parameters, null);
+    }
+
+    private double counter(String role) {
+        return meterRegistry.get("gateway.single.flight.requests").tag("role", role).counter().count();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private static HttpHeaders userHeaders(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(header, String.valueOf(userId));
+        return headers;
+    }
+
+}
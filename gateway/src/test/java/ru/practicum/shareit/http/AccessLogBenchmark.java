@@ -0,0 +1,53 @@
+package ru.practicum.shareit.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggingSystem;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of handing one record to the access log from a request thread, with the writer draining to a
+ * disabled logger. Run with {@code -prof gc} to check that the request path does not allocate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessLogBenchmark {
+
+    private AccessLog accessLog;
+    private Counter dropped;
+
+    @Setup
+    public void setUp() {
+        LoggingSystem.get(getClass().getClassLoader()).setLogLevel("ACCESS", LogLevel.OFF);
+        dropped = Counter.builder("access.log.dropped").register(new SimpleMeterRegistry());
+        accessLog = new AccessLog(8192, TimeUnit.MILLISECONDS.toNanos(1), dropped);
+    }
+
+    @TearDown
+    public void tearDown() {
+        accessLog.close();
+    }
+
+    @Benchmark
+    public void record() {
+        accessLog.record(1_700_000_000_000L, 1_250_000L, 42L, "GET", "/items/7", null, 200);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AccessLogBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+}
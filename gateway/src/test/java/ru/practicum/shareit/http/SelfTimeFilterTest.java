@@ -0,0 +1,114 @@
+package ru.practicum.shareit.http;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.client.ServerCallTimer;
+import ru.practicum.shareit.client.ServerTime;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SelfTimeFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SelfTimeFilter filter = new SelfTimeFilter(meterRegistry);
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void doFilter_whenServedOnRequestThread_shouldRecordOnceWithRoute() throws Exception {
+        filter.doFilter(request, response, (servletRequest, servletResponse) ->
+                servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/users/{userId}"));
+        Timer timer = meterRegistry.get("gateway.self.time")
+                .tag("route", "/users/{userId}")
+                .tag("method", "GET")
+                .tag("status", "200")
+                .timer();
+        assertEquals(1, timer.count());
+        assertTrue(request.getAttribute(ServerCallTimer.SERVER_TIME_ATTRIBUTE) instanceof ServerTime);
+    }
+
+    @Test
+    void doFilter_whenAsync_shouldRecordOnDispatchFromFirstStart_andLeaveOutServerTime() throws Exception {
+        long start = System.nanoTime();
+        request.setAsyncSupported(true);
+        StandardServletAsyncWebRequest asyncWebRequest = new StandardServletAsyncWebRequest(request, response);
+        WebAsyncUtils.getAsyncManager(request).setAsyncWebRequest(asyncWebRequest);
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> {
+            asyncWebRequest.startAsync();
+            sleep(30);
+        });
+        assertNull(meterRegistry.find("gateway.self.time").timer());
+
+        ServerTime serverTime = (ServerTime) request.getAttribute(ServerCallTimer.SERVER_TIME_ATTRIBUTE);
+        waitForServer(request, 40);
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> sleep(10));
+
+        Timer timer = meterRegistry.get("gateway.self.time").timer();
+        assertEquals(1, timer.count());
+        long selfTime = (long) timer.totalTime(TimeUnit.NANOSECONDS);
+        long elapsed = System.nanoTime() - start;
+        assertTrue(selfTime >= TimeUnit.MILLISECONDS.toNanos(40), "self time " + selfTime);
+        assertTrue(selfTime <= elapsed - TimeUnit.MILLISECONDS.toNanos(40), "self time " + selfTime);
+        assertSame(serverTime, request.getAttribute(ServerCallTimer.SERVER_TIME_ATTRIBUTE));
+    }
+
+    @Test
+    void doFilter_whenBatchEntry_shouldRecordServerTimeInBatchToo() throws Exception {
+        ServerTime batchServerTime = new ServerTime(null);
+        request.setAttribute(ServerCallTimer.SERVER_TIME_ATTRIBUTE, batchServerTime);
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> {
+            assertNotSame(batchServerTime, servletRequest.getAttribute(ServerCallTimer.SERVER_TIME_ATTRIBUTE));
+            waitForServer((HttpServletRequest) servletRequest, 20);
+        });
+        assertTrue(batchServerTime.nanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    /**
+     * Makes a call to shareit-server that takes the given time on behalf of the request.
+     */
+    private static void waitForServer(HttpServletRequest request, long millis) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            new ServerCallTimer(new SimpleMeterRegistry())
+                    .decorate((method, path, headers, parameters, body) -> {
+                        sleep(millis);
+                        return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.OK));
+                    })
+                    .exchange(HttpMethod.GET, "/users/1", new HttpHeaders(), null, null);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
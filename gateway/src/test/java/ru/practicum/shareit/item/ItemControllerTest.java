@@ -11,6 +11,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import ru.practicum.shareit.comment.dto.IncomingCommentDto;
@@ -23,6 +24,7 @@ import javax.validation.ConstraintViolationException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -30,6 +32,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.http.HttpHeader.header;
 
@@ -59,9 +62,12 @@ class ItemControllerTest {
                 List.of(),
                 2L);
         when(itemClient.getAllOwnerItems(3L, 0, 20))
-                .thenReturn(new ResponseEntity<>(List.of(outgoingItemDto), HttpStatus.OK));
-        mockMvc.perform(get("/items?from=0&size=20")
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(List.of(outgoingItemDto), HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(get("/items?from=0&size=20")
                         .header(header, 3))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(List.of(outgoingItemDto))));
         verify(itemClient).getAllOwnerItems(3L, 0, 20);
@@ -116,9 +122,12 @@ class ItemControllerTest {
                 List.of(),
                 2L);
         when(itemClient.getItemById(3L, 1L))
-                .thenReturn(new ResponseEntity<>(outgoingItemDto, HttpStatus.OK));
-        mockMvc.perform(get("/items/{id}", 1)
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(outgoingItemDto, HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(get("/items/{id}", 1)
                         .header(header, 3))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(outgoingItemDto)));
         verify(itemClient).getItemById(3L, 1L);
@@ -169,9 +178,12 @@ class ItemControllerTest {
                 List.of(),
                 2L);
         when(itemClient.getItemsBySearch(0, 20, 3L, "SomeText"))
-                .thenReturn(new ResponseEntity<>(List.of(outgoingItemDto), HttpStatus.OK));
-        mockMvc.perform(get("/items/search?from=0&size=20&text=SomeText")
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(List.of(outgoingItemDto), HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(get("/items/search?from=0&size=20&text=SomeText")
                         .header(header, 3))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(List.of(outgoingItemDto))));
         verify(itemClient).getItemsBySearch(0, 20, 3L, "SomeText");
@@ -209,12 +221,15 @@ class ItemControllerTest {
                 List.of(),
                 2L);
         when(itemClient.postItem(1L, incomingItemDto))
-                .thenReturn(new ResponseEntity<>(outgoingItemDto, HttpStatus.OK));
-        mockMvc.perform(post("/items")
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(outgoingItemDto, HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(post("/items")
                         .header(header, 1)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(incomingItemDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(outgoingItemDto)));
         verify(itemClient).postItem(1L, incomingItemDto);
@@ -284,12 +299,15 @@ class ItemControllerTest {
                 "Some author name",
                 LocalDateTime.of(2000, 1, 1, 1, 1, 1));
         when(itemClient.postComment(1L, 1L, incomingCommentDto))
-                .thenReturn(new ResponseEntity<>(outgoingCommentDto, HttpStatus.OK));
-        mockMvc.perform(post("/items/{id}/comment", 1L)
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(outgoingCommentDto, HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(post("/items/{id}/comment", 1L)
                         .header(header, 1)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(incomingCommentDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(outgoingCommentDto)));
         verify(itemClient).postComment(1L, 1L, incomingCommentDto);
@@ -353,12 +371,15 @@ class ItemControllerTest {
                 List.of(),
                 1L);
         when(itemClient.patchItemById(1L, 1L, incomingItemDto))
-                .thenReturn(new ResponseEntity<>(outgoingItemDto, HttpStatus.OK));
-        mockMvc.perform(patch("/items/{id}", 1L)
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(outgoingItemDto, HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(patch("/items/{id}", 1L)
                         .header(header, 1)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(incomingItemDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(outgoingItemDto)));
         verify(itemClient).patchItemById(1L, 1L, incomingItemDto);
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.servlet.DispatcherType;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+class RateLimitInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitInterceptor interceptor;
+    private HandlerMethod bookingHandler;
+    private HandlerMethod itemHandler;
+
+    @BeforeEach
+    @SneakyThrows
+    void setInterceptor() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRead(new RateLimitProperties.Budget(0.5, 2));
+        properties.setWrite(new RateLimitProperties.Budget(0.5, 1));
+        RateLimitProperties.ControllerBudgets bookingBudgets = new RateLimitProperties.ControllerBudgets();
+        bookingBudgets.setRead(new RateLimitProperties.Budget(0.5, 1));
+        properties.setControllers(Map.of("booking", bookingBudgets));
+        interceptor = new RateLimitInterceptor(properties, new RateLimiter(), meterRegistry);
+        bookingHandler = new HandlerMethod(new BookingController(), "handle");
+        itemHandler = new HandlerMethod(new ItemController(), "handle");
+    }
+
+    @Test
+    @SneakyThrows
+    void preHandle_whenReadBudgetSpent_shouldRejectReads_butAdmitWrites() {
+        assertTrue(admitted("GET", 1L, itemHandler));
+        assertTrue(admitted("GET", 1L, itemHandler));
+        assertFalse(admitted("GET", 1L, itemHandler));
+        assertTrue(admitted("POST", 1L, itemHandler));
+        assertEquals(1, rejections("item", "read"));
+        assertEquals(0, rejections("item", "write"));
+    }
+
+    @Test
+    @SneakyThrows
+    void preHandle_whenWriteBudgetSpent_shouldRejectEveryNonGetMethod_butAdmitReads() {
+        assertTrue(admitted("PATCH", 1L, itemHandler));
+        assertFalse(admitted("POST", 1L, itemHandler));
+        assertFalse(admitted("DELETE", 1L, itemHandler));
+        assertTrue(admitted("GET", 1L, itemHandler));
+        assertEquals(0, rejections("item", "read"));
+        assertEquals(2, rejections("item", "write"));
+    }
+
+    @Test
+    @SneakyThrows
+    void preHandle_whenControllerHasOwnBudget_shouldUseIt_andKeepOtherControllersApart() {
+        assertTrue(admitted("GET", 1L, bookingHandler));
+        assertFalse(admitted("GET", 1L, bookingHandler));
+        assertTrue(admitted("GET", 1L, itemHandler));
+        assertTrue(admitted("GET", 2L, bookingHandler));
+        assertEquals(1, rejections("booking", "read"));
+    }
+
+    @Test
+    @SneakyThrows
+    void preHandle_whenRejected_shouldAnswerTooManyRequestsWithRetryAfterRoundedUp() {
+        interceptor.preHandle(request("GET", 1L), new MockHttpServletResponse(), bookingHandler);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request("GET", 1L), response, bookingHandler));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("TooManyRequests : Rate limit exceeded for user with id 1, retry after 2 s",
+                response.getContentAsString());
+    }
+
+    @Test
+    @SneakyThrows
+    void preHandle_whenNoUserOrAsyncDispatch_shouldAdmitWithoutSpendingBudget() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(admitted("GET", null, bookingHandler));
+            MockHttpServletRequest asyncDispatch = request("GET", 1L);
+            asyncDispatch.setDispatcherType(DispatcherType.ASYNC);
+            assertTrue(interceptor.preHandle(asyncDispatch, new MockHttpServletResponse(), bookingHandler));
+        }
+        assertTrue(admitted("GET", 1L, bookingHandler));
+    }
+
+    @SneakyThrows
+    private boolean admitted(String method, Long userId, HandlerMethod handler) {
+        return interceptor.preHandle(request(method, userId), new MockHttpServletResponse(), handler);
+    }
+
+    private double rejections(String controller, String access) {
+        return meterRegistry.get("gateway.rate.limit.rejected")
+                .tag("controller", controller)
+                .tag("access", access)
+                .counter().count();
+    }
+
+    private static MockHttpServletRequest request(String method, Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/test");
+        if (userId != null) {
+            request.addHeader(header, userId);
+        }
+        return request;
+    }
+
+    static class BookingController {
+
+        public void handle() {
+        }
+
+    }
+
+    static class ItemController {
+
+        public void handle() {
+        }
+
+    }
+
+}
@@ -0,0 +1,66 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one admission decision with many distinct users, one hot user and an exhausted user,
+ * contended from several threads.
+ * Run with {@code mvn -pl gateway -am test-compile} and then {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param("1000000")
+    private int users;
+
+    private RateLimiter rateLimiter;
+    private RateLimiter.Bucket generous;
+    private RateLimiter.Bucket strict;
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new RateLimiter();
+        generous = new RateLimiter.Bucket(0, new RateLimitProperties.Budget(1_000_000_000, 1_000_000));
+        strict = new RateLimiter.Bucket(1, new RateLimitProperties.Budget(1, 1));
+    }
+
+    @TearDown(Level.Iteration)
+    public void sweep() {
+        rateLimiter.sweep();
+    }
+
+    @Benchmark
+    public long manyUsers() {
+        return rateLimiter.tryAcquire(ThreadLocalRandom.current().nextInt(users), generous);
+    }
+
+    @Benchmark
+    public long hotUser() {
+        return rateLimiter.tryAcquire(1, generous);
+    }
+
+    @Benchmark
+    public long rejectedUser() {
+        return rateLimiter.tryAcquire(2, strict);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+}
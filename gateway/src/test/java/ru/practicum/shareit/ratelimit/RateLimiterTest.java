@@ -0,0 +1,71 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTest {
+
+    private final RateLimiter rateLimiter = new RateLimiter();
+
+    @Test
+    void tryAcquire_whenBurstSpent_shouldAskToWaitUpToOneEmissionInterval() {
+        RateLimiter.Bucket bucket = new RateLimiter.Bucket(0, new RateLimitProperties.Budget(1, 2));
+        assertEquals(0, rateLimiter.tryAcquire(1L, bucket));
+        assertEquals(0, rateLimiter.tryAcquire(1L, bucket));
+        long waitNanos = rateLimiter.tryAcquire(1L, bucket);
+        assertTrue(waitNanos > TimeUnit.MILLISECONDS.toNanos(900), "waits " + waitNanos);
+        assertTrue(waitNanos <= TimeUnit.SECONDS.toNanos(1), "waits " + waitNanos);
+    }
+
+    @Test
+    void tryAcquire_whenRejected_shouldNotSpendPermit() {
+        RateLimiter.Bucket bucket = new RateLimiter.Bucket(0, new RateLimitProperties.Budget(1, 1));
+        assertEquals(0, rateLimiter.tryAcquire(1L, bucket));
+        long firstWait = rateLimiter.tryAcquire(1L, bucket);
+        long secondWait = rateLimiter.tryAcquire(1L, bucket);
+        assertTrue(secondWait <= firstWait, firstWait + " then " + secondWait);
+    }
+
+    @Test
+    @SneakyThrows
+    void tryAcquire_whenWaitedAsAsked_shouldAdmit() {
+        RateLimiter.Bucket bucket = new RateLimiter.Bucket(0, new RateLimitProperties.Budget(10, 1));
+        assertEquals(0, rateLimiter.tryAcquire(1L, bucket));
+        long waitNanos = rateLimiter.tryAcquire(1L, bucket);
+        assertTrue(waitNanos > 0);
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+        assertEquals(0, rateLimiter.tryAcquire(1L, bucket));
+    }
+
+    @Test
+    void tryAcquire_shouldKeepBucketsPerUserAndPerBucket() {
+        RateLimitProperties.Budget budget = new RateLimitProperties.Budget(0.001, 1);
+        RateLimiter.Bucket read = new RateLimiter.Bucket(0, budget);
+        RateLimiter.Bucket write = new RateLimiter.Bucket(1, budget);
+        assertEquals(0, rateLimiter.tryAcquire(1L, read));
+        assertTrue(rateLimiter.tryAcquire(1L, read) > 0);
+        assertEquals(0, rateLimiter.tryAcquire(1L, write));
+        assertEquals(0, rateLimiter.tryAcquire(2L, read));
+        assertEquals(3, rateLimiter.size());
+    }
+
+    @Test
+    @SneakyThrows
+    void sweep_shouldDropOnlyFullBuckets_andDroppedBucketsShouldStartFull() {
+        RateLimiter.Bucket fast = new RateLimiter.Bucket(0, new RateLimitProperties.Budget(1000, 1));
+        RateLimiter.Bucket slow = new RateLimiter.Bucket(1, new RateLimitProperties.Budget(0.001, 1));
+        assertEquals(0, rateLimiter.tryAcquire(1L, fast));
+        assertEquals(0, rateLimiter.tryAcquire(1L, slow));
+        TimeUnit.MILLISECONDS.sleep(5);
+        rateLimiter.sweep();
+        assertEquals(1, rateLimiter.size());
+        assertTrue(rateLimiter.tryAcquire(1L, slow) > 0);
+        assertEquals(0, rateLimiter.tryAcquire(1L, fast));
+    }
+
+}
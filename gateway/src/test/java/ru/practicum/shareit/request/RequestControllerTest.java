@@ -12,6 +12,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import ru.practicum.shareit.exeption.ExceptionResolver;
@@ -22,14 +23,17 @@ import javax.validation.ConstraintViolationException;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.http.HttpHeader.header;
 
@@ -61,9 +65,12 @@ class RequestControllerTest {
     @SneakyThrows
     void getAllRequesterRequests_whenInvoke_shouldInvokeRequestServiceMethod() {
         when(requestClient.getAllRequesterRequests(1L, 0, 20))
-                .thenReturn(new ResponseEntity<>(List.of(outgoingRequestDto), HttpStatus.OK));
-        mockMvc.perform(get("/requests")
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(List.of(outgoingRequestDto), HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(get("/requests")
                         .header(header, 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(List.of(outgoingRequestDto))));
         verify(requestClient).getAllRequesterRequests(1L, 0, 20);
@@ -107,9 +114,12 @@ class RequestControllerTest {
     @SneakyThrows
     void getAllRequests_whenInvoke_shouldInvokeRequestServiceMethod() {
         when(requestClient.getAllRequests(1L, 0, 20))
-                .thenReturn(new ResponseEntity<>(List.of(outgoingRequestDto), HttpStatus.OK));
-        mockMvc.perform(get("/requests/all")
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(List.of(outgoingRequestDto), HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(get("/requests/all")
                         .header(header, 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(List.of(outgoingRequestDto))));
         verify(requestClient).getAllRequests(1L, 0, 20);
@@ -154,9 +164,12 @@ class RequestControllerTest {
     @SneakyThrows
     void getRequestById_whenInvoke_shouldInvokeRequestServiceMethod() {
         when(requestClient.getRequestById(1L, 1L))
-                .thenReturn(new ResponseEntity<>(outgoingRequestDto, HttpStatus.OK));
-        mockMvc.perform(get("/requests/{id}", 1)
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(outgoingRequestDto, HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(get("/requests/{id}", 1)
                         .header(header, 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(outgoingRequestDto)));
         verify(requestClient).getRequestById(1L, 1L);
@@ -183,12 +196,15 @@ class RequestControllerTest {
                 null,
                 "Some description");
         when(requestClient.postRequest(1L, incomingRequestDto))
-                .thenReturn(new ResponseEntity<>(outgoingRequestDto, HttpStatus.OK));
-        mockMvc.perform(post("/requests")
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(outgoingRequestDto, HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(post("/requests")
                         .header(header, 1)
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(incomingRequestDto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(outgoingRequestDto)));
         verify(requestClient).postRequest(1L, incomingRequestDto);
@@ -0,0 +1,179 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.exeption.NotFoundException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+class KnownUsersTest {
+
+    private static final String SNAPSHOT_PATH = "/users/ids?after={after}&size={size}";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Map<String, Object>> snapshotCalls = new CopyOnWriteArrayList<>();
+    private final List<String> userCalls = new CopyOnWriteArrayList<>();
+    private final KnownUsersProperties properties = new KnownUsersProperties();
+    private volatile List<Long> serverIds = List.of();
+    private KnownUsers knownUsers;
+    private ServerTransport transport;
+
+    @BeforeEach
+    void setKnownUsers() {
+        properties.setSnapshotPageSize(2);
+        knownUsers = new KnownUsers(properties, new ObjectMapper(), meterRegistry);
+        transport = knownUsers.decorate(this::answer);
+    }
+
+    @AfterEach
+    void shutDown() {
+        knownUsers.destroy();
+    }
+
+    @Test
+    @SneakyThrows
+    void decorate_shouldNotSeed_andPassEveryUserUntilSeeded() {
+        serverIds = List.of(1L);
+        TimeUnit.MILLISECONDS.sleep(50);
+        assertTrue(snapshotCalls.isEmpty());
+        assertEquals(HttpStatus.OK, call(7L).get().getStatusCode());
+        assertEquals(List.of("7"), userCalls);
+    }
+
+    @Test
+    @SneakyThrows
+    void seedOnStartup_shouldReadSnapshotInPagesOfAscendingIds() {
+        serverIds = List.of(1L, 2L, 3L, 5L, 8L);
+        seed(4L);
+        assertEquals(List.of(Map.of("after", 0L, "size", 2), Map.of("after", 2L, "size", 2),
+                Map.of("after", 5L, "size", 2)), snapshotCalls);
+        for (long userId : serverIds) {
+            assertEquals(HttpStatus.OK, call(userId).get().getStatusCode());
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void seedOnStartup_whenLastPageFull_shouldReadOneMoreEmptyPage() {
+        serverIds = List.of(1L, 2L, 3L, 4L);
+        seed(5L);
+        assertEquals(List.of(0L, 2L, 4L), snapshotCalls.stream()
+                .map(parameters -> parameters.get("after"))
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenUserUnknown_shouldAnswerNotFoundWithoutCallingServer() {
+        serverIds = List.of(1L, 2L);
+        seed(3L);
+        ExecutionException e = assertThrows(ExecutionException.class, () -> call(3L).get());
+        assertInstanceOf(NotFoundException.class, e.getCause());
+        assertEquals("There's no user with id 3", e.getCause().getMessage());
+        assertFalse(userCalls.contains("3"));
+        assertEquals(2, meterRegistry.get("gateway.known.users.rejected").counter().count());
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenFalsePositive_shouldPassItToServer() {
+        properties.setFalsePositiveRate(0.5);
+        properties.setMinExpectedUsers(1);
+        serverIds = List.of(1L, 2L, 3L);
+        UserIdBloomFilter sameFilter = UserIdBloomFilter.create(6, 0.5);
+        serverIds.forEach(sameFilter::put);
+        long falsePositive = LongStream.range(4, 1000)
+                .filter(sameFilter::mightContain)
+                .findFirst()
+                .orElseThrow();
+        long absent = LongStream.range(4, 1000)
+                .filter(userId -> !sameFilter.mightContain(userId))
+                .findFirst()
+                .orElseThrow();
+        seed(absent);
+        assertEquals(HttpStatus.OK, call(falsePositive).get().getStatusCode());
+        assertTrue(userCalls.contains(String.valueOf(falsePositive)));
+    }
+
+    @Test
+    @SneakyThrows
+    void exchange_whenUserCreated_shouldLearnIt() {
+        serverIds = List.of(1L);
+        seed(42L);
+        ResponseEntity<Object> created = transport.exchange(HttpMethod.POST, "/users", new HttpHeaders(), null,
+                Map.of("name", "User", "email", "user@mail.ru")).get();
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+        assertEquals(HttpStatus.OK, call(42L).get().getStatusCode());
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> call(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(header, String.valueOf(userId));
+        return transport.exchange(HttpMethod.GET, "/users/" + userId, headers, null, null);
+    }
+
+    /**
+     * Seeds the filter and waits until {@code unknownUserId} is rejected; calls passed through before that
+     * are forgotten.
+     */
+    private void seed(long unknownUserId) {
+        knownUsers.seedOnStartup();
+        await(() -> call(unknownUserId).isCompletedExceptionally());
+        userCalls.clear();
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> answer(HttpMethod method, String path, HttpHeaders headers,
+                                                             Map<String, Object> parameters, Object body) {
+        if (SNAPSHOT_PATH.equals(path)) {
+            snapshotCalls.add(parameters);
+            long after = ((Number) parameters.get("after")).longValue();
+            int size = ((Number) parameters.get("size")).intValue();
+            List<Long> page = serverIds.stream()
+                    .filter(userId -> userId > after)
+                    .limit(size)
+                    .collect(Collectors.toList());
+            return CompletableFuture.completedFuture(new ResponseEntity<>(page, HttpStatus.OK));
+        }
+        if (method == HttpMethod.POST) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(
+                    "{\"id\":42,\"name\":\"User\"}".getBytes(StandardCharsets.UTF_8), HttpStatus.CREATED));
+        }
+        userCalls.add(headers.getFirst(header));
+        return CompletableFuture.completedFuture(new ResponseEntity<>(HttpStatus.OK));
+    }
+
+    @SneakyThrows
+    private static void await(BooleanSupplier condition) {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < until, "Condition not met in time");
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+
+}
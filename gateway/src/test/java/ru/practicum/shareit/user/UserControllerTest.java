@@ -11,6 +11,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import ru.practicum.shareit.exeption.ExceptionResolver;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -18,6 +19,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import javax.validation.ConstraintViolationException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -25,6 +27,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest({UserController.class, ExceptionResolver.class})
@@ -47,8 +50,11 @@ class UserControllerTest {
                 "Name",
                 "name@email.com");
         when(userClient.getAllUsers(5, 10))
-                .thenReturn(new ResponseEntity<>(List.of(userDto), HttpStatus.OK));
-        mockMvc.perform(get("/users?from=5&size=10"))
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(List.of(userDto), HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(get("/users?from=5&size=10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(List.of(userDto))));
         verify(userClient).getAllUsers(5, 10);
@@ -104,8 +110,11 @@ class UserControllerTest {
                 "Name",
                 "name@email.com");
         when(userClient.getUserById(1L))
-                .thenReturn(new ResponseEntity<>(userDto, HttpStatus.OK));
-        mockMvc.perform(get("/users/{id}", 1))
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(userDto, HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(get("/users/{id}", 1))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(userDto)));
         verify(userClient).getUserById(1L);
@@ -132,11 +141,14 @@ class UserControllerTest {
                 null,
                 "Name",
                 "name@email.com");
-        when(userClient.postUser(userDto)).thenReturn(new ResponseEntity<>(userDto, HttpStatus.OK));
-        mockMvc.perform(post("/users")
+        when(userClient.postUser(userDto)).thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(userDto, HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(post("/users")
                         .content(objectMapper.writeValueAsString(userDto))
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(userDto)));
         verify(userClient).postUser(userDto);
@@ -169,11 +181,14 @@ class UserControllerTest {
                 "Name",
                 "name@email.com");
         when(userClient.patchUserById(1L, userDto))
-                .thenReturn(new ResponseEntity<>(userDto, HttpStatus.OK));
-        mockMvc.perform(patch("/users/{id}", 1)
+                .thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(userDto, HttpStatus.OK)));
+        MvcResult mvcResult = mockMvc.perform(patch("/users/{id}", 1)
                         .content(objectMapper.writeValueAsString(userDto))
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(userDto)));
         verify(userClient).patchUserById(1L, userDto);
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserIdBloomFilterTest {
+
+    @Test
+    void mightContain_shouldKeepEveryPutId() {
+        UserIdBloomFilter filter = UserIdBloomFilter.create(10_000, 0.01);
+        LongStream.rangeClosed(1, 10_000).forEach(filter::put);
+        assertTrue(LongStream.rangeClosed(1, 10_000).allMatch(filter::mightContain));
+    }
+
+    @Test
+    void mightContain_shouldRejectMostAbsentIds_atAboutTheConfiguredRate() {
+        UserIdBloomFilter filter = UserIdBloomFilter.create(10_000, 0.01);
+        LongStream.rangeClosed(1, 10_000).forEach(filter::put);
+        long falsePositives = LongStream.rangeClosed(10_001, 110_000)
+                .filter(filter::mightContain)
+                .count();
+        assertTrue(falsePositives < 2_000, falsePositives + " false positives in 100000");
+    }
+
+}
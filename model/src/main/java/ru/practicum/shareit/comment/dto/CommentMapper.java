@@ -12,7 +12,7 @@ public class CommentMapper {
         return new OutgoingCommentDto(
                 comment.getId(),
                 comment.getText(),
-                comment.getAuthor().getName(),
+                comment.getAuthorName(),
                 comment.getCreated());
     }
 
@@ -22,6 +22,7 @@ public class CommentMapper {
                 incomingCommentDto.getText(),
                 null,
                 null,
+                null,
                 LocalDateTime.now());
     }
 
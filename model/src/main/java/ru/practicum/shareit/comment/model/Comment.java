@@ -3,6 +3,7 @@ package ru.practicum.shareit.comment.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -24,14 +25,19 @@ public class Comment {
     @Column(name = "text", length = 128, nullable = false)
     private String text;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
+    @ToString.Exclude
     private Item item;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
+    @ToString.Exclude
     private User author;
 
+    @Column(name = "author_name", length = 128, nullable = false)
+    private String authorName;
+
     @Column(name = "created", nullable = false)
     private LocalDateTime created;
 
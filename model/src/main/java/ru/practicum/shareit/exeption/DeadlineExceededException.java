@@ -0,0 +1,9 @@
+package ru.practicum.shareit.exeption;
+
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+}
@@ -1,8 +1,10 @@
 package ru.practicum.shareit.exeption;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
@@ -45,6 +47,23 @@ public class ExceptionResolver {
                 HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<String> serviceUnavailableHandle(Exception e) {
+        log.error("{} : {}", e.getClass().getSimpleName(), e.getMessage());
+        return new ResponseEntity<>(e.getClass().getSimpleName() + " : " + e.getMessage(),
+                HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler({
+            DeadlineExceededException.class,
+            QueryTimeoutException.class,
+            TransactionTimedOutException.class})
+    public ResponseEntity<String> deadlineExceededHandle(Exception e) {
+        log.error("{} : {}", e.getClass().getSimpleName(), e.getMessage());
+        return new ResponseEntity<>(e.getClass().getSimpleName() + " : " + e.getMessage(),
+                HttpStatus.GATEWAY_TIMEOUT);
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, String> constraintViolationExceptionhandle(ConstraintViolationException e) {
@@ -55,6 +74,7 @@ public class ExceptionResolver {
     @ExceptionHandler({
             MissingRequestHeaderException.class,
             NotAvailableItemException.class,
+            InvalidCursorException.class,
             SQLException.class})
     public ResponseEntity<String> exceptionHandle(Exception e) {
         log.error("{} : {}", e.getClass().getSimpleName(), e.getMessage());
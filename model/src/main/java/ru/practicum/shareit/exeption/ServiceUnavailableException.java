@@ -0,0 +1,9 @@
+package ru.practicum.shareit.exeption;
+
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+
+}
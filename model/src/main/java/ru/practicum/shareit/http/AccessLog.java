@@ -0,0 +1,121 @@
+package ru.practicum.shareit.http;
+
+import io.micrometer.core.instrument.Counter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Multi-producer ring of preallocated access records drained by one writer thread. Request threads only
+ * copy primitives and already materialised strings into a slot, so nothing is formatted or allocated on
+ * the request path; when the writer falls behind, records are dropped and counted instead of blocking.
+ */
+public class AccessLog {
+
+    private static final Logger ACCESS = LoggerFactory.getLogger("ACCESS");
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final long idleWaitNanos;
+    private final Counter dropped;
+    private final Thread writer;
+    private volatile long consumed;
+    private volatile boolean running = true;
+
+    public AccessLog(int capacity, long idleWaitNanos, Counter dropped) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size - 1;
+        this.idleWaitNanos = idleWaitNanos;
+        this.dropped = dropped;
+        this.writer = new Thread(this::drainLoop, "access-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void record(long timestamp, long durationNanos, long userId, String method, String uri,
+                       String query, int status) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length) {
+                dropped.increment();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.timestamp = timestamp;
+        slot.durationNanos = durationNanos;
+        slot.userId = userId;
+        slot.method = method;
+        slot.uri = uri;
+        slot.query = query;
+        slot.status = status;
+        slot.sequence = sequence;
+    }
+
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        StringBuilder line = new StringBuilder(256);
+        while (running) {
+            if (drain(line) == 0) {
+                LockSupport.parkNanos(idleWaitNanos);
+            }
+        }
+        drain(line);
+    }
+
+    private int drain(StringBuilder line) {
+        int drained = 0;
+        long next = consumed;
+        Slot slot = slots[(int) (next & mask)];
+        while (slot.sequence == next) {
+            if (ACCESS.isInfoEnabled()) {
+                line.setLength(0);
+                line.append(slot.timestamp).append(' ')
+                        .append(slot.userId).append(' ')
+                        .append(slot.method).append(' ')
+                        .append(slot.uri);
+                if (slot.query != null) {
+                    line.append('?').append(slot.query);
+                }
+                line.append(' ').append(slot.status)
+                        .append(' ').append(slot.durationNanos / 1000).append("us");
+                ACCESS.info(line.toString());
+            }
+            slot.uri = null;
+            slot.query = null;
+            consumed = ++next;
+            drained++;
+            slot = slots[(int) (next & mask)];
+        }
+        return drained;
+    }
+
+    private static final class Slot {
+        private volatile long sequence = -1;
+        private long timestamp;
+        private long durationNanos;
+        private long userId;
+        private String method;
+        private String uri;
+        private String query;
+        private int status;
+    }
+
+}
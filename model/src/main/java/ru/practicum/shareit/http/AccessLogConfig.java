@@ -0,0 +1,35 @@
+package ru.practicum.shareit.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit.access-log.enabled", havingValue = "true")
+@EnableConfigurationProperties(AccessLogProperties.class)
+public class AccessLogConfig {
+
+    @Bean(destroyMethod = "close")
+    public AccessLog accessLog(AccessLogProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        Counter dropped = Counter.builder("access.log.dropped")
+                .register(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        return new AccessLog(properties.getCapacity(), properties.getIdleWait().toNanos(), dropped);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AccessLogFilter> accessLogFilter(AccessLog accessLog,
+                                                                   AccessLogProperties properties) {
+        FilterRegistrationBean<AccessLogFilter> registration = new FilterRegistrationBean<>(
+                new AccessLogFilter(accessLog, properties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 50);
+        return registration;
+    }
+
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.http;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+/**
+ * Times every request across its async dispatches and hands the outcome to the {@link AccessLog}.
+ * Successful requests are sampled per handler pattern; responses with status 400 and above are always kept.
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private static final String START_ATTRIBUTE = AccessLogFilter.class.getName() + ".START";
+
+    private final AccessLog accessLog;
+    private final Double defaultSampling;
+    private final Map<String, Double> sampling;
+
+    public AccessLogFilter(AccessLog accessLog, AccessLogProperties properties) {
+        this.accessLog = accessLog;
+        this.defaultSampling = properties.getDefaultSampling();
+        this.sampling = Map.copyOf(properties.getSampling());
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = isAsyncDispatch(request) ? startOf(request) : System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (isAsyncStarted(request)) {
+                if (!isAsyncDispatch(request)) {
+                    request.setAttribute(START_ATTRIBUTE, start);
+                }
+            } else if (sampled(request, response.getStatus())) {
+                accessLog.record(System.currentTimeMillis(), System.nanoTime() - start, userId(request),
+                        request.getMethod(), request.getRequestURI(), request.getQueryString(),
+                        response.getStatus());
+            }
+        }
+    }
+
+    private boolean sampled(HttpServletRequest request, int status) {
+        if (status >= 400) {
+            return true;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        double rate = pattern == null ? defaultSampling : sampling.getOrDefault(pattern, defaultSampling);
+        return rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private long startOf(HttpServletRequest request) {
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        return start instanceof Long ? (Long) start : System.nanoTime();
+    }
+
+    private long userId(HttpServletRequest request) {
+        String value = request.getHeader(header);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.http;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.access-log")
+public class AccessLogProperties {
+
+    private int capacity = 8192;
+
+    private Duration idleWait = Duration.ofMillis(5);
+
+    private double defaultSampling = 1.0;
+
+    private Map<String, Double> sampling = new HashMap<>();
+
+}
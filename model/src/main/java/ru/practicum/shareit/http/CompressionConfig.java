@@ -0,0 +1,28 @@
+package ru.practicum.shareit.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit.compression.enabled", havingValue = "true")
+@EnableConfigurationProperties(CompressionProperties.class)
+public class CompressionConfig {
+
+    @Bean
+    public FilterRegistrationBean<GzipResponseFilter> gzipResponseFilter(CompressionProperties properties,
+                                                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        FilterRegistrationBean<GzipResponseFilter> registration = new FilterRegistrationBean<>(
+                new GzipResponseFilter(properties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry)));
+        // outside the ETag filter, so the ETag is computed over the uncompressed body
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.http;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+import java.util.zip.Deflater;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.compression")
+public class CompressionProperties {
+
+    private DataSize minResponseSize = DataSize.ofKilobytes(1);
+
+    private List<String> mimeTypes = List.of("application/json", "text/plain");
+
+    private int level = Deflater.DEFAULT_COMPRESSION;
+
+}
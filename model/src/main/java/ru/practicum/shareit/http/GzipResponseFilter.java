@@ -0,0 +1,159 @@
+package ru.practicum.shareit.http;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Buffers the response and gzips it when the client accepts gzip and the body is at least
+ * {@code shareit.compression.min-response-size} of a compressible type. Records the original and
+ * compressed sizes and the time spent compressing.
+ */
+public class GzipResponseFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+
+    private final int minResponseSize;
+    private final List<MediaType> mimeTypes;
+    private final int level;
+    private final DistributionSummary originalSize;
+    private final DistributionSummary compressedSize;
+    private final Timer compressionTime;
+
+    public GzipResponseFilter(CompressionProperties properties, MeterRegistry registry) {
+        this.minResponseSize = (int) properties.getMinResponseSize().toBytes();
+        this.mimeTypes = properties.getMimeTypes().stream()
+                .map(MediaType::parseMediaType)
+                .collect(Collectors.toList());
+        this.level = properties.getLevel();
+        this.originalSize = DistributionSummary.builder("http.compression.size")
+                .baseUnit("bytes")
+                .tag("stage", "original")
+                .register(registry);
+        this.compressedSize = DistributionSummary.builder("http.compression.size")
+                .baseUnit("bytes")
+                .tag("stage", "compressed")
+                .register(registry);
+        this.compressionTime = Timer.builder("http.compression.time")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!acceptsGzip(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        HttpServletResponse responseToUse = response;
+        if (!isAsyncDispatch(request) && WebUtils.getNativeResponse(response, CompressingResponseWrapper.class) == null) {
+            responseToUse = new CompressingResponseWrapper(response);
+        }
+        filterChain.doFilter(request, responseToUse);
+        if (!isAsyncStarted(request)) {
+            CompressingResponseWrapper wrapper = WebUtils.getNativeResponse(responseToUse,
+                    CompressingResponseWrapper.class);
+            if (wrapper != null) {
+                writeResponse(wrapper);
+            }
+        }
+    }
+
+    private void writeResponse(CompressingResponseWrapper wrapper) throws IOException {
+        HttpServletResponse rawResponse = (HttpServletResponse) wrapper.getResponse();
+        if (!isCompressibleType(wrapper.getContentType())) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        if (!rawResponse.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING)) {
+            rawResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        int size = wrapper.getContentSize();
+        if (size < minResponseSize || wrapper.containsHeader(HttpHeaders.CONTENT_ENCODING)
+                || wrapper.getStatus() == HttpStatus.NO_CONTENT.value()
+                || wrapper.getStatus() == HttpStatus.NOT_MODIFIED.value()) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        long start = System.nanoTime();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(size / 4 + 64);
+        try (GZIPOutputStream gzip = new LeveledGzipOutputStream(compressed, level)) {
+            wrapper.getContentInputStream().transferTo(gzip);
+        }
+        compressionTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        originalSize.record(size);
+        compressedSize.record(compressed.size());
+
+        String eTag = rawResponse.getHeader(HttpHeaders.ETAG);
+        if (eTag != null && !eTag.startsWith("W/")) {
+            // the gzip representation is not byte-identical, so only a weak validator still holds
+            rawResponse.setHeader(HttpHeaders.ETAG, "W/" + eTag);
+        }
+        rawResponse.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        rawResponse.setContentLength(compressed.size());
+        compressed.writeTo(rawResponse.getOutputStream());
+    }
+
+    private boolean acceptsGzip(HttpServletRequest request) {
+        for (String value : Collections.list(request.getHeaders(HttpHeaders.ACCEPT_ENCODING))) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.trim().split(";");
+                if (GZIP.equalsIgnoreCase(parts[0].trim())
+                        && !(parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isCompressibleType(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return mimeTypes.stream().anyMatch(type -> type.includes(mediaType));
+    }
+
+    private static class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        LeveledGzipOutputStream(OutputStream out, int level) throws IOException {
+            super(out, 8192);
+            def.setLevel(level);
+        }
+
+    }
+
+    private static class CompressingResponseWrapper extends ContentCachingResponseWrapper {
+
+        CompressingResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+    }
+
+}
@@ -4,4 +4,14 @@ public class HttpHeader {
 
     public static final String header = "X-Sharer-User-Id";
 
+    /**
+     * Milliseconds the caller is still waiting for the response.
+     */
+    public static final String deadline = "X-Request-Deadline-Ms";
+
+    /**
+     * Cursor to pass as {@code after} for the page following a full one.
+     */
+    public static final String nextCursor = "X-Next-Cursor";
+
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.exeption.InvalidCursorException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static ru.practicum.shareit.http.HttpHeader.nextCursor;
+
+/**
+ * Position of the last row of a page in keyset pagination: the sort key, if the list is not ordered by id
+ * alone, and the id breaking ties. Clients get it as an opaque url-safe string and send it back as
+ * {@code after}.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class Cursor {
+
+    /**
+     * Shape of an encoded cursor, for validating {@code after} request parameters.
+     */
+    public static final String PATTERN = "[A-Za-z0-9_-]{1,128}";
+
+    private static final char SEPARATOR = '~';
+
+    private final LocalDateTime position;
+    private final Long id;
+
+    private Cursor(LocalDateTime position, Long id) {
+        this.position = position;
+        this.id = id;
+    }
+
+    public static Cursor after(Long id) {
+        return new Cursor(null, id);
+    }
+
+    public static Cursor after(LocalDateTime position, Long id) {
+        return new Cursor(position, id);
+    }
+
+    public String encode() {
+        String value = position == null ? String.valueOf(id) : position.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String cursor, boolean positioned) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (positioned != separator >= 0) {
+                throw new InvalidCursorException("Cursor " + cursor + " belongs to another list!");
+            }
+            return positioned
+                    ? after(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1)))
+                    : after(Long.valueOf(value));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Cursor " + cursor + " is malformed!");
+        }
+    }
+
+    /**
+     * Sets the {@code X-Next-Cursor} header when the page is full, so that another one may follow.
+     */
+    public static <T> void setNext(HttpServletResponse response, List<T> page, int size, Function<T, Cursor> cursorOf) {
+        if (!page.isEmpty() && page.size() == size) {
+            response.setHeader(nextCursor, cursorOf.apply(page.get(page.size() - 1)).encode());
+        }
+    }
+
+}
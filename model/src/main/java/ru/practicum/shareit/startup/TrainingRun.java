@@ -0,0 +1,48 @@
+package ru.practicum.shareit.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Stops the application as soon as it is ready when started with {@code shareit.training-run=true}, so that
+ * the classes loaded by a full start can be recorded for the class data sharing archive. One health request
+ * is served first to load the classes of the request path as well.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.training-run", havingValue = "true")
+public class TrainingRun {
+
+    @EventListener
+    public void exitWhenReady(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        String port = context.getEnvironment().getProperty("local.server.port");
+        if (port != null) {
+            try {
+                HttpResponse<Void> response = HttpClient.newHttpClient().send(HttpRequest
+                        .newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                        .timeout(Duration.ofSeconds(10))
+                        .build(), HttpResponse.BodyHandlers.discarding());
+                log.info("Training request answered with {}", response.statusCode());
+            } catch (IOException e) {
+                log.warn("Training request failed : {}", e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        System.exit(SpringApplication.exit(context));
+    }
+
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.http;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static ru.practicum.shareit.http.HttpHeader.header;
+
+class AccessLogFilterTest {
+
+    private final AccessLog accessLog = mock(AccessLog.class);
+
+    @Test
+    @SneakyThrows
+    void doFilter_shouldRecordRequestOutcome() {
+        MockHttpServletRequest request = request("/items/{itemId}");
+        request.setQueryString("a=b");
+        filter(1.0, Map.of()).doFilter(request, response(201), (servletRequest, servletResponse) -> {
+        });
+        verify(accessLog).record(anyLong(), anyLong(), eq(1L), eq("GET"), eq("/items/1"), eq("a=b"), eq(201));
+    }
+
+    @Test
+    @SneakyThrows
+    void doFilter_whenPatternNotSampled_shouldSkipSuccess() {
+        AccessLogFilter filter = filter(1.0, Map.of("/items/{itemId}", 0.0));
+        for (int i = 0; i < 20; i++) {
+            filter.doFilter(request("/items/{itemId}"), response(200), (servletRequest, servletResponse) -> {
+            });
+        }
+        verifyNoInteractions(accessLog);
+    }
+
+    @Test
+    @SneakyThrows
+    void doFilter_whenPatternSampled_shouldRecordItDespiteDefault() {
+        AccessLogFilter filter = filter(0.0, Map.of("/items/{itemId}", 1.0));
+        filter.doFilter(request("/items/{itemId}"), response(200), (servletRequest, servletResponse) -> {
+        });
+        filter.doFilter(request(null), response(200), (servletRequest, servletResponse) -> {
+        });
+        verify(accessLog, times(1)).record(anyLong(), anyLong(), anyLong(), eq("GET"), eq("/items/1"),
+                isNull(), eq(200));
+    }
+
+    @Test
+    @SneakyThrows
+    void doFilter_whenError_shouldRecordItDespiteSampling() {
+        AccessLogFilter filter = filter(0.0, Map.of("/items/{itemId}", 0.0));
+        filter.doFilter(request("/items/{itemId}"), response(404), (servletRequest, servletResponse) -> {
+        });
+        filter.doFilter(request(null), response(500), (servletRequest, servletResponse) -> {
+        });
+        verify(accessLog).record(anyLong(), anyLong(), eq(1L), eq("GET"), eq("/items/1"), isNull(), eq(404));
+        verify(accessLog).record(anyLong(), anyLong(), eq(1L), eq("GET"), eq("/items/1"), isNull(), eq(500));
+    }
+
+    @Test
+    @SneakyThrows
+    void doFilter_whenAsync_shouldRecordOnceWithTimeSinceFirstDispatch() {
+        AccessLogFilter filter = filter(1.0, Map.of());
+        MockHttpServletRequest request = request("/items/{itemId}");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = response(200);
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> {
+            StandardServletAsyncWebRequest asyncWebRequest = new StandardServletAsyncWebRequest(
+                    (HttpServletRequest) servletRequest, (HttpServletResponse) servletResponse);
+            WebAsyncUtils.getAsyncManager(servletRequest).setAsyncWebRequest(asyncWebRequest);
+            asyncWebRequest.startAsync();
+        });
+        verify(accessLog, never()).record(anyLong(), anyLong(), anyLong(), any(), any(), any(), anyInt());
+
+        TimeUnit.MILLISECONDS.sleep(20);
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> {
+        });
+        verify(accessLog).record(anyLong(), longThat(duration -> duration >= TimeUnit.MILLISECONDS.toNanos(20)),
+                eq(1L), eq("GET"), eq("/items/1"), isNull(), eq(200));
+    }
+
+    @Test
+    @SneakyThrows
+    void doFilter_whenUserIdMissingOrMalformed_shouldRecordMinusOne() {
+        AccessLogFilter filter = filter(1.0, Map.of());
+        MockHttpServletRequest malformed = new MockHttpServletRequest("GET", "/items/1");
+        malformed.addHeader(header, "one");
+        filter.doFilter(malformed, response(200), (servletRequest, servletResponse) -> {
+        });
+        filter.doFilter(new MockHttpServletRequest("GET", "/items/1"), response(200),
+                (servletRequest, servletResponse) -> {
+                });
+        verify(accessLog, times(2)).record(anyLong(), anyLong(), eq(-1L), eq("GET"), eq("/items/1"), isNull(),
+                eq(200));
+    }
+
+    private AccessLogFilter filter(double defaultSampling, Map<String, Double> sampling) {
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setDefaultSampling(defaultSampling);
+        properties.setSampling(sampling);
+        return new AccessLogFilter(accessLog, properties);
+    }
+
+    private static MockHttpServletRequest request(String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+        request.addHeader(header, 1);
+        if (pattern != null) {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        }
+        return request;
+    }
+
+    private static MockHttpServletResponse response(int status) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(status);
+        return response;
+    }
+
+}
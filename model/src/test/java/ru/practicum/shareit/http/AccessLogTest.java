@@ -0,0 +1,114 @@
+package ru.practicum.shareit.http;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessLogTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger("ACCESS");
+    private final Counter dropped = new SimpleMeterRegistry().counter("access.log.dropped");
+    private final BlockingAppender appender = new BlockingAppender();
+    private Level level;
+    private AccessLog accessLog;
+
+    @BeforeEach
+    void attachAppender() {
+        level = logger.getLevel();
+        logger.setLevel(Level.INFO);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void detachAppender() {
+        appender.release.countDown();
+        if (accessLog != null) {
+            accessLog.close();
+        }
+        logger.detachAppender(appender);
+        logger.setLevel(level);
+    }
+
+    @Test
+    void record_shouldWriteLinesInOrder() {
+        appender.release.countDown();
+        accessLog = new AccessLog(8, TimeUnit.MILLISECONDS.toNanos(1), dropped);
+        accessLog.record(1000L, 42_000L, 1L, "GET", "/items/1", null, 200);
+        accessLog.record(1001L, 7_000L, -1L, "GET", "/items/search", "text=drill", 400);
+        await(() -> appender.lines.size() == 2);
+        assertEquals(List.of("1000 1 GET /items/1 200 42us", "1001 -1 GET /items/search?text=drill 400 7us"),
+                appender.lines);
+        assertEquals(0, dropped.count());
+    }
+
+    @Test
+    @SneakyThrows
+    void record_whenRingFull_shouldDropAndCount_andReuseSlotsOnceDrained() {
+        accessLog = new AccessLog(4, TimeUnit.MILLISECONDS.toNanos(1), dropped);
+        record(0);
+        assertTrue(appender.entered.await(1, TimeUnit.SECONDS));
+        // the writer holds the first slot until the appender returns, so three more fit
+        IntStream.range(1, 6).forEach(this::record);
+        assertEquals(2, dropped.count());
+
+        appender.release.countDown();
+        await(() -> appender.lines.size() == 4);
+        // a full ring more, written into the slots of the first lap
+        IntStream.range(6, 10).forEach(this::record);
+        await(() -> appender.lines.size() == 8);
+        assertEquals(List.of(0, 1, 2, 3, 6, 7, 8, 9), appender.lines.stream()
+                .map(line -> Integer.parseInt(line.split(" ")[1]))
+                .collect(Collectors.toList()));
+        assertEquals(2, dropped.count());
+    }
+
+    private void record(int userId) {
+        accessLog.record(1000L, 1000L, userId, "GET", "/users", null, 200);
+    }
+
+    @SneakyThrows
+    private static void await(BooleanSupplier condition) {
+        long until = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < until, "Condition not met in time");
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+
+    private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final List<String> lines = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        @SneakyThrows
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            lines.add(event.getFormattedMessage());
+        }
+
+    }
+
+}
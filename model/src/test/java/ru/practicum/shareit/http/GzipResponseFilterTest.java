@@ -0,0 +1,183 @@
+package ru.practicum.shareit.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GzipResponseFilterTest {
+
+    private static final String LARGE_JSON = "[" + "{\"id\":1,\"name\":\"Power drill\"},".repeat(100) + "{}]";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GzipResponseFilter filter = new GzipResponseFilter(new CompressionProperties(), meterRegistry);
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void doFilter_whenLargeJsonAndGzipAccepted_shouldCompress() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        filter.doFilter(request, response, answer(HttpStatus.OK, MediaType.APPLICATION_JSON_VALUE, LARGE_JSON));
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+        assertTrue(response.getContentAsByteArray().length < LARGE_JSON.length());
+        assertEquals(LARGE_JSON, gunzip(response.getContentAsByteArray()));
+        assertEquals(LARGE_JSON.length(), meterRegistry.get("http.compression.size").tag("stage", "original")
+                .summary().totalAmount());
+        assertEquals(response.getContentAsByteArray().length, meterRegistry.get("http.compression.size")
+                .tag("stage", "compressed").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("http.compression.time").timer().count());
+    }
+
+    @Test
+    void doFilter_whenBodyBelowMinSize_shouldSendItAsIs_andVary() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        filter.doFilter(request, response, answer(HttpStatus.OK, MediaType.APPLICATION_JSON_VALUE, "{\"id\":1}"));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertEquals("{\"id\":1}", response.getContentAsString());
+        assertEquals(0, meterRegistry.get("http.compression.time").timer().count());
+    }
+
+    @Test
+    void doFilter_whenTypeNotCompressible_shouldSendItAsIs() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        filter.doFilter(request, response, answer(HttpStatus.OK, MediaType.IMAGE_PNG_VALUE, LARGE_JSON));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(response.getHeader(HttpHeaders.VARY));
+        assertEquals(LARGE_JSON, response.getContentAsString());
+    }
+
+    @Test
+    void doFilter_whenTypeHasParameters_shouldCompress() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        filter.doFilter(request, response, answer(HttpStatus.OK, "text/plain;charset=UTF-8", LARGE_JSON));
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void doFilter_whenGzipNotAccepted_shouldNotTouchResponse() throws Exception {
+        filter.doFilter(request, response, answer(HttpStatus.OK, MediaType.APPLICATION_JSON_VALUE, LARGE_JSON));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(response.getHeader(HttpHeaders.VARY));
+        assertEquals(LARGE_JSON, response.getContentAsString());
+    }
+
+    @Test
+    void doFilter_whenGzipRefusedWithZeroQuality_shouldNotCompress() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.0");
+        filter.doFilter(request, response, answer(HttpStatus.OK, MediaType.APPLICATION_JSON_VALUE, LARGE_JSON));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(LARGE_JSON, response.getContentAsString());
+    }
+
+    @Test
+    void doFilter_whenGzipAcceptedWithQualityInAnyCase_shouldCompress() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "br");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "GZIP;q=0.5");
+        filter.doFilter(request, response, answer(HttpStatus.OK, MediaType.APPLICATION_JSON_VALUE, LARGE_JSON));
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void doFilter_whenStrongETag_shouldWeakenIt() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> {
+            ((HttpServletResponse) servletResponse).setHeader(HttpHeaders.ETAG, "\"0a1b\"");
+            answer(HttpStatus.OK, MediaType.APPLICATION_JSON_VALUE, LARGE_JSON)
+                    .doFilter(servletRequest, servletResponse);
+        });
+        assertEquals("W/\"0a1b\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void doFilter_whenWeakETag_shouldKeepIt() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> {
+            ((HttpServletResponse) servletResponse).setHeader(HttpHeaders.ETAG, "W/\"0a1b\"");
+            answer(HttpStatus.OK, MediaType.APPLICATION_JSON_VALUE, LARGE_JSON)
+                    .doFilter(servletRequest, servletResponse);
+        });
+        assertEquals("W/\"0a1b\"", response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void doFilter_whenNotModified_shouldNotCompress() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        filter.doFilter(request, response, answer(HttpStatus.NOT_MODIFIED, MediaType.APPLICATION_JSON_VALUE,
+                LARGE_JSON));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    void doFilter_whenAlreadyEncoded_shouldNotCompressAgain() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> {
+            ((HttpServletResponse) servletResponse).setHeader(HttpHeaders.CONTENT_ENCODING, "br");
+            answer(HttpStatus.OK, MediaType.APPLICATION_JSON_VALUE, LARGE_JSON)
+                    .doFilter(servletRequest, servletResponse);
+        });
+        assertEquals("br", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(LARGE_JSON, response.getContentAsString());
+    }
+
+    @Test
+    void doFilter_whenAsync_shouldCompressOnAsyncDispatch() throws Exception {
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        request.setAsyncSupported(true);
+        AtomicReference<ServletResponse> wrapped = new AtomicReference<>();
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> {
+            StandardServletAsyncWebRequest asyncWebRequest = new StandardServletAsyncWebRequest(
+                    (HttpServletRequest) servletRequest, (HttpServletResponse) servletResponse);
+            WebAsyncUtils.getAsyncManager(servletRequest).setAsyncWebRequest(asyncWebRequest);
+            asyncWebRequest.startAsync();
+            wrapped.set(servletResponse);
+        });
+        assertEquals(0, response.getContentAsByteArray().length);
+
+        request.setAsyncStarted(false);
+        request.setDispatcherType(DispatcherType.ASYNC);
+        filter.doFilter(request, wrapped.get(),
+                answer(HttpStatus.OK, MediaType.APPLICATION_JSON_VALUE, LARGE_JSON));
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(LARGE_JSON, gunzip(response.getContentAsByteArray()));
+    }
+
+    private static FilterChain answer(HttpStatus status, String contentType, String body) {
+        return (servletRequest, servletResponse) -> {
+            HttpServletResponse httpResponse = (HttpServletResponse) servletResponse;
+            httpResponse.setStatus(status.value());
+            httpResponse.setContentType(contentType);
+            httpResponse.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+}
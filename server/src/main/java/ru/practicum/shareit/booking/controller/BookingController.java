@@ -2,16 +2,19 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.IncomingBookingDto;
 import ru.practicum.shareit.booking.dto.OutgoingBookingDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.util.Collection;
+import java.util.List;
 
 import static ru.practicum.shareit.http.HttpHeader.header;
 
@@ -21,38 +24,52 @@ import static ru.practicum.shareit.http.HttpHeader.header;
 @RequiredArgsConstructor
 public class BookingController {
 
-    private final Sort sortByStartDesc = Sort.by(Sort.Direction.DESC, "start");
+    private final Sort sortByStartDesc = Sort.by(Sort.Direction.DESC, "start", "id");
     private final BookingService bookingService;
 
     @GetMapping
     public Collection<OutgoingBookingDto> getAllUserBookings(
             HttpServletRequest request,
-            @RequestParam(value = "from") Integer firstElement,
+            HttpServletResponse response,
+            @RequestParam(value = "from", defaultValue = "0") Integer firstElement,
             @RequestParam(value = "size") Integer size,
+            @RequestParam(value = "after", required = false) String after,
             @RequestHeader(header) Long userId,
             @RequestParam(name = "state", defaultValue = "ALL") String bookingStateString) {
-        log.info("Id-{} {} {}?{}", userId, request.getMethod(), request.getRequestURI(), request.getQueryString());
-        return bookingService.getAllUserBookings(userId, BookingState.valueOf(bookingStateString),
-                PageRequest.of(firstElement / size, size, sortByStartDesc));
+        log.debug("Id-{} {} {}?{}", userId, request.getMethod(), request.getRequestURI(), request.getQueryString());
+        BookingState bookingState = BookingState.valueOf(bookingStateString);
+        List<OutgoingBookingDto> bookings = after == null
+                ? bookingService.getAllUserBookings(userId, bookingState,
+                OffsetPageRequest.of(firstElement, size, sortByStartDesc))
+                : bookingService.getAllUserBookings(userId, bookingState, Cursor.decode(after, true), size);
+        Cursor.setNext(response, bookings, size, booking -> Cursor.after(booking.getStart(), booking.getId()));
+        return bookings;
     }
 
     @GetMapping("/owner")
     public Collection<OutgoingBookingDto> getAllOwnerItemBookings(
             HttpServletRequest request,
-            @RequestParam(value = "from") Integer firstElement,
+            HttpServletResponse response,
+            @RequestParam(value = "from", defaultValue = "0") Integer firstElement,
             @RequestParam(value = "size") Integer size,
+            @RequestParam(value = "after", required = false) String after,
             @RequestHeader(header) Long ownerId,
             @RequestParam(name = "state", defaultValue = "ALL") String bookingStateString) {
-        log.info("Id-{} {} {}?{}", ownerId, request.getMethod(), request.getRequestURI(), request.getQueryString());
-        return bookingService.getAllOwnerItemBookings(ownerId, BookingState.valueOf(bookingStateString),
-                PageRequest.of(firstElement / size, size, sortByStartDesc));
+        log.debug("Id-{} {} {}?{}", ownerId, request.getMethod(), request.getRequestURI(), request.getQueryString());
+        BookingState bookingState = BookingState.valueOf(bookingStateString);
+        List<OutgoingBookingDto> bookings = after == null
+                ? bookingService.getAllOwnerItemBookings(ownerId, bookingState,
+                OffsetPageRequest.of(firstElement, size, sortByStartDesc))
+                : bookingService.getAllOwnerItemBookings(ownerId, bookingState, Cursor.decode(after, true), size);
+        Cursor.setNext(response, bookings, size, booking -> Cursor.after(booking.getStart(), booking.getId()));
+        return bookings;
     }
 
     @GetMapping("/{bookingId}")
     public OutgoingBookingDto getBookingById(HttpServletRequest request,
                                              @RequestHeader(header) Long userId,
                                              @PathVariable Long bookingId) {
-        log.info("Id-{} {} {}", userId, request.getMethod(), request.getRequestURI());
+        log.debug("Id-{} {} {}", userId, request.getMethod(), request.getRequestURI());
         return bookingService.getBookingById(userId, bookingId);
     }
 
@@ -61,7 +78,7 @@ public class BookingController {
             HttpServletRequest request,
             @RequestHeader(header) Long bookerId,
             @RequestBody IncomingBookingDto incomingBookingDto) {
-        log.info("Id-{} {} {} {}", bookerId, request.getMethod(), request.getRequestURI(), incomingBookingDto);
+        log.debug("Id-{} {} {} {}", bookerId, request.getMethod(), request.getRequestURI(), incomingBookingDto);
         return bookingService.postBooking(bookerId, incomingBookingDto);
     }
 
@@ -70,7 +87,7 @@ public class BookingController {
                                            @RequestHeader(header) Long itemOwnerId,
                                            @PathVariable Long bookingId,
                                            @RequestParam Boolean approved) {
-        log.info("Id-{} {} {}", itemOwnerId, request.getMethod(), request.getRequestURI());
+        log.debug("Id-{} {} {}", itemOwnerId, request.getMethod(), request.getRequestURI());
         return bookingService.patchBookingById(itemOwnerId, bookingId, approved);
     }
 
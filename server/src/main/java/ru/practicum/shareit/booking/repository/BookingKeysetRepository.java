@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.pagination.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingKeysetRepository {
+
+    List<Booking> findBookerBookingsAfter(Long bookerId,
+                                          BookingState state,
+                                          LocalDateTime now,
+                                          Cursor after,
+                                          int size);
+
+    List<Booking> findOwnerBookingsAfter(Long ownerId,
+                                         BookingState state,
+                                         LocalDateTime now,
+                                         Cursor after,
+                                         int size);
+
+}
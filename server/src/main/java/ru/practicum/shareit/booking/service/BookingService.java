@@ -4,6 +4,7 @@ import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.IncomingBookingDto;
 import ru.practicum.shareit.booking.dto.OutgoingBookingDto;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.pagination.Cursor;
 
 import java.util.List;
 
@@ -13,6 +14,10 @@ public interface BookingService {
 
     List<OutgoingBookingDto> getAllOwnerItemBookings(Long ownerId, BookingState bookingState, Pageable pageable);
 
+    List<OutgoingBookingDto> getAllUserBookings(Long userId, BookingState bookingState, Cursor after, int size);
+
+    List<OutgoingBookingDto> getAllOwnerItemBookings(Long ownerId, BookingState bookingState, Cursor after, int size);
+
     OutgoingBookingDto getBookingById(Long userId, Long bookingId);
 
     OutgoingBookingDto postBooking(Long bookerId, IncomingBookingDto incomingBookingDto);
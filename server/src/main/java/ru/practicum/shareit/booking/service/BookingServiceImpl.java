@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.IncomingBookingDto;
@@ -12,8 +13,10 @@ import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exeption.NotAvailableItemException;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -30,6 +33,7 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<OutgoingBookingDto> getAllUserBookings(Long bookerId,
@@ -81,14 +85,8 @@ public class BookingServiceImpl implements BookingService {
     public List<OutgoingBookingDto> getAllOwnerItemBookings(Long ownerId,
                                                             BookingState bookingState,
                                                             Pageable pageable) {
-        List<Item> ownerItemList = itemRepository.findByOwnerId(ownerId);
-        if (ownerItemList.isEmpty()) {
-            throw new NotFoundException("There's no items belong to user " + ownerId);
-        }
+        List<Long> ownerItemIdList = getOwnerItemIdList(ownerId);
         LocalDateTime now = LocalDateTime.now();
-        List<Long> ownerItemIdList = ownerItemList.stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
         switch (bookingState) {
             case ALL:
                 return bookingRepository.findByItemIdIn(ownerItemIdList, pageable)
@@ -129,6 +127,32 @@ public class BookingServiceImpl implements BookingService {
         return List.of();
     }
 
+    @Override
+    public List<OutgoingBookingDto> getAllUserBookings(Long bookerId,
+                                                       BookingState bookingState,
+                                                       Cursor after,
+                                                       int size) {
+        userRepository.checkUserById(bookerId);
+        return bookingRepository.findBookerBookingsAfter(bookerId, bookingState, LocalDateTime.now(), after, size)
+                .stream()
+                .map(BookingMapper::mapBookingToOutgoingDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<OutgoingBookingDto> getAllOwnerItemBookings(Long ownerId,
+                                                            BookingState bookingState,
+                                                            Cursor after,
+                                                            int size) {
+        if (!itemRepository.existsByOwnerId(ownerId)) {
+            throw new NotFoundException("There's no items belong to user " + ownerId);
+        }
+        return bookingRepository.findOwnerBookingsAfter(ownerId, bookingState, LocalDateTime.now(), after, size)
+                .stream()
+                .map(BookingMapper::mapBookingToOutgoingDto)
+                .collect(Collectors.toList());
+    }
+
     public OutgoingBookingDto getBookingById(Long userId, Long bookingId) {
         Booking booking = getBookingById(bookingId);
         if (!booking.getItem().getOwner().getId().equals(userId)
@@ -151,7 +175,9 @@ public class BookingServiceImpl implements BookingService {
         Booking booking = BookingMapper.mapIncomingDtoToBooking(incomingBookingDto);
         booking.setBooker(booker);
         booking.setItem(item);
-        return BookingMapper.mapBookingToOutgoingDto(bookingRepository.save(booking));
+        OutgoingBookingDto outgoingBookingDto = BookingMapper.mapBookingToOutgoingDto(bookingRepository.save(booking));
+        eventPublisher.publishEvent(ItemChangedEvent.bookings(item.getId()));
+        return outgoingBookingDto;
     }
 
     @Override
@@ -164,7 +190,9 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException("Booking item don't belong to user with id " + itemOwnerId);
         }
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return BookingMapper.mapBookingToOutgoingDto(bookingRepository.save(booking));
+        OutgoingBookingDto outgoingBookingDto = BookingMapper.mapBookingToOutgoingDto(bookingRepository.save(booking));
+        eventPublisher.publishEvent(ItemChangedEvent.bookings(booking.getItem().getId()));
+        return outgoingBookingDto;
     }
 
     protected Booking getBookingById(Long bookingId) {
@@ -172,4 +200,14 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new NotFoundException("There's no booking with id " + bookingId));
     }
 
+    private List<Long> getOwnerItemIdList(Long ownerId) {
+        List<Item> ownerItemList = itemRepository.findByOwnerId(ownerId);
+        if (ownerItemList.isEmpty()) {
+            throw new NotFoundException("There's no items belong to user " + ownerId);
+        }
+        return ownerItemList.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+
 }
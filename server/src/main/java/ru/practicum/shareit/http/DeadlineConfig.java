@@ -0,0 +1,36 @@
+package ru.practicum.shareit.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit.deadline.enabled", havingValue = "true")
+public class DeadlineConfig {
+
+    @Bean
+    public WebMvcConfigurer deadlineInterceptorConfigurer(MeterRegistry meterRegistry) {
+        DeadlineInterceptor interceptor = new DeadlineInterceptor(meterRegistry);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor);
+            }
+        };
+    }
+
+    @Bean
+    public JpaTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        JpaTransactionManager transactionManager = new DeadlineTransactionManager();
+        customizers.ifAvailable(transactionManagerCustomizers -> transactionManagerCustomizers
+                .customize(transactionManager));
+        return transactionManager;
+    }
+
+}
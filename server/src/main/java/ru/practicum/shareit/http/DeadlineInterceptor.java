@@ -0,0 +1,57 @@
+package ru.practicum.shareit.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.practicum.shareit.exeption.DeadlineExceededException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import static ru.practicum.shareit.http.HttpHeader.deadline;
+
+/**
+ * Honours the deadline header of the gateway: requests arriving with no time left are rejected before any
+ * work, and requests finishing after their deadline are counted as abandoned by the caller.
+ */
+public class DeadlineInterceptor implements HandlerInterceptor {
+
+    private final Counter expired;
+    private final Counter exceeded;
+
+    public DeadlineInterceptor(MeterRegistry meterRegistry) {
+        this.expired = meterRegistry.counter("server.requests.abandoned", "reason", "expired");
+        this.exceeded = meterRegistry.counter("server.requests.abandoned", "reason", "exceeded");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        String budget = request.getHeader(deadline);
+        if (budget == null) {
+            return true;
+        }
+        long budgetMillis;
+        try {
+            budgetMillis = Long.parseLong(budget);
+        } catch (NumberFormatException e) {
+            return true;
+        }
+        if (budgetMillis <= 0) {
+            expired.increment();
+            throw new DeadlineExceededException("Deadline of " + request.getMethod() + " "
+                    + request.getRequestURI() + " expired before it reached the server");
+        }
+        RequestDeadline.set(System.nanoTime() + budgetMillis * 1_000_000L);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (RequestDeadline.isPresent() && RequestDeadline.remainingMillis() < 0) {
+            exceeded.increment();
+        }
+        RequestDeadline.clear();
+    }
+
+}
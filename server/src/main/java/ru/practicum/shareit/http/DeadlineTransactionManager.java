@@ -0,0 +1,30 @@
+package ru.practicum.shareit.http;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * Caps the timeout of every transaction by the time left for the current request, which Hibernate then
+ * applies as the JDBC query timeout of each statement. The time left is rounded up to whole seconds, so a
+ * statement is never given less than the budget. Hibernate passes each statement the whole seconds left of
+ * the transaction, rounded down, and fails it as expired at zero; the extra second makes up for that, so
+ * the first statement gets the rounded-up budget rather than a second less. A 100 ms budget is a 2 s
+ * transaction whose statements time out after at most 1 s.
+ */
+public class DeadlineTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        long remainingMillis = RequestDeadline.remainingMillis();
+        if (remainingMillis == Long.MAX_VALUE) {
+            return timeout;
+        }
+        long statementSeconds = Math.max(0, (remainingMillis + 999) / 1000);
+        int transactionSeconds = (int) Math.min(Integer.MAX_VALUE, statementSeconds + 1);
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT
+                ? transactionSeconds
+                : Math.min(timeout, transactionSeconds);
+    }
+
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.http;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.regex.Pattern;
+
+@Configuration
+public class ETagConfig {
+
+    private static final Pattern RESOURCE_BY_ID = Pattern.compile("^/(items|users|requests|bookings)/\\d+$");
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> resourceETagFilter() {
+        ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                return !HttpMethod.GET.matches(request.getMethod())
+                        || !RESOURCE_BY_ID.matcher(request.getRequestURI()).matches();
+            }
+        };
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/items/*", "/users/*", "/requests/*", "/bookings/*");
+        return registration;
+    }
+
+}
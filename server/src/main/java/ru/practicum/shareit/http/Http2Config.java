@@ -0,0 +1,34 @@
+package ru.practicum.shareit.http;
+
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sizes the cleartext HTTP/2 (h2c) upgrade protocol added by {@code server.http2.enabled} so that one
+ * multiplexed gateway connection can keep as many requests executing as several HTTP/1.1 connections.
+ */
+@Configuration
+@ConditionalOnProperty(name = "server.http2.enabled", havingValue = "true")
+public class Http2Config {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> http2StreamsCustomizer(
+            @Value("${shareit.http2.max-concurrent-streams:200}") int maxConcurrentStreams,
+            @Value("${shareit.http2.max-concurrent-stream-execution:200}") int maxConcurrentStreamExecution) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol) {
+                    ((Http2Protocol) protocol).setMaxConcurrentStreams(maxConcurrentStreams);
+                    ((Http2Protocol) protocol).setMaxConcurrentStreamExecution(maxConcurrentStreamExecution);
+                }
+            }
+        });
+    }
+
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.http;
+
+/**
+ * Deadline of the request served by the current thread, if the caller sent one.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private RequestDeadline() {
+    }
+
+    static void set(long deadlineNanos) {
+        DEADLINE.set(deadlineNanos);
+    }
+
+    static void clear() {
+        DEADLINE.remove();
+    }
+
+    public static boolean isPresent() {
+        return DEADLINE.get() != null;
+    }
+
+    /**
+     * Time left in milliseconds, {@link Long#MAX_VALUE} when the request has no deadline.
+     */
+    public static long remainingMillis() {
+        Long deadlineNanos = DEADLINE.get();
+        if (deadlineNanos == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.floorDiv(deadlineNanos - System.nanoTime(), 1_000_000L);
+    }
+
+}
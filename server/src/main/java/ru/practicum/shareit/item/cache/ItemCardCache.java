@@ -0,0 +1,195 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.LastNextBookingDto;
+import ru.practicum.shareit.comment.dto.OutgoingCommentDto;
+import ru.practicum.shareit.item.dto.OutgoingItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.repository.ItemDetail;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Assembled item cards, enabled by {@code shareit.item-card-cache.enabled}. The card everyone sees (item
+ * fields and comments) and the owner-only last/next bookings are cached separately, so a booking change
+ * keeps the card. Bookings expire when the next one starts, as it may then become the last one.
+ * Entries are dropped once the transaction publishing an {@link ItemChangedEvent} commits, and a card loaded
+ * while any entry was dropped is not stored. Only writes made through this instance are seen.
+ */
+@Component
+@EnableConfigurationProperties(ItemCardCacheProperties.class)
+public class ItemCardCache {
+
+    private final boolean enabled;
+    private final Cache<Long, ItemCard> cards;
+    private final Cache<Long, OwnerBookings> bookings;
+    private final AtomicLong generation = new AtomicLong();
+    private final Timer age;
+
+    public ItemCardCache(ItemCardCacheProperties properties, MeterRegistry meterRegistry) {
+        long timeToLive = properties.getTimeToLive().toNanos();
+        this.enabled = properties.isEnabled();
+        this.cards = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTimeToLive())
+                .recordStats()
+                .build();
+        this.bookings = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfter(new Expiry<Long, OwnerBookings>() {
+                    @Override
+                    public long expireAfterCreate(Long itemId, OwnerBookings ownerBookings, long currentTime) {
+                        return Math.min(timeToLive, ownerBookings.nanosUntilNextStarts());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long itemId, OwnerBookings ownerBookings, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(itemId, ownerBookings, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long itemId, OwnerBookings ownerBookings, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cards, "item-cards");
+        CaffeineCacheMetrics.monitor(meterRegistry, bookings, "item-card-bookings");
+        Gauge.builder("server.item.card.cache.hit.ratio", cards, itemCards -> itemCards.stats().hitRate())
+                .register(meterRegistry);
+        this.age = Timer.builder("server.item.card.cache.age")
+                .description("Time since the served card was read from the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The card as the user sees it, with bookings when the user owns the item.
+     */
+    public Optional<OutgoingItemDto> get(Long userId, Long itemId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        ItemCard card = cards.getIfPresent(itemId);
+        if (card == null) {
+            return Optional.empty();
+        }
+        OwnerBookings ownerBookings = null;
+        if (card.ownerId.equals(userId)) {
+            ownerBookings = bookings.getIfPresent(itemId);
+            if (ownerBookings == null) {
+                return Optional.empty();
+            }
+        }
+        age.record(System.nanoTime() - card.loadedAt, TimeUnit.NANOSECONDS);
+        return Optional.of(card.toDto(ownerBookings));
+    }
+
+    /**
+     * To be read before loading a card and passed to {@link #put}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(long observed, Long userId, ItemDetail itemDetail, List<OutgoingCommentDto> comments) {
+        if (!enabled || generation.get() != observed) {
+            return;
+        }
+        cards.put(itemDetail.getId(), new ItemCard(itemDetail, comments));
+        if (itemDetail.getOwnerId().equals(userId)) {
+            bookings.put(itemDetail.getId(), new OwnerBookings(itemDetail));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.getItemId() == null) {
+            cards.invalidateAll();
+            bookings.invalidateAll();
+            return;
+        }
+        if (!event.isBookingsOnly()) {
+            cards.invalidate(event.getItemId());
+        }
+        bookings.invalidate(event.getItemId());
+    }
+
+    private static final class ItemCard {
+
+        private final Long id;
+        private final String name;
+        private final String description;
+        private final Boolean available;
+        private final Long requestId;
+        private final Long ownerId;
+        private final List<OutgoingCommentDto> comments;
+        private final long loadedAt = System.nanoTime();
+
+        private ItemCard(ItemDetail itemDetail, List<OutgoingCommentDto> comments) {
+            this.id = itemDetail.getId();
+            this.name = itemDetail.getName();
+            this.description = itemDetail.getDescription();
+            this.available = itemDetail.getAvailable();
+            this.requestId = itemDetail.getRequestId();
+            this.ownerId = itemDetail.getOwnerId();
+            this.comments = List.copyOf(comments);
+        }
+
+        private OutgoingItemDto toDto(OwnerBookings ownerBookings) {
+            return new OutgoingItemDto(
+                    id,
+                    name,
+                    description,
+                    available,
+                    ownerBookings == null ? null : ownerBookings.lastBooking,
+                    ownerBookings == null ? null : ownerBookings.nextBooking,
+                    new ArrayList<>(comments),
+                    requestId);
+        }
+
+    }
+
+    private static final class OwnerBookings {
+
+        private final LastNextBookingDto lastBooking;
+        private final LastNextBookingDto nextBooking;
+        private final LocalDateTime nextStart;
+
+        private OwnerBookings(ItemDetail itemDetail) {
+            this.lastBooking = itemDetail.getLastBookingId() == null ? null
+                    : new LastNextBookingDto(itemDetail.getLastBookingId(), itemDetail.getLastBookerId());
+            this.nextBooking = itemDetail.getNextBookingId() == null ? null
+                    : new LastNextBookingDto(itemDetail.getNextBookingId(), itemDetail.getNextBookerId());
+            this.nextStart = itemDetail.getNextBookingStart();
+        }
+
+        private long nanosUntilNextStarts() {
+            if (nextStart == null) {
+                return Long.MAX_VALUE;
+            }
+            long seconds = Duration.between(LocalDateTime.now(), nextStart).getSeconds();
+            return Math.max(0, TimeUnit.SECONDS.toNanos(seconds));
+        }
+
+    }
+
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.item-card-cache")
+public class ItemCardCacheProperties {
+
+    private boolean enabled;
+
+    private long maxSize = 10000;
+
+    private Duration timeToLive = Duration.ofMinutes(10);
+
+}
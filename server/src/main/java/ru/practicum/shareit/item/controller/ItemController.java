@@ -2,7 +2,6 @@ package ru.practicum.shareit.item.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comment.dto.IncomingCommentDto;
@@ -10,9 +9,13 @@ import ru.practicum.shareit.comment.dto.OutgoingCommentDto;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
 import ru.practicum.shareit.item.dto.OutgoingItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.util.Collection;
+import java.util.List;
 
 import static ru.practicum.shareit.http.HttpHeader.header;
 
@@ -28,11 +31,17 @@ public class ItemController {
     @GetMapping
     public Collection<OutgoingItemDto> getAllOwnerItems(
             HttpServletRequest request,
-            @RequestParam(value = "from") Integer firstElement,
+            HttpServletResponse response,
+            @RequestParam(value = "from", defaultValue = "0") Integer firstElement,
             @RequestParam(value = "size") Integer size,
+            @RequestParam(value = "after", required = false) String after,
             @RequestHeader(header) Long ownerId) {
-        log.info("Id-{} {} {}?{}", ownerId, request.getMethod(), request.getRequestURI(), request.getQueryString());
-        return itemService.getAllOwnerItems(ownerId, PageRequest.of(firstElement / size, size, sortByStartDesc));
+        log.debug("Id-{} {} {}?{}", ownerId, request.getMethod(), request.getRequestURI(), request.getQueryString());
+        List<OutgoingItemDto> items = after == null
+                ? itemService.getAllOwnerItems(ownerId, OffsetPageRequest.of(firstElement, size, sortByStartDesc))
+                : itemService.getAllOwnerItems(ownerId, Cursor.decode(after, false), size);
+        Cursor.setNext(response, items, size, item -> Cursor.after(item.getId()));
+        return items;
     }
 
     @GetMapping("/{itemId}")
@@ -40,7 +49,7 @@ public class ItemController {
             HttpServletRequest request,
             @RequestHeader(header) Long ownerId,
             @PathVariable Long itemId) {
-        log.info("Id-{} {} {}", ownerId, request.getMethod(), request.getRequestURI());
+        log.debug("Id-{} {} {}", ownerId, request.getMethod(), request.getRequestURI());
         return itemService.getItemDtoById(ownerId, itemId);
     }
 
@@ -51,8 +60,8 @@ public class ItemController {
             @RequestParam(value = "size") Integer size,
             @RequestHeader(header) Long userId,
             @RequestParam(value = "text") String text) {
-        log.info("Id-{} {} {}?{}", userId, request.getMethod(), request.getRequestURI(), request.getQueryString());
-        return itemService.getItemsBySearch(userId, text, PageRequest.of(firstElement / size, size));
+        log.debug("Id-{} {} {}?{}", userId, request.getMethod(), request.getRequestURI(), request.getQueryString());
+        return itemService.getItemsBySearch(userId, text, OffsetPageRequest.of(firstElement, size));
     }
 
     @PostMapping
@@ -60,7 +69,7 @@ public class ItemController {
             HttpServletRequest request,
             @RequestHeader(header) Long ownerId,
             @RequestBody IncomingItemDto incomingItemDto) {
-        log.info("Id-{} {} {} {}", ownerId, request.getMethod(), request.getRequestURI(), incomingItemDto);
+        log.debug("Id-{} {} {} {}", ownerId, request.getMethod(), request.getRequestURI(), incomingItemDto);
         return itemService.postItem(ownerId, incomingItemDto);
     }
 
@@ -70,7 +79,7 @@ public class ItemController {
             @RequestHeader(header) Long authorId,
             @PathVariable Long itemId,
             @RequestBody IncomingCommentDto incomingCommentDto) {
-        log.info("Id-{} {} {} {}", authorId, request.getMethod(), request.getRequestURI(), incomingCommentDto);
+        log.debug("Id-{} {} {} {}", authorId, request.getMethod(), request.getRequestURI(), incomingCommentDto);
         return itemService.postComment(authorId, itemId, incomingCommentDto);
     }
 
@@ -80,7 +89,7 @@ public class ItemController {
             @RequestHeader(header) Long ownerId,
             @PathVariable Long itemId,
             @RequestBody IncomingItemDto incomingItemDto) {
-        log.info("Id-{} {} {} {}", ownerId, request.getMethod(), request.getRequestURI(), incomingItemDto);
+        log.debug("Id-{} {} {} {}", ownerId, request.getMethod(), request.getRequestURI(), incomingItemDto);
         return itemService.patchItemById(ownerId, itemId, incomingItemDto);
     }
 
@@ -89,7 +98,7 @@ public class ItemController {
             HttpServletRequest request,
             @RequestHeader(header) Long ownerId,
             @PathVariable Long itemId) {
-        log.info("Id-{} {} {}", ownerId, request.getMethod(), request.getRequestURI());
+        log.debug("Id-{} {} {}", ownerId, request.getMethod(), request.getRequestURI());
         return itemService.deleteItemById(ownerId, itemId);
     }
 
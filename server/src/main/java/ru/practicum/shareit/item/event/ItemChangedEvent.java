@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.lang.Nullable;
+
+/**
+ * Published by the services when what an item's card shows changes: the item itself and its comments, or
+ * only its bookings. A null item id stands for every item, e.g. after a user, whose items, bookings and
+ * comments go with them, is deleted.
+ */
+@Getter
+@ToString
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ItemChangedEvent {
+
+    @Nullable
+    private final Long itemId;
+
+    private final boolean bookingsOnly;
+
+    public static ItemChangedEvent item(Long itemId) {
+        return new ItemChangedEvent(itemId, false);
+    }
+
+    public static ItemChangedEvent bookings(Long itemId) {
+        return new ItemChangedEvent(itemId, true);
+    }
+
+    public static ItemChangedEvent allItems() {
+        return new ItemChangedEvent(null, false);
+    }
+
+}
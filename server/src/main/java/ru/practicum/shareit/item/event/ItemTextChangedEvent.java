@@ -0,0 +1,52 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Published by the services when what item search sees changes: an item is saved with its current text and
+ * availability, an item is deleted, or every item of a deleted owner is gone. Fields the change does not
+ * need are null.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ItemTextChangedEvent {
+
+    public enum Change {
+        SAVED,
+        DELETED,
+        OWNER_DELETED
+    }
+
+    private final Change change;
+
+    private final Long itemId;
+
+    private final Long ownerId;
+
+    private final String name;
+
+    private final String description;
+
+    private final boolean available;
+
+    public static ItemTextChangedEvent saved(Item item) {
+        return new ItemTextChangedEvent(Change.SAVED, item.getId(), item.getOwner().getId(), item.getName(),
+                item.getDescription(), Boolean.TRUE.equals(item.getAvailable()));
+    }
+
+    public static ItemTextChangedEvent deleted(Long itemId) {
+        return new ItemTextChangedEvent(Change.DELETED, itemId, null, null, null, false);
+    }
+
+    public static ItemTextChangedEvent ownerDeleted(Long ownerId) {
+        return new ItemTextChangedEvent(Change.OWNER_DELETED, null, ownerId, null, null, false);
+    }
+
+}
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.item.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemTextChangedEvent;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemText;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-process substring search over items, enabled by {@code shareit.item-search.trigram-index.enabled}.
+ * The index is rebuilt from the database after startup and then kept up to date from the
+ * {@link ItemTextChangedEvent}s the services publish, each applied once its transaction commits. Changes
+ * committed while a rebuild reads the table are replayed onto the new index. Only writes made through this
+ * instance are seen, so it suits single-instance servers.
+ * While the index is not built, and after an item id beyond its int range until the next rebuild, searches go
+ * to {@link ItemRepository#searchAvailableBySubstring}, which answers the same items in the same order.
+ */
+@Slf4j
+@Component
+public class ItemTrigramIndex {
+
+    private static final int REBUILD_BATCH = 1000;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Predicate<TrigramIndex>> changedDuringRebuild = new ArrayList<>();
+    private TrigramIndex index;
+    private boolean rebuilding;
+
+    public ItemTrigramIndex(ItemRepository itemRepository,
+                            @Value("${shareit.item-search.trigram-index.enabled:false}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return index != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the available items containing the text, in id order.
+     *
+     * @return null while the index is not ready
+     */
+    @Nullable
+    public List<Long> search(String text, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            return index != null ? index.search(text, pageable.getOffset(), pageable.getPageSize()) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemTextChanged(ItemTextChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        switch (event.getChange()) {
+            case SAVED:
+                apply(index -> index.put(event.getItemId(), event.getOwnerId(), event.getName(),
+                        event.getDescription(), event.isAvailable()));
+                break;
+            case DELETED:
+                apply(index -> {
+                    index.remove(event.getItemId());
+                    return true;
+                });
+                break;
+            case OWNER_DELETED:
+                apply(index -> {
+                    index.removeOwner(event.getOwnerId());
+                    return true;
+                });
+                break;
+            default:
+                break;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (enabled) {
+            Thread rebuildThread = new Thread(this::rebuild, "item-index-rebuild");
+            rebuildThread.setDaemon(true);
+            rebuildThread.start();
+        }
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            changedDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        TrigramIndex rebuilt = new TrigramIndex();
+        try {
+            long afterId = 0;
+            List<ItemText> batch;
+            do {
+                batch = itemRepository.findTextsAfter(afterId, PageRequest.of(0, REBUILD_BATCH));
+                for (ItemText item : batch) {
+                    if (!rebuilt.put(item.getId(), item.getOwnerId(), item.getName(), item.getDescription(),
+                            Boolean.TRUE.equals(item.getAvailable()))) {
+                        throw new IllegalStateException("item id " + item.getId() + " is out of the index range");
+                    }
+                    afterId = item.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH);
+        } catch (RuntimeException e) {
+            rebuilt = null;
+            log.warn("Item index rebuild failed, searching the database instead : {}", e.getMessage());
+        }
+        lock.writeLock().lock();
+        try {
+            if (rebuilt != null) {
+                for (Predicate<TrigramIndex> change : changedDuringRebuild) {
+                    if (!change.test(rebuilt)) {
+                        rebuilt = null;
+                        log.warn("Item index rebuild dropped, an item id is out of the index range");
+                        break;
+                    }
+                }
+            }
+            if (rebuilt != null) {
+                index = rebuilt;
+                log.info("Item index rebuilt with {} items", rebuilt.size());
+            }
+            changedDuringRebuild.clear();
+            rebuilding = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Predicate<TrigramIndex> change) {
+        lock.writeLock().lock();
+        try {
+            if (index != null && !change.test(index)) {
+                index = null;
+                log.warn("Item index disabled until the next rebuild, searching the database instead : "
+                        + "an item id is out of the index range");
+            }
+            if (rebuilding) {
+                changedDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+}
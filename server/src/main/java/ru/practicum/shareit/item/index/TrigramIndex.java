@@ -0,0 +1,153 @@
+package ru.practicum.shareit.item.index;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trigram inverted index over lower-cased item names and descriptions with a bitmap of available items.
+ * A search intersects the posting lists of the query trigrams and checks every candidate for the substring,
+ * so the results are those of {@code ItemRepository#searchAvailableBySubstring}: the available items whose
+ * lower-cased name or description contains the lower-cased text, in id order.
+ * Not thread-safe.
+ */
+final class TrigramIndex {
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<Long, LongPostingList> postings = new HashMap<>();
+    private final BitSet available = new BitSet();
+
+    /**
+     * @return false if the id does not fit the availability bitmap and the item was not indexed
+     */
+    boolean put(long id, long ownerId, String name, String description, boolean isAvailable) {
+        if (!fits(id)) {
+            return false;
+        }
+        remove(id);
+        Document document = new Document(ownerId, lowerCase(name), lowerCase(description));
+        documents.put(id, document);
+        for (long trigram : document.trigrams()) {
+            postings.computeIfAbsent(trigram, key -> new LongPostingList()).add(id);
+        }
+        available.set((int) id, isAvailable);
+        return true;
+    }
+
+    void remove(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (long trigram : document.trigrams()) {
+            LongPostingList posting = postings.get(trigram);
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+        available.clear((int) id);
+    }
+
+    void removeOwner(long ownerId) {
+        List<Long> owned = new ArrayList<>();
+        documents.forEach((id, document) -> {
+            if (document.ownerId == ownerId) {
+                owned.add(id);
+            }
+        });
+        owned.forEach(this::remove);
+    }
+
+    int size() {
+        return documents.size();
+    }
+
+    /**
+     * Ids of available items containing the text in the name or the description, in id order.
+     */
+    List<Long> search(String text, long offset, int limit) {
+        String query = lowerCase(text);
+        List<Long> found = new ArrayList<>(limit);
+        long skipped = 0;
+        if (query.length() < 3) {
+            for (int id = available.nextSetBit(0); id >= 0 && found.size() < limit; id = available.nextSetBit(id + 1)) {
+                if (documents.get((long) id).contains(query) && skipped++ >= offset) {
+                    found.add((long) id);
+                }
+            }
+            return found;
+        }
+        List<LongPostingList> lists = new ArrayList<>();
+        for (long trigram : trigramsOf(query, new HashSet<>())) {
+            LongPostingList posting = postings.get(trigram);
+            if (posting == null) {
+                return found;
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(LongPostingList::size));
+        LongPostingList candidates = lists.get(0);
+        for (int i = 0; i < candidates.size() && found.size() < limit; i++) {
+            long id = candidates.get(i);
+            if (available.get((int) id) && inAll(lists, id) && documents.get(id).contains(query)
+                    && skipped++ >= offset) {
+                found.add(id);
+            }
+        }
+        return found;
+    }
+
+    private static boolean fits(long id) {
+        return id >= 0 && id <= Integer.MAX_VALUE;
+    }
+
+    private static boolean inAll(List<LongPostingList> lists, long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String lowerCase(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<Long> trigramsOf(String text, Set<Long> trigrams) {
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    private static final class Document {
+
+        private final long ownerId;
+        private final String name;
+        private final String description;
+
+        private Document(long ownerId, String name, String description) {
+            this.ownerId = ownerId;
+            this.name = name;
+            this.description = description;
+        }
+
+        private boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        private Set<Long> trigrams() {
+            return trigramsOf(description, trigramsOf(name, new HashSet<>()));
+        }
+
+    }
+
+}
@@ -1,6 +1,9 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.comment.dto.OutgoingCommentDto;
 import ru.practicum.shareit.comment.model.Comment;
 
 import java.util.Collection;
@@ -8,8 +11,24 @@ import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findByItemId(Long itemId);
+    @Query("SELECT c.item.id AS itemId, c.id AS id, c.text AS text, c.authorName AS authorName, " +
+            "c.created AS created " +
+            "FROM Comment AS c " +
+            "WHERE c.item.id IN :itemIdList " +
+            "ORDER BY c.id")
+    List<ItemComment> findItemCommentsByItemIdIn(Collection<Long> itemIdList);
 
-    List<Comment> findByItemIdIn(Collection<Long> itemIdList);
+    @Query("SELECT new ru.practicum.shareit.comment.dto.OutgoingCommentDto(c.id, c.text, c.authorName, c.created) " +
+            "FROM Comment AS c " +
+            "WHERE c.item.id = :itemId " +
+            "ORDER BY c.id")
+    List<OutgoingCommentDto> findOutgoingDtosByItemId(Long itemId);
+
+    @Query("SELECT DISTINCT c.item.id FROM Comment AS c WHERE c.author.id = :authorId")
+    List<Long> findCommentedItemIds(Long authorId);
+
+    @Modifying
+    @Query("UPDATE Comment AS c SET c.authorName = :authorName WHERE c.author.id = :authorId")
+    int updateAuthorName(Long authorId, String authorName);
 
 }
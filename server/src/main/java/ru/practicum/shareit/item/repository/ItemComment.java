@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.repository;
+
+import java.time.LocalDateTime;
+
+public interface ItemComment {
+
+    Long getItemId();
+
+    Long getId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+
+}
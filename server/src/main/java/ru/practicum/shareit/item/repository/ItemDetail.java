@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class ItemDetail {
+
+    private Long id;
+
+    private String name;
+
+    private String description;
+
+    private Boolean available;
+
+    private Long requestId;
+
+    private Long ownerId;
+
+    private boolean userExists;
+
+    private Long lastBookingId;
+
+    private Long lastBookerId;
+
+    private Long nextBookingId;
+
+    private Long nextBookerId;
+
+    private LocalDateTime nextBookingStart;
+
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface ItemDetailRepository {
+
+    /**
+     * The item as seen by {@code userId}: whether that user exists and, when the user owns the item, its last
+     * (started before {@code now}, latest end) and next (starting after {@code now}, earliest start) APPROVED
+     * booking.
+     */
+    Optional<ItemDetail> findItemDetail(Long userId, Long itemId, LocalDateTime now);
+
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reads the item, the user check and both bookings in a single statement. The booking subqueries only join
+ * when the user is the owner, so other users pay for the two index lookups but get no bookings back.
+ */
+public class ItemDetailRepositoryImpl implements ItemDetailRepository {
+
+    private static final String ITEM_DETAIL = "SELECT i.id, i.name, i.description, i.available, i.request_id, " +
+            "i.owner_id, EXISTS (SELECT 1 FROM users AS u WHERE u.id = :userId) AS user_exists, " +
+            "lb.id AS last_booking_id, lb.booker_id AS last_booker_id, " +
+            "nb.id AS next_booking_id, nb.booker_id AS next_booker_id, nb.start_date AS next_booking_start " +
+            "FROM items AS i " +
+            "LEFT JOIN (SELECT b.id, b.booker_id " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id = :itemId AND b.status = 'APPROVED' AND b.start_date < :now " +
+            "ORDER BY b.end_date DESC, b.id DESC " +
+            "LIMIT 1) AS lb ON i.owner_id = :userId " +
+            "LEFT JOIN (SELECT b.id, b.booker_id, b.start_date " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id = :itemId AND b.status = 'APPROVED' AND b.start_date > :now " +
+            "ORDER BY b.start_date, b.id " +
+            "LIMIT 1) AS nb ON i.owner_id = :userId " +
+            "WHERE i.id = :itemId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<ItemDetail> findItemDetail(Long userId, Long itemId, LocalDateTime now) {
+        List<Object[]> rows = entityManager.createNativeQuery(ITEM_DETAIL)
+                .setParameter("userId", userId)
+                .setParameter("itemId", itemId)
+                .setParameter("now", now)
+                .getResultList();
+        return rows
+                .stream()
+                .findFirst()
+                .map(row -> new ItemDetail(
+                        toLong(row[0]),
+                        (String) row[1],
+                        (String) row[2],
+                        (Boolean) row[3],
+                        toLong(row[4]),
+                        toLong(row[5]),
+                        (Boolean) row[6],
+                        toLong(row[7]),
+                        toLong(row[8]),
+                        toLong(row[9]),
+                        toLong(row[10]),
+                        toLocalDateTime(row[11])));
+    }
+
+    private static Long toLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp ? ((Timestamp) value).toLocalDateTime() : (LocalDateTime) value;
+    }
+
+}
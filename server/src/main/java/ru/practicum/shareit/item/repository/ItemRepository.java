@@ -7,24 +7,42 @@ import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+public interface ItemRepository extends JpaRepository<Item, Long>, ItemSearchRepository,
+        OwnerItemRepository, ItemDetailRepository {
 
     List<Item> findByOwnerId(Long ownerId, Pageable pageable);
 
     List<Item> findByOwnerId(Long ownerId);
 
-    @Query("SELECT i " +
-            "FROM Item as i " +
-            "WHERE i.available=true " +
-            "AND " +
-            "(" +
-            "LOWER(i.name) LIKE %:text% " +
-            "OR " +
-            "LOWER(i.description) LIKE %:sameText%" +
-            ")")
-    List<Item> searchByTextInNameOrDescriptionAndAvailableTrue(String text, String sameText, Pageable pageable);
+    boolean existsByOwnerId(Long ownerId);
+
+    @Query("SELECT i.id AS id, i.owner.id AS ownerId, i.name AS name, i.description AS description, " +
+            "i.available AS available " +
+            "FROM Item AS i " +
+            "WHERE i.id > :afterId " +
+            "ORDER BY i.id")
+    List<ItemText> findTextsAfter(Long afterId, Pageable pageable);
+
+    /**
+     * The available items whose lower-cased name or description contains the lower-cased text, in id order:
+     * the results {@code ItemTrigramIndex} answers with, for searches made while it is being built.
+     */
+    default List<Item> searchAvailableBySubstring(String text, Pageable pageable) {
+        String escaped = text.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return findAvailableByLowerCasePattern("%" + escaped + "%", pageable);
+    }
+
+    @Query("SELECT i FROM Item AS i " +
+            "WHERE i.available = true " +
+            "AND (LOWER(i.name) LIKE :pattern ESCAPE '\\' OR LOWER(i.description) LIKE :pattern ESCAPE '\\') " +
+            "ORDER BY i.id")
+    List<Item> findAvailableByLowerCasePattern(String pattern, Pageable pageable);
 
     Optional<Item> findByIdAndOwnerId(Long itemId, Long ownerId);
 
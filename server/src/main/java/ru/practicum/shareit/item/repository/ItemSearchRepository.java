@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+public interface ItemSearchRepository {
+
+    /**
+     * Available items whose name or description match every word of the text, most relevant first.
+     */
+    List<Item> searchAvailableByText(String text, Pageable pageable);
+
+}
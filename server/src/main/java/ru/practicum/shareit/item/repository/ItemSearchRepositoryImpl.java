@@ -0,0 +1,97 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * On PostgreSQL the search runs on the GIN-indexed {@code items.search_vector} from schema-postgresql.sql and
+ * ranks with {@code ts_rank}, name matches weighing more than description matches. On the h2 platform of the
+ * ci and test profiles every word becomes a LIKE pair and the rank counts name and description matches.
+ */
+public class ItemSearchRepositoryImpl implements ItemSearchRepository {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_WORDS = 8;
+    private static final String COLUMNS = "i.id, i.name, i.description, i.available, i.request_id, i.owner_id";
+    private static final String FULL_TEXT_PLATFORM = "postgresql";
+
+    private static final String FULL_TEXT_SEARCH = "SELECT " + COLUMNS + " " +
+            "FROM items AS i, to_tsquery('simple', :query) AS q " +
+            "WHERE i.available = true AND i.search_vector @@ q " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, i.id " +
+            "LIMIT :size OFFSET :from";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final boolean fullText;
+
+    /**
+     * @param platform the platform whose schema script is applied, so the search vector exists exactly when
+     *                 schema-postgresql.sql has run
+     */
+    public ItemSearchRepositoryImpl(@Value("${spring.sql.init.platform:}") String platform) {
+        this.fullText = FULL_TEXT_PLATFORM.equals(platform);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> searchAvailableByText(String text, Pageable pageable) {
+        List<String> words = wordsOf(text);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        Query query = fullText ? fullTextQuery(words) : likeQuery(words);
+        return query
+                .setParameter("from", pageable.getOffset())
+                .setParameter("size", pageable.getPageSize())
+                .getResultList();
+    }
+
+    private Query fullTextQuery(List<String> words) {
+        return entityManager.createNativeQuery(FULL_TEXT_SEARCH, Item.class)
+                .setParameter("query", words.stream()
+                        .map(word -> word + ":*")
+                        .collect(Collectors.joining(" & ")));
+    }
+
+    private Query likeQuery(List<String> words) {
+        StringBuilder matches = new StringBuilder();
+        StringBuilder rank = new StringBuilder();
+        for (int i = 0; i < words.size(); i++) {
+            matches.append(" AND (LOWER(i.name) LIKE :word").append(i)
+                    .append(" OR LOWER(i.description) LIKE :word").append(i).append(')');
+            rank.append(i == 0 ? "" : " + ")
+                    .append("CASE WHEN LOWER(i.name) LIKE :word").append(i).append(" THEN 2 ELSE 0 END")
+                    .append(" + CASE WHEN LOWER(i.description) LIKE :word").append(i).append(" THEN 1 ELSE 0 END");
+        }
+        Query query = entityManager.createNativeQuery("SELECT " + COLUMNS + " " +
+                "FROM items AS i " +
+                "WHERE i.available = true" + matches + " " +
+                "ORDER BY " + rank + " DESC, i.id " +
+                "LIMIT :size OFFSET :from", Item.class);
+        for (int i = 0; i < words.size(); i++) {
+            query.setParameter("word" + i, "%" + words.get(i) + "%");
+        }
+        return query;
+    }
+
+    private static List<String> wordsOf(String text) {
+        return Arrays.stream(WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .limit(MAX_WORDS)
+                .collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.repository;
+
+public interface ItemText {
+
+    Long getId();
+
+    Long getOwnerId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+}
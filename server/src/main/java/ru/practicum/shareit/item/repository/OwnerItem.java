@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class OwnerItem {
+
+    private Long id;
+
+    private String name;
+
+    private String description;
+
+    private Boolean available;
+
+    private Long requestId;
+
+    private Long lastBookingId;
+
+    private Long lastBookerId;
+
+    private Long nextBookingId;
+
+    private Long nextBookerId;
+
+    private long commentCount;
+
+}
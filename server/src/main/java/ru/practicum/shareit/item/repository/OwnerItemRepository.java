@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OwnerItemRepository {
+
+    /**
+     * One page of the owner's items after {@code afterId}, ordered by id, each with its last (started before
+     * {@code now}, latest end) and next (starting after {@code now}, earliest start) APPROVED booking and its
+     * comment count.
+     */
+    List<OwnerItem> findOwnerItemsWithBookings(Long ownerId, Long afterId, LocalDateTime now, long from, int size);
+
+}
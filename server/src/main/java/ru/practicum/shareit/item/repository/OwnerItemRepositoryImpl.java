@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Picks last and next bookings with ROW_NUMBER() per item, which both PostgreSQL and H2 support, so the page,
+ * its bookings and comment counts come back in a single statement.
+ */
+public class OwnerItemRepositoryImpl implements OwnerItemRepository {
+
+    private static final String PAGE = "FROM items AS i " +
+            "WHERE i.owner_id = :ownerId AND i.id > :afterId " +
+            "ORDER BY i.id " +
+            "LIMIT :size OFFSET :from";
+
+    private static final String OWNER_ITEMS_WITH_BOOKINGS = "SELECT p.id, p.name, p.description, p.available, " +
+            "p.request_id, lb.id AS last_booking_id, lb.booker_id AS last_booker_id, " +
+            "nb.id AS next_booking_id, nb.booker_id AS next_booker_id, " +
+            "(SELECT COUNT(*) FROM comments AS c WHERE c.item_id = p.id) AS comment_count " +
+            "FROM (SELECT i.id, i.name, i.description, i.available, i.request_id " + PAGE + ") AS p " +
+            "LEFT JOIN (SELECT b.item_id, b.id, b.booker_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date DESC, b.id DESC) AS rn " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id IN (SELECT i.id " + PAGE + ") " +
+            "AND b.status = 'APPROVED' AND b.start_date < :now) AS lb ON lb.item_id = p.id AND lb.rn = 1 " +
+            "LEFT JOIN (SELECT b.item_id, b.id, b.booker_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date, b.id) AS rn " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id IN (SELECT i.id " + PAGE + ") " +
+            "AND b.status = 'APPROVED' AND b.start_date > :now) AS nb ON nb.item_id = p.id AND nb.rn = 1 " +
+            "ORDER BY p.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<OwnerItem> findOwnerItemsWithBookings(Long ownerId, Long afterId, LocalDateTime now, long from,
+                                                      int size) {
+        List<Object[]> rows = entityManager.createNativeQuery(OWNER_ITEMS_WITH_BOOKINGS)
+                .setParameter("ownerId", ownerId)
+                .setParameter("afterId", afterId)
+                .setParameter("now", now)
+                .setParameter("from", from)
+                .setParameter("size", size)
+                .getResultList();
+        return rows
+                .stream()
+                .map(row -> new OwnerItem(
+                        toLong(row[0]),
+                        (String) row[1],
+                        (String) row[2],
+                        (Boolean) row[3],
+                        toLong(row[4]),
+                        toLong(row[5]),
+                        toLong(row[6]),
+                        toLong(row[7]),
+                        toLong(row[8]),
+                        toLong(row[9])))
+                .collect(Collectors.toList());
+    }
+
+    private static Long toLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+}
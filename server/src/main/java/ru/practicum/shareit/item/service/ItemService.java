@@ -5,6 +5,7 @@ import ru.practicum.shareit.comment.dto.IncomingCommentDto;
 import ru.practicum.shareit.comment.dto.OutgoingCommentDto;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
 import ru.practicum.shareit.item.dto.OutgoingItemDto;
+import ru.practicum.shareit.pagination.Cursor;
 
 import java.util.List;
 
@@ -12,6 +13,8 @@ public interface ItemService {
 
     List<OutgoingItemDto> getAllOwnerItems(Long ownerId, Pageable pageable);
 
+    List<OutgoingItemDto> getAllOwnerItems(Long ownerId, Cursor after, int size);
+
     OutgoingItemDto getItemDtoById(Long userId, Long itemId);
 
     List<OutgoingItemDto> getItemsBySearch(Long userId, String text, Pageable pageable);
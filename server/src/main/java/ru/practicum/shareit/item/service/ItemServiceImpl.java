@@ -1,13 +1,10 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.LastNextBookingDto;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.comment.dto.CommentMapper;
@@ -18,22 +15,34 @@ import ru.practicum.shareit.exeption.NotAvailableItemException;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.cache.ItemCardCache;
 import ru.practicum.shareit.item.dto.OutgoingItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemTextChangedEvent;
+import ru.practicum.shareit.item.index.ItemTrigramIndex;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemComment;
+import ru.practicum.shareit.item.repository.ItemDetail;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.OwnerItem;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import javax.transaction.Transactional;
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 
 import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.mapping;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
 
 @Transactional
 @Service
@@ -45,85 +54,70 @@ public class ItemServiceImpl implements ItemService {
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final RequestRepository requestRepository;
+    private final ItemTrigramIndex itemTrigramIndex;
+    private final ItemCardCache itemCardCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<OutgoingItemDto> getAllOwnerItems(Long ownerId, Pageable pageable) {
-        LocalDateTime now = LocalDateTime.now();
         userRepository.checkUserById(ownerId);
-        List<OutgoingItemDto> outgoingItemDtoList = itemRepository.findByOwnerId(ownerId,
-                        PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()))
-                .stream()
-                .map(ItemMapper::mapItemToOutgoingDto)
-                .collect(toList());
-        List<Long> itemIdList = outgoingItemDtoList
-                .stream()
-                .map(OutgoingItemDto::getId)
-                .collect(toList());
-        Map<Long, List<Comment>> commentMap = commentRepository.findByItemIdIn(itemIdList)
-                .stream()
-                .collect(groupingBy(comment -> comment.getItem().getId(), toList()));
-        Map<Long, List<Booking>> bookingMap = bookingRepository
-                .findByItemIdIn(itemIdList, pageable)
-                .stream()
-                .collect(groupingBy(booking -> booking.getItem().getId(), toList()));
-        return outgoingItemDtoList
-                .stream()
-                .peek(outgoingItemDto -> outgoingItemDto
-                        .setComments(commentMap.getOrDefault(outgoingItemDto.getId(), List.of())
-                                .stream()
-                                .map(CommentMapper::mapCommentToOutgoingDto)
-                                .collect(toList())))
-                .peek(outgoingItemDto -> outgoingItemDto
-                        .setLastBooking(bookingMap.getOrDefault(outgoingItemDto.getId(), List.of())
-                                .stream()
-                                .filter(booking -> booking.getStart().isBefore(now))
-                                .map(BookingMapper::mapBookingToLastNextDto)
-                                .reduce((booking1, booking2) -> booking2)
-                                .orElse(null)))
-                .peek(outgoingItemDto -> outgoingItemDto
-                        .setNextBooking(bookingMap.getOrDefault(outgoingItemDto.getId(), List.of())
-                                .stream()
-                                .filter(booking -> booking.getStart().isAfter(now))
-                                .map(BookingMapper::mapBookingToLastNextDto)
-                                .reduce((booking1, booking2) -> booking2)
-                                .orElse(null)))
-                .sorted(Comparator.comparing(OutgoingItemDto::getId))
-                .collect(toList());
+        return mapOwnerItems(itemRepository.findOwnerItemsWithBookings(ownerId, 0L, LocalDateTime.now(),
+                pageable.getOffset(), pageable.getPageSize()));
+    }
+
+    @Override
+    public List<OutgoingItemDto> getAllOwnerItems(Long ownerId, Cursor after, int size) {
+        userRepository.checkUserById(ownerId);
+        return mapOwnerItems(itemRepository.findOwnerItemsWithBookings(ownerId, after.getId(), LocalDateTime.now(),
+                0L, size));
     }
 
     @Override
     public OutgoingItemDto getItemDtoById(Long userId, Long itemId) {
-        userRepository.checkUserById(userId);
-        Item item = itemRepository.getItemById(itemId);
-        OutgoingItemDto outgoingItemDto = ItemMapper.mapItemToOutgoingDto(item);
-        if (item.getOwner().getId().equals(userId)) {
-            outgoingItemDto.setLastBooking(getLastBookingByItemId(itemId));
-            outgoingItemDto.setNextBooking(getNextBookingByItemId(itemId));
+        Optional<OutgoingItemDto> cached = itemCardCache.get(userId, itemId);
+        if (cached.isPresent()) {
+            userRepository.checkUserById(userId);
+            return cached.get();
+        }
+        long generation = itemCardCache.generation();
+        ItemDetail itemDetail = itemRepository.findItemDetail(userId, itemId, LocalDateTime.now())
+                .orElseThrow(() -> {
+                    userRepository.checkUserById(userId);
+                    return new NotFoundException("There's no item with id " + itemId);
+                });
+        if (!itemDetail.isUserExists()) {
+            throw new NotFoundException("There's no user with id " + userId);
         }
-        outgoingItemDto.setComments(getCommentsByItemId(itemId));
-        return outgoingItemDto;
+        List<OutgoingCommentDto> comments = commentRepository.findOutgoingDtosByItemId(itemId);
+        itemCardCache.put(generation, userId, itemDetail, comments);
+        return new OutgoingItemDto(
+                itemDetail.getId(),
+                itemDetail.getName(),
+                itemDetail.getDescription(),
+                itemDetail.getAvailable(),
+                itemDetail.getLastBookingId() == null ? null
+                        : new LastNextBookingDto(itemDetail.getLastBookingId(), itemDetail.getLastBookerId()),
+                itemDetail.getNextBookingId() == null ? null
+                        : new LastNextBookingDto(itemDetail.getNextBookingId(), itemDetail.getNextBookerId()),
+                comments,
+                itemDetail.getRequestId());
     }
 
     @Override
     public List<OutgoingItemDto> getItemsBySearch(Long userId, String text, Pageable pageable) {
         userRepository.checkUserById(userId);
-        List<Item> itemList =
-                itemRepository.searchByTextInNameOrDescriptionAndAvailableTrue(
-                        text.toLowerCase(), text.toLowerCase(), pageable);
-        Map<Long, List<Comment>> commentMap = commentRepository.findByItemIdIn(itemList
-                        .stream()
-                        .map(Item::getId)
-                        .collect(toList()))
+        List<Item> itemList = itemTrigramIndex.isEnabled()
+                ? searchBySubstring(text, pageable)
+                : itemRepository.searchAvailableByText(text, pageable);
+        Map<Long, List<OutgoingCommentDto>> commentMap = getCommentsByItemIds(itemList
                 .stream()
-                .collect(groupingBy(comment -> comment.getItem().getId(), toList()));
+                .map(Item::getId)
+                .collect(toList()));
         return itemList
                 .stream()
                 .map(ItemMapper::mapItemToOutgoingDto)
                 .peek(outgoingItemDto -> outgoingItemDto
-                        .setComments(commentMap.getOrDefault(outgoingItemDto.getId(), List.of())
-                                .stream()
-                                .map(CommentMapper::mapCommentToOutgoingDto)
-                                .collect(toList())))
+                        .setComments(commentMap.getOrDefault(outgoingItemDto.getId(), List.of())))
                 .collect(toList());
     }
 
@@ -134,7 +128,9 @@ public class ItemServiceImpl implements ItemService {
         if (incomingItemDto.getRequestId() != null) {
             item.setRequest(requestRepository.findRequestById(incomingItemDto.getRequestId()));
         }
-        return ItemMapper.mapItemToOutgoingDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        eventPublisher.publishEvent(ItemTextChangedEvent.saved(savedItem));
+        return ItemMapper.mapItemToOutgoingDto(savedItem);
     }
 
     @Override
@@ -145,9 +141,13 @@ public class ItemServiceImpl implements ItemService {
                     + " has no rights to leve a comment to item with id " + itemId + "!");
         }
         Comment comment = CommentMapper.mapIncommingDtoToComment(incomingCommentDto);
-        comment.setAuthor(userRepository.getUserById(authorId));
+        User author = userRepository.getUserById(authorId);
+        comment.setAuthor(author);
+        comment.setAuthorName(author.getName());
         comment.setItem(itemRepository.getItemById(itemId));
-        return CommentMapper.mapCommentToOutgoingDto(commentRepository.save(comment));
+        OutgoingCommentDto outgoingCommentDto = CommentMapper.mapCommentToOutgoingDto(commentRepository.save(comment));
+        eventPublisher.publishEvent(ItemChangedEvent.item(itemId));
+        return outgoingCommentDto;
     }
 
     @Override
@@ -165,7 +165,10 @@ public class ItemServiceImpl implements ItemService {
         if (null != incomingItemDto.getAvailable()) {
             item.setAvailable(incomingItemDto.getAvailable());
         }
-        return ItemMapper.mapItemToOutgoingDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        eventPublisher.publishEvent(ItemTextChangedEvent.saved(savedItem));
+        eventPublisher.publishEvent(ItemChangedEvent.item(itemId));
+        return ItemMapper.mapItemToOutgoingDto(savedItem);
     }
 
     @Override
@@ -174,31 +177,72 @@ public class ItemServiceImpl implements ItemService {
                 .orElseThrow(() -> new NotFoundException("Owner with id " + ownerId
                         + " has no item with id " + itemId + "!"));
         itemRepository.deleteById(item.getId());
+        eventPublisher.publishEvent(ItemTextChangedEvent.deleted(item.getId()));
+        eventPublisher.publishEvent(ItemChangedEvent.item(item.getId()));
         return ItemMapper.mapItemToOutgoingDto(item);
     }
 
     @Override
     public void deleteAllOwnerItems(Long ownerId) {
         itemRepository.deleteByOwnerId(ownerId);
+        eventPublisher.publishEvent(ItemTextChangedEvent.ownerDeleted(ownerId));
+        eventPublisher.publishEvent(ItemChangedEvent.allItems());
+    }
+
+    private List<OutgoingItemDto> mapOwnerItems(List<OwnerItem> ownerItemList) {
+        List<Long> commentedItemIdList = ownerItemList
+                .stream()
+                .filter(ownerItem -> ownerItem.getCommentCount() > 0)
+                .map(OwnerItem::getId)
+                .collect(toList());
+        Map<Long, List<OutgoingCommentDto>> commentMap = getCommentsByItemIds(commentedItemIdList);
+        return ownerItemList
+                .stream()
+                .map(ownerItem -> new OutgoingItemDto(
+                        ownerItem.getId(),
+                        ownerItem.getName(),
+                        ownerItem.getDescription(),
+                        ownerItem.getAvailable(),
+                        ownerItem.getLastBookingId() == null ? null
+                                : new LastNextBookingDto(ownerItem.getLastBookingId(), ownerItem.getLastBookerId()),
+                        ownerItem.getNextBookingId() == null ? null
+                                : new LastNextBookingDto(ownerItem.getNextBookingId(), ownerItem.getNextBookerId()),
+                        commentMap.getOrDefault(ownerItem.getId(), List.of()),
+                        ownerItem.getRequestId()))
+                .collect(toList());
     }
 
-    protected LastNextBookingDto getNextBookingByItemId(Long itemId) {
-        Booking booking = bookingRepository
-                .findFirstByItemIdAndStartIsAfterAndStatusIs(itemId, LocalDateTime.now(),
-                        BookingStatus.APPROVED, Sort.by(Sort.Direction.ASC, "start")).orElse(null);
-        return booking == null ? null : BookingMapper.mapBookingToLastNextDto(booking);
+    private Map<Long, List<OutgoingCommentDto>> getCommentsByItemIds(List<Long> itemIdList) {
+        if (itemIdList.isEmpty()) {
+            return Map.of();
+        }
+        return commentRepository.findItemCommentsByItemIdIn(itemIdList)
+                .stream()
+                .collect(groupingBy(ItemComment::getItemId, mapping(itemComment -> new OutgoingCommentDto(
+                        itemComment.getId(),
+                        itemComment.getText(),
+                        itemComment.getAuthorName(),
+                        itemComment.getCreated()), toList())));
     }
 
-    protected LastNextBookingDto getLastBookingByItemId(Long itemId) {
-        Booking booking = bookingRepository
-                .findFirstByItemIdAndStartIsBeforeAndStatusIs(itemId, LocalDateTime.now(),
-                        BookingStatus.APPROVED, Sort.by(Sort.Direction.DESC, "end")).orElse(null);
-        return booking == null ? null : BookingMapper.mapBookingToLastNextDto(booking);
+    /**
+     * Searches the trigram index, or the database with the same semantics and order while it is not ready.
+     */
+    private List<Item> searchBySubstring(String text, Pageable pageable) {
+        List<Long> itemIds = itemTrigramIndex.search(text, pageable);
+        return itemIds != null
+                ? findAllByIdInOrder(itemIds)
+                : itemRepository.searchAvailableBySubstring(text, pageable);
     }
 
-    private List<OutgoingCommentDto> getCommentsByItemId(Long itemId) {
-        return commentRepository.findByItemId(itemId).stream()
-                .map(CommentMapper::mapCommentToOutgoingDto)
+    private List<Item> findAllByIdInOrder(List<Long> itemIds) {
+        Map<Long, Item> itemMap = itemRepository.findAllById(itemIds)
+                .stream()
+                .collect(toMap(Item::getId, Function.identity()));
+        return itemIds
+                .stream()
+                .map(itemMap::get)
+                .filter(Objects::nonNull)
                 .collect(toList());
     }
 
@@ -2,16 +2,19 @@ package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.IncomingRequestDto;
 import ru.practicum.shareit.request.dto.OutgoingRequestDto;
 import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.util.Collection;
+import java.util.List;
 
 import static ru.practicum.shareit.http.HttpHeader.header;
 
@@ -22,28 +25,42 @@ import static ru.practicum.shareit.http.HttpHeader.header;
 @RequiredArgsConstructor
 public class RequestController {
 
-    private final Sort sortByCreatingDesc = Sort.by(Sort.Direction.DESC, "created");
+    private final Sort sortByCreatingDesc = Sort.by(Sort.Direction.DESC, "created", "id");
     private final RequestService requestService;
 
     @GetMapping
     public Collection<OutgoingRequestDto> getAllRequesterRequests(
             HttpServletRequest request,
-            @RequestParam(value = "from") Integer firstElement,
+            HttpServletResponse response,
+            @RequestParam(value = "from", defaultValue = "0") Integer firstElement,
             @RequestParam(value = "size") Integer size,
+            @RequestParam(value = "after", required = false) String after,
             @RequestHeader(header) Long requesterId) {
-        log.info("Id-{} {} {}?{}", requesterId, request.getMethod(), request.getRequestURI(), request.getQueryString());
-        return requestService.getAllRequesterRequests(requesterId,
-                PageRequest.of(firstElement / size, size, sortByCreatingDesc));
+        log.debug("Id-{} {} {}?{}", requesterId, request.getMethod(), request.getRequestURI(), request.getQueryString());
+        List<OutgoingRequestDto> requests = after == null
+                ? requestService.getAllRequesterRequests(requesterId,
+                OffsetPageRequest.of(firstElement, size, sortByCreatingDesc))
+                : requestService.getAllRequesterRequests(requesterId, Cursor.decode(after, true), size);
+        Cursor.setNext(response, requests, size,
+                requestDto -> Cursor.after(requestDto.getCreated(), requestDto.getId()));
+        return requests;
     }
 
     @GetMapping("/all")
     public Collection<OutgoingRequestDto> getAllRequests(
             HttpServletRequest request,
-            @RequestParam(value = "from") Integer firstElement,
+            HttpServletResponse response,
+            @RequestParam(value = "from", defaultValue = "0") Integer firstElement,
             @RequestParam(value = "size") Integer size,
+            @RequestParam(value = "after", required = false) String after,
             @RequestHeader(header) Long userId) {
-        log.info("Id-{} {} {}?{}", userId, request.getMethod(), request.getRequestURI(), request.getQueryString());
-        return requestService.getAllRequests(userId, PageRequest.of(firstElement / size, size, sortByCreatingDesc));
+        log.debug("Id-{} {} {}?{}", userId, request.getMethod(), request.getRequestURI(), request.getQueryString());
+        List<OutgoingRequestDto> requests = after == null
+                ? requestService.getAllRequests(userId, OffsetPageRequest.of(firstElement, size, sortByCreatingDesc))
+                : requestService.getAllRequests(userId, Cursor.decode(after, true), size);
+        Cursor.setNext(response, requests, size,
+                requestDto -> Cursor.after(requestDto.getCreated(), requestDto.getId()));
+        return requests;
     }
 
     @GetMapping("/{requestId}")
@@ -51,7 +68,7 @@ public class RequestController {
             HttpServletRequest request,
             @RequestHeader(header) Long userId,
             @PathVariable Long requestId) {
-        log.info("Id-{} {} {}", userId, request.getMethod(), request.getRequestURI());
+        log.debug("Id-{} {} {}", userId, request.getMethod(), request.getRequestURI());
         return requestService.getRequestById(userId, requestId);
     }
 
@@ -60,7 +77,7 @@ public class RequestController {
             HttpServletRequest request,
             @RequestHeader(header) Long requesterId,
             @RequestBody IncomingRequestDto incomingRequestDto) {
-        log.info("Id-{} {} {} {}", requesterId, request.getMethod(), request.getRequestURI(), incomingRequestDto);
+        log.debug("Id-{} {} {} {}", requesterId, request.getMethod(), request.getRequestURI(), incomingRequestDto);
         return requestService.postRequest(requesterId, incomingRequestDto);
     }
 
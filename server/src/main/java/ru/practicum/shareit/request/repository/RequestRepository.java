@@ -2,9 +2,11 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.request.model.Request;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface RequestRepository extends JpaRepository<Request, Long> {
@@ -13,6 +15,21 @@ public interface RequestRepository extends JpaRepository<Request, Long> {
 
     List<Request> findByRequesterIdIsNot(Long requesterId, Pageable pageable);
 
+    @Query("SELECT r FROM Request AS r " +
+            "WHERE r.requester.id = :requesterId " +
+            "AND (r.created < :created OR (r.created = :created AND r.id < :afterId)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<Request> findByRequesterIdBefore(Long requesterId, LocalDateTime created, Long afterId, Pageable pageable);
+
+    @Query("SELECT r FROM Request AS r " +
+            "WHERE r.requester.id <> :requesterId " +
+            "AND (r.created < :created OR (r.created = :created AND r.id < :afterId)) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    List<Request> findByRequesterIdIsNotBefore(Long requesterId,
+                                               LocalDateTime created,
+                                               Long afterId,
+                                               Pageable pageable);
+
     default Request findRequestById(Long requestId) {
         return findById(requestId).orElseThrow(() -> new NotFoundException("There's no request with id " + requestId));
     }
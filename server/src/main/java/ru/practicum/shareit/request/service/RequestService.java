@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.IncomingRequestDto;
 import ru.practicum.shareit.request.dto.OutgoingRequestDto;
 
@@ -12,6 +13,10 @@ public interface RequestService {
 
     List<OutgoingRequestDto> getAllRequests(Long userId, Pageable pageable);
 
+    List<OutgoingRequestDto> getAllRequesterRequests(Long requesterId, Cursor after, int size);
+
+    List<OutgoingRequestDto> getAllRequests(Long userId, Cursor after, int size);
+
     OutgoingRequestDto getRequestById(Long userId, Long requestId);
 
     OutgoingRequestDto postRequest(Long requesterId, IncomingRequestDto incomingRequestDto);
@@ -1,11 +1,13 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.dto.OutgoingItemDto;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.IncomingRequestDto;
 import ru.practicum.shareit.request.dto.OutgoingRequestDto;
 import ru.practicum.shareit.request.dto.RequestMapper;
@@ -43,6 +45,22 @@ public class RequestServiceImpl implements RequestService {
         return joinItemsToRequestList(requestList);
     }
 
+    @Override
+    public List<OutgoingRequestDto> getAllRequesterRequests(Long requesterId, Cursor after, int size) {
+        userRepository.checkUserById(requesterId);
+        List<Request> requestList = requestRepository.findByRequesterIdBefore(requesterId,
+                after.getPosition(), after.getId(), PageRequest.of(0, size));
+        return joinItemsToRequestList(requestList);
+    }
+
+    @Override
+    public List<OutgoingRequestDto> getAllRequests(Long userId, Cursor after, int size) {
+        userRepository.checkUserById(userId);
+        List<Request> requestList = requestRepository.findByRequesterIdIsNotBefore(userId,
+                after.getPosition(), after.getId(), PageRequest.of(0, size));
+        return joinItemsToRequestList(requestList);
+    }
+
     @Override
     public OutgoingRequestDto getRequestById(Long userId, Long requestId) {
         userRepository.checkUserById(userId);
@@ -2,13 +2,16 @@ package ru.practicum.shareit.user.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @Slf4j
@@ -23,17 +26,32 @@ public class UserController {
     @GetMapping
     public List<UserDto> getAllUsers(
             HttpServletRequest request,
-            @RequestParam(value = "from") Integer firstElement,
+            HttpServletResponse response,
+            @RequestParam(value = "from", defaultValue = "0") Integer firstElement,
+            @RequestParam(value = "size") Integer size,
+            @RequestParam(value = "after", required = false) String after) {
+        log.debug("{} {}?{}", request.getMethod(), request.getRequestURI(), request.getQueryString());
+        List<UserDto> users = after == null
+                ? userService.getAllUsers(OffsetPageRequest.of(firstElement, size, Sort.by("id")))
+                : userService.getAllUsers(Cursor.decode(after, false), size);
+        Cursor.setNext(response, users, size, user -> Cursor.after(user.getId()));
+        return users;
+    }
+
+    @GetMapping("/ids")
+    public List<Long> getUserIds(
+            HttpServletRequest request,
+            @RequestParam(value = "after", defaultValue = "0") Long afterId,
             @RequestParam(value = "size") Integer size) {
-        log.info("{} {}?{}", request.getMethod(), request.getRequestURI(), request.getQueryString());
-        return userService.getAllUsers(PageRequest.of(firstElement / size, size));
+        log.debug("{} {}?{}", request.getMethod(), request.getRequestURI(), request.getQueryString());
+        return userService.getUserIds(afterId, size);
     }
 
     @GetMapping("/{userId}")
     public UserDto getUserById(
             HttpServletRequest request,
             @PathVariable Long userId) {
-        log.info("{} {}", request.getMethod(), request.getRequestURI());
+        log.debug("{} {}", request.getMethod(), request.getRequestURI());
         return userService.getUserById(userId);
     }
 
@@ -41,7 +59,7 @@ public class UserController {
     public UserDto postUser(
             HttpServletRequest request,
             @RequestBody UserDto userDto) {
-        log.info("{} {} {}", request.getMethod(), request.getRequestURI(), userDto);
+        log.debug("{} {} {}", request.getMethod(), request.getRequestURI(), userDto);
         return userService.postUser(userDto);
     }
 
@@ -50,7 +68,7 @@ public class UserController {
             HttpServletRequest request,
             @PathVariable Long userId,
             @RequestBody UserDto userDto) {
-        log.info("{} {} {}", request.getMethod(), request.getRequestURI(), userDto);
+        log.debug("{} {} {}", request.getMethod(), request.getRequestURI(), userDto);
         return userService.patchUserById(userId, userDto);
     }
 
@@ -58,7 +76,7 @@ public class UserController {
     public UserDto deleteUserById(
             HttpServletRequest request,
             @PathVariable Long userId) {
-        log.info("{} {}", request.getMethod(), request.getRequestURI());
+        log.debug("{} {}", request.getMethod(), request.getRequestURI());
         return userService.deleteUserById(userId);
     }
 
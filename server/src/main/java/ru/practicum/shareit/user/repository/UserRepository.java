@@ -2,6 +2,8 @@ package ru.practicum.shareit.user.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.user.model.User;
 
@@ -11,6 +13,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findBy(Pageable pageable);
 
+    List<User> findByIdGreaterThanOrderById(Long afterId, Pageable pageable);
+
+    @Query("SELECT u.id FROM User AS u WHERE u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     default void checkUserById(Long userId) {
         if (!existsById(userId))
             throw new NotFoundException("There's no user with id " + userId);
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
@@ -9,6 +10,10 @@ public interface UserService {
 
     List<UserDto> getAllUsers(Pageable pageable);
 
+    List<UserDto> getAllUsers(Cursor after, int size);
+
+    List<Long> getUserIds(Long afterId, int size);
+
     UserDto getUserById(Long userId);
 
     UserDto postUser(UserDto userDto);
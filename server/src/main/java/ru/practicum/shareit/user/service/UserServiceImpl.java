@@ -1,8 +1,14 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemTextChangedEvent;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -18,6 +24,8 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final CommentRepository commentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<UserDto> getAllUsers(Pageable pageable) {
@@ -27,6 +35,19 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<UserDto> getAllUsers(Cursor after, int size) {
+        return userRepository.findByIdGreaterThanOrderById(after.getId(), PageRequest.of(0, size))
+                .stream()
+                .map(UserMapper::mapUserToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Long> getUserIds(Long afterId, int size) {
+        return userRepository.findIdsAfter(afterId, PageRequest.of(0, size));
+    }
+
     @Override
     public UserDto getUserById(Long userId) {
         return UserMapper.mapUserToDto(userRepository.getUserById(userId));
@@ -42,6 +63,9 @@ public class UserServiceImpl implements UserService {
         User updatingUser = UserMapper.mapDtoToUser(getUserById(userId));
         if (null != userDto.getName() && !userDto.getName().isBlank()) {
             updatingUser.setName(userDto.getName());
+            commentRepository.updateAuthorName(userId, userDto.getName());
+            commentRepository.findCommentedItemIds(userId)
+                    .forEach(itemId -> eventPublisher.publishEvent(ItemChangedEvent.item(itemId)));
         }
         if (null != userDto.getEmail() && !userDto.getEmail().isBlank()) {
             updatingUser.setEmail(userDto.getEmail());
@@ -53,6 +77,8 @@ public class UserServiceImpl implements UserService {
     public UserDto deleteUserById(Long userId) {
         UserDto userDto = UserMapper.mapUserToDto(userRepository.getUserById(userId));
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(ItemTextChangedEvent.ownerDeleted(userId));
+        eventPublisher.publishEvent(ItemChangedEvent.allItems());
         return userDto;
     }
 
@@ -52,5 +52,18 @@ CREATE TABLE IF NOT EXISTS comments
     text            VARCHAR(128)    NOT NULL,
     item_id         BIGINT          REFERENCES items(id) ON DELETE CASCADE,
     author_id       BIGINT          REFERENCES users(id) ON DELETE CASCADE,
+    author_name     VARCHAR(128)    NOT NULL,
     created         TIMESTAMP       NOT NULL
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS requests_requester_created_idx ON requests (requester_id, created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
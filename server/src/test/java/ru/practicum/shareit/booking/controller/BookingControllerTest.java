@@ -6,7 +6,6 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -17,6 +16,8 @@ import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exeption.ExceptionResolver;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
@@ -27,8 +28,10 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.http.HttpHeader.header;
+import static ru.practicum.shareit.http.HttpHeader.nextCursor;
 
 @WebMvcTest({BookingController.class, ExceptionResolver.class})
 class BookingControllerTest {
@@ -41,7 +44,7 @@ class BookingControllerTest {
 
     @MockBean
     private BookingService bookingService;
-    private final Sort sortByStartDesc = Sort.by(Sort.Direction.DESC, "start");
+    private final Sort sortByStartDesc = Sort.by(Sort.Direction.DESC, "start", "id");
     private final OutgoingBookingDto outgoingBookingDto = new OutgoingBookingDto(
             1L,
             LocalDateTime.now().minusDays(1),
@@ -66,28 +69,78 @@ class BookingControllerTest {
     @SneakyThrows
     void getAllUserBookings_whenInvoke_shouldInvokeServiceMethod_andReturnBookingList() {
         when(bookingService.getAllUserBookings(2L, BookingState.ALL,
-                PageRequest.of(0, 20, sortByStartDesc)))
+                OffsetPageRequest.of(0, 20, sortByStartDesc)))
                 .thenReturn(List.of(outgoingBookingDto));
         mockMvc.perform(get("/bookings?state=ALL&from=0&size=20")
                         .header(header, 2))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(List.of(outgoingBookingDto))));
         verify(bookingService).getAllUserBookings(2L, BookingState.ALL,
-                PageRequest.of(0, 20, sortByStartDesc));
+                OffsetPageRequest.of(0, 20, sortByStartDesc));
     }
 
     @Test
     @SneakyThrows
     void getAllOwnerItemBookings_whenInvoke_shouldInvokeServiceMethod_andReturnBookingList() {
         when(bookingService.getAllOwnerItemBookings(1L, BookingState.ALL,
-                PageRequest.of(0, 20, sortByStartDesc)))
+                OffsetPageRequest.of(0, 20, sortByStartDesc)))
                 .thenReturn(List.of(outgoingBookingDto));
         mockMvc.perform(get("/bookings/owner?state=ALL&from=0&size=20")
                         .header(header, 1))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(List.of(outgoingBookingDto))));
         verify(bookingService).getAllOwnerItemBookings(1L, BookingState.ALL,
-                PageRequest.of(0, 20, sortByStartDesc));
+                OffsetPageRequest.of(0, 20, sortByStartDesc));
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllOwnerItemBookings_whenFromNotMultipleOfSize_shouldStartPageAtFrom() {
+        when(bookingService.getAllOwnerItemBookings(1L, BookingState.ALL,
+                OffsetPageRequest.of(5, 10, sortByStartDesc)))
+                .thenReturn(List.of(outgoingBookingDto));
+        mockMvc.perform(get("/bookings/owner?from=5&size=10")
+                        .header(header, 1))
+                .andExpect(status().isOk());
+        verify(bookingService).getAllOwnerItemBookings(1L, BookingState.ALL,
+                OffsetPageRequest.of(5, 10, sortByStartDesc));
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllUserBookings_whenCursorAndFullPage_shouldInvokeKeysetServiceMethod_andSetNextCursor() {
+        Cursor after = Cursor.after(LocalDateTime.of(2030, 1, 1, 10, 0), 9L);
+        when(bookingService.getAllUserBookings(2L, BookingState.FUTURE, after, 1))
+                .thenReturn(List.of(outgoingBookingDto));
+        mockMvc.perform(get("/bookings?state=FUTURE&from=0&size=1&after=" + after.encode())
+                        .header(header, 2))
+                .andExpect(status().isOk())
+                .andExpect(header().string(nextCursor,
+                        Cursor.after(outgoingBookingDto.getStart(), outgoingBookingDto.getId()).encode()))
+                .andExpect(content().string(objectMapper.writeValueAsString(List.of(outgoingBookingDto))));
+        verify(bookingService).getAllUserBookings(2L, BookingState.FUTURE, after, 1);
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllOwnerItemBookings_whenCursorAndPartialPage_shouldNotSetNextCursor() {
+        Cursor after = Cursor.after(LocalDateTime.of(2030, 1, 1, 10, 0), 9L);
+        when(bookingService.getAllOwnerItemBookings(1L, BookingState.ALL, after, 20))
+                .thenReturn(List.of(outgoingBookingDto));
+        mockMvc.perform(get("/bookings/owner?size=20&after=" + after.encode())
+                        .header(header, 1))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(nextCursor));
+        verify(bookingService).getAllOwnerItemBookings(1L, BookingState.ALL, after, 20);
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllUserBookings_whenCursorOfAnotherList_shouldReturnBadRequest() {
+        mockMvc.perform(get("/bookings?from=0&size=20&after=" + Cursor.after(9L).encode())
+                        .header(header, 2))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("InvalidCursorException : Cursor OQ belongs to another list!"));
     }
 
     @Test
@@ -12,9 +12,11 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.LastNextBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -343,6 +345,54 @@ class BookingRepositoryTest {
         assertFalse(result);
     }
 
+    @Test
+    void findBookerBookingsAfter_whenBookingsExist_shouldReturnNextOnesByStartDesc() {
+        saveThreeBookings();
+        Booking sameStart = new Booking(null, futureBooking.getStart(), futureBooking.getEnd(),
+                futureBooking.getItem(), futureBooking.getBooker(), BookingStatus.APPROVED);
+        bookingRepository.save(sameStart);
+        List<Booking> result = bookingRepository.findBookerBookingsAfter(2L, BookingState.ALL, now,
+                Cursor.after(sameStart.getStart(), sameStart.getId()), 2);
+        assertEquals(List.of(futureBooking, currentBooking), result);
+    }
+
+    @Test
+    void findBookerBookingsAfter_whenState_shouldFilterByIt() {
+        saveThreeBookings();
+        List<Booking> result = bookingRepository.findBookerBookingsAfter(2L, BookingState.PAST, now,
+                Cursor.after(now.plusYears(1L), Long.MAX_VALUE), 20);
+        assertEquals(List.of(pastBooking), result);
+    }
+
+    @Test
+    void findOwnerBookingsAfter_whenBookingsExist_shouldReturnNextOnesByStartDesc() {
+        saveThreeBookings();
+        List<Booking> result = bookingRepository.findOwnerBookingsAfter(1L, BookingState.ALL, now,
+                Cursor.after(currentBooking.getStart(), currentBooking.getId()), 20);
+        assertEquals(List.of(pastBooking), result);
+    }
+
+    @Test
+    void findOwnerBookingsAfter_whenWaitingState_shouldReturnEmptyList() {
+        saveThreeBookings();
+        List<Booking> result = bookingRepository.findOwnerBookingsAfter(1L, BookingState.WAITING, now,
+                Cursor.after(now.plusYears(1L), Long.MAX_VALUE), 20);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void findOwnerBookingsAfter_shouldReturnBookingsOfOwnerItemsOnly() {
+        saveThreeBookings();
+        User booker = futureBooking.getBooker();
+        Item bookerItem = itemRepository.save(new Item(null, "Booker item", "Booker item description", true,
+                null, booker));
+        bookingRepository.save(new Booking(null, now.plusDays(4L), now.plusDays(5L), bookerItem,
+                futureBooking.getItem().getOwner(), BookingStatus.WAITING));
+        List<Booking> result = bookingRepository.findOwnerBookingsAfter(1L, BookingState.ALL, now,
+                Cursor.after(now.plusYears(1L), Long.MAX_VALUE), 20);
+        assertEquals(List.of(futureBooking, currentBooking, pastBooking), result);
+    }
+
     private void saveThreeBookings() {
         bookingRepository.save(currentBooking);
         bookingRepository.save(pastBooking);
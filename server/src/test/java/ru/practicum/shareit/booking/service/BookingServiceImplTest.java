@@ -8,6 +8,7 @@ import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.dto.BookingMapper;
@@ -19,8 +20,10 @@ import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exeption.NotAvailableItemException;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -47,6 +50,9 @@ class BookingServiceImplTest {
 
     @Mock
     private UserRepository userRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     private User owner;
     private User booker;
     private Item item;
@@ -149,6 +155,30 @@ class BookingServiceImplTest {
         }
     }
 
+    @Test
+    void getAllUserBookings_whenCursor_shouldInvokeKeysetRepositoryMethod_andReturnBookings() {
+        Cursor after = Cursor.after(now, 5L);
+        when(bookingRepository.findBookerBookingsAfter(eq(2L), eq(BookingState.ALL), any(LocalDateTime.class),
+                eq(after), eq(20)))
+                .thenReturn(List.of(booking));
+        List<OutgoingBookingDto> result = bookingServiceIml.getAllUserBookings(2L, BookingState.ALL, after, 20);
+        assertEquals(List.of(BookingMapper.mapBookingToOutgoingDto(booking)), result);
+        verify(userRepository).checkUserById(2L);
+    }
+
+    @Test
+    void getAllOwnerItemBookings_whenCursor_shouldInvokeKeysetRepositoryMethod_andReturnBookings() {
+        Cursor after = Cursor.after(now, 5L);
+        when(itemRepository.existsByOwnerId(1L))
+                .thenReturn(true);
+        when(bookingRepository.findOwnerBookingsAfter(eq(1L), eq(BookingState.FUTURE),
+                any(LocalDateTime.class), eq(after), eq(20)))
+                .thenReturn(List.of(booking));
+        List<OutgoingBookingDto> result = bookingServiceIml.getAllOwnerItemBookings(1L, BookingState.FUTURE,
+                after, 20);
+        assertEquals(List.of(BookingMapper.mapBookingToOutgoingDto(booking)), result);
+    }
+
     @Test
     void getAllOwnerItemBookings_whenUserHasNoItems_shouldThrowNotFoundException() {
         when(itemRepository.findByOwnerId(anyLong()))
@@ -209,6 +239,7 @@ class BookingServiceImplTest {
         verify(userRepository).getUserById(2L);
         verify(itemRepository).getItemById(1L);
         verify(bookingRepository).save(any(Booking.class));
+        verify(eventPublisher).publishEvent(any(ItemChangedEvent.class));
     }
 
     @Test
@@ -253,6 +284,7 @@ class BookingServiceImplTest {
         OutgoingBookingDto result = bookingServiceIml.patchBookingById(1L, 1L, true);
         assertNotNull(result);
         assertEquals(BookingStatus.APPROVED, result.getStatus());
+        verify(eventPublisher).publishEvent(any(ItemChangedEvent.class));
     }
 
     @Test
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.http;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DeadlineTransactionManagerTest {
+
+    private final DeadlineTransactionManager transactionManager = new DeadlineTransactionManager();
+
+    @AfterEach
+    void clearDeadline() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void determineTimeout_whenNoDeadline_shouldKeepDefinitionTimeout() {
+        assertEquals(-1, transactionManager.determineTimeout(new DefaultTransactionDefinition()));
+    }
+
+    @Test
+    void determineTimeout_whenSubSecondBudget_shouldLeaveStatementsOneSecond() {
+        deadlineIn(100);
+        assertEquals(2, transactionManager.determineTimeout(new DefaultTransactionDefinition()));
+    }
+
+    @Test
+    void determineTimeout_whenBudgetHasFraction_shouldRoundItUp() {
+        deadlineIn(1200);
+        assertEquals(3, transactionManager.determineTimeout(new DefaultTransactionDefinition()));
+    }
+
+    @Test
+    void determineTimeout_whenDefinitionTimeoutIsShorter_shouldKeepIt() {
+        deadlineIn(10_000);
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setTimeout(5);
+        assertEquals(5, transactionManager.determineTimeout(definition));
+    }
+
+    private static void deadlineIn(long millis) {
+        RequestDeadline.set(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+}
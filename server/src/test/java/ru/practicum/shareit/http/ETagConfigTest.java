@@ -0,0 +1,93 @@
+package ru.practicum.shareit.http;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.exeption.ExceptionResolver;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+import ru.practicum.shareit.user.controller.UserController;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest({UserController.class, ExceptionResolver.class})
+@Import(ETagConfig.class)
+class ETagConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserService userService;
+
+    @Test
+    @SneakyThrows
+    void getById_whenETagMatches_shouldAnswerNotModifiedWithoutBody() {
+        when(userService.getUserById(1L))
+                .thenReturn(new UserDto(1L, "Name", "name@email.com"));
+        String eTag = mockMvc.perform(get("/users/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        mockMvc.perform(get("/users/{id}", 1).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @SneakyThrows
+    void getById_whenResourceChanged_shouldAnswerWithNewBodyAndETag() {
+        when(userService.getUserById(1L))
+                .thenReturn(new UserDto(1L, "Name", "name@email.com"));
+        String eTag = mockMvc.perform(get("/users/{id}", 1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        when(userService.getUserById(1L))
+                .thenReturn(new UserDto(1L, "Renamed", "name@email.com"));
+        mockMvc.perform(get("/users/{id}", 1).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(content().json("{\"id\":1,\"name\":\"Renamed\",\"email\":\"name@email.com\"}"));
+    }
+
+    @Test
+    @SneakyThrows
+    void getList_shouldNotTagResponse() {
+        when(userService.getAllUsers(OffsetPageRequest.of(0, 20, Sort.by("id"))))
+                .thenReturn(List.of());
+        mockMvc.perform(get("/users?from=0&size=20"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    @SneakyThrows
+    void patch_shouldNotTagResponse() {
+        when(userService.patchUserById(eq(1L), any(UserDto.class)))
+                .thenReturn(new UserDto(1L, "Renamed", "name@email.com"));
+        mockMvc.perform(patch("/users/{id}", 1)
+                        .contentType("application/json")
+                        .content("{\"name\":\"Renamed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+}
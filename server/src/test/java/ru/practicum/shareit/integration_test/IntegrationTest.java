@@ -1,5 +1,7 @@
 package ru.practicum.shareit.integration_test;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,14 +32,19 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@SpringBootTest
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.item-card-cache.enabled=false"})
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 @Transactional
 public class IntegrationTest {
@@ -53,6 +60,12 @@ public class IntegrationTest {
 
     @Autowired
     private BookingService bookingService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
     private final Pageable pageable = PageRequest.of(0, 20);
     private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusHours(1);
     private final User owner = new User(
@@ -153,6 +166,7 @@ public class IntegrationTest {
             "Comment text",
             item,
             booker,
+            "Booker name",
             null);
     private final IncomingCommentDto incomingCommentDto = new IncomingCommentDto(
             null,
@@ -176,6 +190,8 @@ public class IntegrationTest {
         bookingService.patchBookingById(1L, 2L, true);
         bookingService.patchBookingById(1L, 3L, true);
         itemService.postComment(2L, 1L, incomingCommentDto);
+        entityManager.flush();
+        entityManager.clear();
         ownerDto.setId(1L);
         bookerDto.setId(2L);
         outgoingItemDto.setLastBooking(lastNextBookingDtoLast);
@@ -221,6 +237,14 @@ public class IntegrationTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    void patchUserById_whenNameChanged_shouldRenameCommentAuthor() {
+        bookerDto.setName("Renamed booker");
+        userService.patchUserById(2L, bookerDto);
+        List<OutgoingCommentDto> result = itemService.getItemDtoById(1L, 1L).getComments();
+        assertEquals("Renamed booker", result.get(0).getAuthorName());
+    }
+
     @Test
     void deleteUserById() {
         userService.deleteUserById(1L);
@@ -247,6 +271,17 @@ public class IntegrationTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    void getItemDtoById_shouldTakeAtMostTwoStatements() {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        OutgoingItemDto result = itemService.getItemDtoById(1L, 1L);
+        assertEquals(outgoingItemDto, result);
+        assertTrue(statistics.getPrepareStatementCount() <= 2,
+                statistics.getPrepareStatementCount() + " statements");
+    }
+
     @Test
     void getItemsBySearch() {
         outgoingItemDto.setLastBooking(null);
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.item.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.LastNextBookingDto;
+import ru.practicum.shareit.comment.dto.OutgoingCommentDto;
+import ru.practicum.shareit.item.dto.OutgoingItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.repository.ItemDetail;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemCardCacheTest {
+
+    private static final long OWNER = 1L;
+    private static final long VIEWER = 2L;
+
+    private final List<OutgoingCommentDto> comments = List.of(new OutgoingCommentDto(
+            1L,
+            "Comment text",
+            "Author name",
+            LocalDateTime.of(2000, 1, 1, 1, 1, 1)));
+    private SimpleMeterRegistry meterRegistry;
+    private ItemCardCache cache;
+
+    @BeforeEach
+    void setCache() {
+        ItemCardCacheProperties properties = new ItemCardCacheProperties();
+        properties.setEnabled(true);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemCardCache(properties, meterRegistry);
+    }
+
+    @Test
+    void get_whenDisabled_shouldNotCache() {
+        cache = new ItemCardCache(new ItemCardCacheProperties(), meterRegistry);
+        cache.put(cache.generation(), OWNER, itemDetail(LocalDateTime.now().plusDays(1)), comments);
+        assertFalse(cache.get(OWNER, 1L).isPresent());
+    }
+
+    @Test
+    void get_whenOwnerLoadedCard_shouldReturnBookingsToOwnerOnly() {
+        cache.put(cache.generation(), OWNER, itemDetail(LocalDateTime.now().plusDays(1)), comments);
+        OutgoingItemDto ownerCard = cache.get(OWNER, 1L).orElseThrow();
+        assertEquals(new LastNextBookingDto(10L, VIEWER), ownerCard.getLastBooking());
+        assertEquals(new LastNextBookingDto(11L, VIEWER), ownerCard.getNextBooking());
+        assertEquals(comments, ownerCard.getComments());
+        OutgoingItemDto viewerCard = cache.get(VIEWER, 1L).orElseThrow();
+        assertEquals(null, viewerCard.getLastBooking());
+        assertEquals(null, viewerCard.getNextBooking());
+        assertEquals(comments, viewerCard.getComments());
+    }
+
+    @Test
+    void get_whenOnlyViewerLoadedCard_shouldMissForOwner() {
+        cache.put(cache.generation(), VIEWER, itemDetail(null), comments);
+        assertTrue(cache.get(VIEWER, 1L).isPresent());
+        assertFalse(cache.get(OWNER, 1L).isPresent());
+    }
+
+    @Test
+    void get_whenNextBookingHasStarted_shouldMissForOwner() {
+        cache.put(cache.generation(), OWNER, itemDetail(LocalDateTime.now().minusSeconds(1)), comments);
+        assertFalse(cache.get(OWNER, 1L).isPresent());
+        assertTrue(cache.get(VIEWER, 1L).isPresent());
+    }
+
+    @Test
+    void onItemChanged_whenBookingsOnly_shouldKeepCard() {
+        cache.put(cache.generation(), OWNER, itemDetail(LocalDateTime.now().plusDays(1)), comments);
+        cache.onItemChanged(ItemChangedEvent.bookings(1L));
+        assertFalse(cache.get(OWNER, 1L).isPresent());
+        assertTrue(cache.get(VIEWER, 1L).isPresent());
+    }
+
+    @Test
+    void onItemChanged_whenItem_shouldDropCardAndBookings() {
+        cache.put(cache.generation(), OWNER, itemDetail(LocalDateTime.now().plusDays(1)), comments);
+        cache.onItemChanged(ItemChangedEvent.item(1L));
+        assertFalse(cache.get(OWNER, 1L).isPresent());
+        assertFalse(cache.get(VIEWER, 1L).isPresent());
+    }
+
+    @Test
+    void onItemChanged_whenAllItems_shouldDropEveryCard() {
+        cache.put(cache.generation(), VIEWER, itemDetail(null), comments);
+        cache.onItemChanged(ItemChangedEvent.allItems());
+        assertFalse(cache.get(VIEWER, 1L).isPresent());
+    }
+
+    @Test
+    void put_whenChangedWhileLoading_shouldNotStoreCard() {
+        long generation = cache.generation();
+        cache.onItemChanged(ItemChangedEvent.item(2L));
+        cache.put(generation, VIEWER, itemDetail(null), comments);
+        assertFalse(cache.get(VIEWER, 1L).isPresent());
+    }
+
+    @Test
+    void get_shouldRecordHitRatioAndAge() {
+        cache.get(VIEWER, 1L);
+        cache.put(cache.generation(), VIEWER, itemDetail(null), comments);
+        cache.get(VIEWER, 1L);
+        assertEquals(0.5, meterRegistry.get("server.item.card.cache.hit.ratio").gauge().value());
+        assertEquals(1, meterRegistry.get("server.item.card.cache.age").timer().count());
+    }
+
+    private static ItemDetail itemDetail(LocalDateTime nextStart) {
+        return new ItemDetail(1L, "Drill", "Cordless drill", true, null, OWNER, true,
+                10L, VIEWER, 11L, VIEWER, nextStart);
+    }
+
+}
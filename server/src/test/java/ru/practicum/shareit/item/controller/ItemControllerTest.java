@@ -6,7 +6,6 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -16,6 +15,7 @@ import ru.practicum.shareit.exeption.ExceptionResolver;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
 import ru.practicum.shareit.item.dto.OutgoingItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -53,13 +53,13 @@ class ItemControllerTest {
                 null,
                 List.of(),
                 2L);
-        when(itemService.getAllOwnerItems(3L, PageRequest.of(0, 20, sortByStartDesc)))
+        when(itemService.getAllOwnerItems(3L, OffsetPageRequest.of(0, 20, sortByStartDesc)))
                 .thenReturn(List.of(outgoingItemDto));
         mockMvc.perform(get("/items?from=0&size=20")
                         .header(header, 3))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(List.of(outgoingItemDto))));
-        verify(itemService).getAllOwnerItems(3L, PageRequest.of(0, 20, sortByStartDesc));
+        verify(itemService).getAllOwnerItems(3L, OffsetPageRequest.of(0, 20, sortByStartDesc));
     }
 
     @Test
@@ -95,13 +95,13 @@ class ItemControllerTest {
                 null,
                 List.of(),
                 2L);
-        when(itemService.getItemsBySearch(3L, "SomeText", PageRequest.of(0, 20)))
+        when(itemService.getItemsBySearch(3L, "SomeText", OffsetPageRequest.of(0, 20)))
                 .thenReturn(List.of(outgoingItemDto));
         mockMvc.perform(get("/items/search?from=0&size=20&text=SomeText")
                         .header(header, 3))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(List.of(outgoingItemDto))));
-        verify(itemService).getItemsBySearch(3L, "SomeText", PageRequest.of(0, 20));
+        verify(itemService).getItemsBySearch(3L, "SomeText", OffsetPageRequest.of(0, 20));
     }
 
     @Test
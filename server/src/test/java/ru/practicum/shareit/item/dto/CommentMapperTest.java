@@ -23,12 +23,13 @@ class CommentMapperTest {
                         2L,
                         "Author name",
                         "author@email.com"),
+                "Author name",
                 LocalDateTime.of(2000, 1, 1, 1, 1, 1));
         OutgoingCommentDto result = CommentMapper.mapCommentToOutgoingDto(comment);
         assertEquals(comment.getId(), result.getId());
         assertEquals(comment.getText(), result.getText());
         assertEquals(comment.getCreated(), result.getCreated());
-        assertEquals(comment.getAuthor().getName(), result.getAuthorName());
+        assertEquals(comment.getAuthorName(), result.getAuthorName());
     }
 
     @Test
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.item.index;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of substring search over {@code items} items: the trigram index against the LIKE query it replaces,
+ * run on an in-memory H2 table. Common words fill the page early; a rare one makes the query scan every row.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+
+    private static final String[] WORDS = {"drill", "hammer", "saw", "ladder", "tent", "bike", "kayak", "grill",
+            "mixer", "projector", "camera", "tripod", "sander", "jigsaw", "wrench", "pump", "stroller", "table"};
+
+    @Param({"10000", "100000"})
+    private int items;
+
+    @Param({"jigsaw", "sa", "77777"})
+    private String text;
+
+    private TrigramIndex index;
+    private Connection connection;
+    private PreparedStatement likeQuery;
+
+    @Setup
+    public void setUp() throws SQLException {
+        index = new TrigramIndex();
+        connection = DriverManager.getConnection("jdbc:h2:mem:benchmark");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE items (id BIGINT PRIMARY KEY, name VARCHAR(255), " +
+                    "description VARCHAR(512), available BOOLEAN)");
+        }
+        Random random = new Random(42);
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO items VALUES (?, ?, ?, ?)")) {
+            for (long id = 1; id <= items; id++) {
+                String name = WORDS[random.nextInt(WORDS.length)] + " " + id;
+                String description = "Good " + WORDS[random.nextInt(WORDS.length)] + " and "
+                        + WORDS[random.nextInt(WORDS.length)] + ", ask the owner";
+                boolean available = random.nextInt(4) != 0;
+                index.put(id, id % 100, name, description, available);
+                insert.setLong(1, id);
+                insert.setString(2, name);
+                insert.setString(3, description);
+                insert.setBoolean(4, available);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        likeQuery = connection.prepareStatement("SELECT id FROM items WHERE available = TRUE " +
+                "AND (LOWER(name) LIKE ? OR LOWER(description) LIKE ?) ORDER BY id LIMIT 20");
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public List<Long> trigramIndex() {
+        return index.search(text, 0, 20);
+    }
+
+    @Benchmark
+    public List<Long> likeQuery() throws SQLException {
+        String pattern = "%" + text + "%";
+        likeQuery.setString(1, pattern);
+        likeQuery.setString(2, pattern);
+        List<Long> found = new ArrayList<>(20);
+        try (ResultSet resultSet = likeQuery.executeQuery()) {
+            while (resultSet.next()) {
+                found.add(resultSet.getLong(1));
+            }
+        }
+        return found;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ItemSearchBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.item.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@Transactional
+@DataJpaTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class ItemTrigramIndexTest {
+
+    private static final List<String> QUERIES = List.of(
+            "drill", "DRILL", "ril", "power drill", "drill power", "wi-fi", "Дрель", "50%", "a_b", "\\", "x", "",
+            "nothing like it");
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    private ItemTrigramIndex itemTrigramIndex;
+
+    @BeforeEach
+    void setItems() {
+        User owner = userRepository.save(new User(null, "Owner name", "owner@email.com"));
+        itemRepository.save(new Item(null, "Power drill", "Drills concrete", true, null, owner));
+        itemRepository.save(new Item(null, "Drill", "Cordless, power drill included", true, null, owner));
+        itemRepository.save(new Item(null, "Hidden drill", "Not available", false, null, owner));
+        itemRepository.save(new Item(null, "Wi-Fi router", "Dual band", true, null, owner));
+        itemRepository.save(new Item(null, "Дрель", "Ударная ДРЕЛЬ", true, null, owner));
+        itemRepository.save(new Item(null, "Sale", "50% off, a_b and back\\slash", true, null, owner));
+        itemRepository.save(new Item(null, "Sale copy", "500 off, axb", true, null, owner));
+        itemRepository.save(new Item(null, "Box", "Xylophone", true, null, owner));
+        itemTrigramIndex = new ItemTrigramIndex(itemRepository, true);
+    }
+
+    @Test
+    void search_whenIndexIsNotBuilt_shouldReturnNull() {
+        assertFalse(itemTrigramIndex.isReady());
+        assertNull(itemTrigramIndex.search("drill", PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void search_shouldAnswerLikeRepositorySubstringSearch() {
+        itemTrigramIndex.rebuild();
+        for (Pageable pageable : List.of(PageRequest.of(0, 20), PageRequest.of(1, 1))) {
+            for (String query : QUERIES) {
+                List<Long> expected = itemRepository.searchAvailableBySubstring(query, pageable)
+                        .stream()
+                        .map(Item::getId)
+                        .collect(toList());
+                assertEquals(expected, itemTrigramIndex.search(query, pageable), query + " " + pageable);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.item.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class TrigramIndexTest {
+
+    private TrigramIndex index;
+
+    @BeforeEach
+    void setIndex() {
+        index = new TrigramIndex();
+        index.put(1L, 1L, "Drill", "Cordless drill with two batteries", true);
+        index.put(2L, 1L, "Hammer", "Claw hammer", true);
+        index.put(3L, 2L, "Screwdriver", "Electric DRILL driver", false);
+        index.put(4L, 2L, "Saw", "Hand saw for drilling holes? No", true);
+    }
+
+    @Test
+    void search_whenTextInNameOrDescription_shouldReturnAvailableItemsIgnoringCase_inIdOrder() {
+        assertEquals(List.of(1L, 4L), index.search("dRiLL", 0, 20));
+    }
+
+    @Test
+    void search_whenTrigramsMatchButSubstringDoesNot_shouldNotReturnItem() {
+        index.put(5L, 3L, "Rill dri", "", true);
+        assertEquals(List.of(1L, 4L), index.search("drill", 0, 20));
+    }
+
+    @Test
+    void search_whenTextShorterThanTrigram_shouldCheckAllAvailableItems() {
+        assertEquals(List.of(2L, 4L), index.search("aw", 0, 20));
+    }
+
+    @Test
+    void search_whenOffsetAndLimit_shouldReturnPage() {
+        assertEquals(List.of(4L), index.search("drill", 1, 1));
+        assertEquals(List.of(), index.search("drill", 2, 20));
+    }
+
+    @Test
+    void put_whenItemChanged_shouldReplaceIndexedTextAndAvailability() {
+        index.put(1L, 1L, "Ladder", "Folding ladder", true);
+        index.put(3L, 2L, "Screwdriver", "Electric drill driver", true);
+        assertEquals(List.of(3L, 4L), index.search("drill", 0, 20));
+        assertEquals(List.of(1L), index.search("ladder", 0, 20));
+    }
+
+    @Test
+    void remove_whenItemOrOwnerRemoved_shouldNotReturnTheirItems() {
+        index.remove(1L);
+        assertEquals(List.of(4L), index.search("drill", 0, 20));
+        index.removeOwner(2L);
+        assertEquals(List.of(), index.search("drill", 0, 20));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void put_whenIdBeyondBitmap_shouldNotIndexItem_andReturnFalse() {
+        assertFalse(index.put(Integer.MAX_VALUE + 1L, 1L, "Drill", "Spare drill", true));
+        assertEquals(List.of(1L, 4L), index.search("drill", 0, 20));
+        assertEquals(4, index.size());
+    }
+
+}
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.comment.dto.OutgoingCommentDto;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -56,43 +57,76 @@ class CommentRepositoryTest {
                 "Comment text",
                 item,
                 author,
+                "Author name",
                 LocalDateTime.of(2000,1,1,1,1,1));
     }
 
     @Test
-    void findByItemId_whenCommentPresent_shouldReturnCommentList() {
+    void findItemCommentsByItemIdIn_whenCommentPresent_shouldReturnItemCommentList() {
         userRepository.save(user);
         userRepository.save(author);
         itemRepository.save(item);
         commentRepository.save(comment);
-        List<Comment> result = commentRepository.findByItemId(1L);
-        List<Comment> expected = List.of(comment);
-        assertNotNull(result);
-        assertEquals(expected, result);
+        List<ItemComment> result = commentRepository.findItemCommentsByItemIdIn(List.of(item.getId()));
+        assertEquals(1, result.size());
+        assertEquals(item.getId(), result.get(0).getItemId());
+        assertEquals(comment.getId(), result.get(0).getId());
+        assertEquals("Comment text", result.get(0).getText());
+        assertEquals("Author name", result.get(0).getAuthorName());
+        assertEquals(LocalDateTime.of(2000, 1, 1, 1, 1, 1), result.get(0).getCreated());
     }
 
     @Test
-    void findByItemId_whenCommentNotPresent_shouldReturnAnEmptyCommentList() {
-        List<Comment> result = commentRepository.findByItemId(1L);
+    void findItemCommentsByItemIdIn_whenCommentNotPresent_shouldReturnAnEmptyList() {
+        List<ItemComment> result = commentRepository.findItemCommentsByItemIdIn(List.of(1L));
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
 
     @Test
-    void findByItemIdIn_whenCommentPresent_shouldReturnCommentList() {
+    void findCommentedItemIds_shouldReturnEachItemTheAuthorCommentedOnce() {
         userRepository.save(user);
         userRepository.save(author);
         itemRepository.save(item);
+        Item otherItem = itemRepository.save(new Item(null, "Other item", "Other description", true, null, user));
         commentRepository.save(comment);
-        List<Comment> result = commentRepository.findByItemIdIn(List.of(1L));
-        List<Comment> expected = List.of(comment);
-        assertNotNull(result);
+        commentRepository.save(new Comment(null, "Second comment", item, author, "Author name",
+                LocalDateTime.of(2000, 1, 2, 1, 1, 1)));
+        commentRepository.save(new Comment(null, "Owner comment", otherItem, user, "User name",
+                LocalDateTime.of(2000, 1, 3, 1, 1, 1)));
+        assertEquals(List.of(item.getId()), commentRepository.findCommentedItemIds(author.getId()));
+        assertEquals(List.of(otherItem.getId()), commentRepository.findCommentedItemIds(user.getId()));
+    }
+
+    @Test
+    void updateAuthorName_whenAuthorHasComments_shouldRenameThem() {
+        userRepository.save(user);
+        userRepository.save(author);
+        itemRepository.save(item);
+        commentRepository.save(comment);
+        assertEquals(1, commentRepository.updateAuthorName(author.getId(), "Renamed author"));
+        assertEquals("Renamed author",
+                commentRepository.findOutgoingDtosByItemId(item.getId()).get(0).getAuthorName());
+    }
+
+    @Test
+    void findOutgoingDtosByItemId_whenCommentPresent_shouldReturnDtoWithAuthorName() {
+        userRepository.save(user);
+        userRepository.save(author);
+        itemRepository.save(item);
+        commentRepository.save(comment);
+        List<OutgoingCommentDto> result = commentRepository.findOutgoingDtosByItemId(item.getId());
+        List<OutgoingCommentDto> expected = List.of(new OutgoingCommentDto(
+                comment.getId(),
+                "Comment text",
+                "Author name",
+                LocalDateTime.of(2000, 1, 1, 1, 1, 1)));
         assertEquals(expected, result);
     }
 
     @Test
-    void findByItemIdIn_whenCommentNotPresent_shouldReturnAnEmptyCommentList() {
-        List<Comment> result = commentRepository.findByItemIdIn(List.of(1L));
+    void findOutgoingDtosByItemId_whenCommentNotPresent_shouldReturnAnEmptyList() {
+        List<OutgoingCommentDto> result = commentRepository.findOutgoingDtosByItemId(1L);
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
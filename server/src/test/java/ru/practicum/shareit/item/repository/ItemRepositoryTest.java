@@ -8,6 +8,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.Request;
@@ -34,6 +38,12 @@ class ItemRepositoryTest {
 
     @Autowired
     RequestRepository requestRepository;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
+    @Autowired
+    CommentRepository commentRepository;
     private final Pageable pageable = PageRequest.of(0, 20);
     private User owner;
     private User requester;
@@ -88,6 +98,123 @@ class ItemRepositoryTest {
         assertEquals(expected, result);
     }
 
+    @Test
+    void findOwnerItemsWithBookings_whenBookingsArePresent_shouldReturnLastAndNextApprovedPerItem() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+        userRepository.save(owner);
+        userRepository.save(requester);
+        item.setRequest(null);
+        Item second = new Item(null, "Second", "Second description", true, null, owner);
+        Item third = new Item(null, "Third", "Third description", true, null, owner);
+        itemRepository.save(item);
+        itemRepository.save(second);
+        itemRepository.save(third);
+        Booking past = bookingRepository.save(new Booking(null, now.minusDays(5), now.minusDays(4), item,
+                requester, BookingStatus.APPROVED));
+        Booking latestPast = bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(1), item,
+                requester, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item,
+                requester, BookingStatus.REJECTED));
+        Booking later = bookingRepository.save(new Booking(null, now.plusDays(4), now.plusDays(5), item,
+                requester, BookingStatus.APPROVED));
+        Booking soonest = bookingRepository.save(new Booking(null, now.plusDays(2), now.plusDays(3), item,
+                requester, BookingStatus.APPROVED));
+        Booking secondNext = bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), second,
+                requester, BookingStatus.APPROVED));
+        commentRepository.save(new Comment(null, "First", item, requester, requester.getName(), now));
+        commentRepository.save(new Comment(null, "Second", item, requester, requester.getName(), now));
+        List<OwnerItem> result = itemRepository.findOwnerItemsWithBookings(owner.getId(), 0L, now, 0L, 20);
+        assertEquals(3, result.size());
+        assertEquals(item.getId(), result.get(0).getId());
+        assertEquals(latestPast.getId(), result.get(0).getLastBookingId());
+        assertEquals(requester.getId(), result.get(0).getLastBookerId());
+        assertEquals(soonest.getId(), result.get(0).getNextBookingId());
+        assertEquals(2L, result.get(0).getCommentCount());
+        assertEquals(second.getId(), result.get(1).getId());
+        assertNull(result.get(1).getLastBookingId());
+        assertEquals(secondNext.getId(), result.get(1).getNextBookingId());
+        assertEquals(0L, result.get(1).getCommentCount());
+        assertEquals(third.getId(), result.get(2).getId());
+        assertNull(result.get(2).getLastBookingId());
+        assertNull(result.get(2).getNextBookingId());
+        assertNotEquals(past.getId(), result.get(0).getLastBookingId());
+        assertNotEquals(later.getId(), result.get(0).getNextBookingId());
+    }
+
+    @Test
+    void findOwnerItemsWithBookings_whenAfterIdAndOffset_shouldReturnPageInIdOrder() {
+        userRepository.save(owner);
+        item.setRequest(null);
+        Item second = new Item(null, "Second", "Second description", true, null, owner);
+        Item third = new Item(null, "Third", "Third description", false, null, owner);
+        itemRepository.save(item);
+        itemRepository.save(second);
+        itemRepository.save(third);
+        List<OwnerItem> afterFirst = itemRepository.findOwnerItemsWithBookings(owner.getId(), item.getId(),
+                LocalDateTime.now(), 0L, 1);
+        assertEquals(1, afterFirst.size());
+        assertEquals(second.getId(), afterFirst.get(0).getId());
+        List<OwnerItem> secondPage = itemRepository.findOwnerItemsWithBookings(owner.getId(), 0L,
+                LocalDateTime.now(), 2L, 2);
+        assertEquals(1, secondPage.size());
+        assertEquals(third.getId(), secondPage.get(0).getId());
+        assertEquals("Third", secondPage.get(0).getName());
+        assertFalse(secondPage.get(0).getAvailable());
+    }
+
+    @Test
+    void findItemDetail_whenOwner_shouldReturnLastAndNextApprovedBooking() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+        userRepository.save(owner);
+        userRepository.save(requester);
+        requestRepository.save(request);
+        itemRepository.save(item);
+        bookingRepository.save(new Booking(null, now.minusDays(5), now.minusDays(4), item,
+                requester, BookingStatus.APPROVED));
+        Booking last = bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(1), item,
+                requester, BookingStatus.APPROVED));
+        bookingRepository.save(new Booking(null, now.plusDays(1), now.plusDays(2), item,
+                requester, BookingStatus.WAITING));
+        Booking next = bookingRepository.save(new Booking(null, now.plusDays(2), now.plusDays(3), item,
+                requester, BookingStatus.APPROVED));
+        Optional<ItemDetail> result = itemRepository.findItemDetail(owner.getId(), item.getId(), now);
+        assertTrue(result.isPresent());
+        assertEquals(new ItemDetail(item.getId(), "Item name", "Item description", true, request.getId(),
+                owner.getId(), true, last.getId(), requester.getId(), next.getId(), requester.getId(),
+                next.getStart()), result.get());
+    }
+
+    @Test
+    void findItemDetail_whenNotOwner_shouldReturnItemWithoutBookings() {
+        LocalDateTime now = LocalDateTime.of(2030, 1, 1, 12, 0);
+        userRepository.save(owner);
+        userRepository.save(requester);
+        item.setRequest(null);
+        itemRepository.save(item);
+        bookingRepository.save(new Booking(null, now.plusDays(2), now.plusDays(3), item,
+                requester, BookingStatus.APPROVED));
+        Optional<ItemDetail> result = itemRepository.findItemDetail(requester.getId(), item.getId(), now);
+        assertTrue(result.isPresent());
+        assertTrue(result.get().isUserExists());
+        assertNull(result.get().getLastBookingId());
+        assertNull(result.get().getNextBookingId());
+    }
+
+    @Test
+    void findItemDetail_whenUserIsNotPresent_shouldFlagIt() {
+        userRepository.save(owner);
+        item.setRequest(null);
+        itemRepository.save(item);
+        Optional<ItemDetail> result = itemRepository.findItemDetail(99L, item.getId(), LocalDateTime.now());
+        assertTrue(result.isPresent());
+        assertFalse(result.get().isUserExists());
+    }
+
+    @Test
+    void findItemDetail_whenItemIsNotPresent_shouldReturnAnEmptyOptional() {
+        assertTrue(itemRepository.findItemDetail(1L, 1L, LocalDateTime.now()).isEmpty());
+    }
+
     @Test
     void findByOwnerId_whenItemIsNotPresent_shouldReturnAnEmptyList() {
         List<Item> result = itemRepository.findByOwnerId(1L);
@@ -107,9 +234,7 @@ class ItemRepositoryTest {
         userRepository.save(owner);
         item.setRequest(null);
         itemRepository.save(item);
-        List<Item> result = itemRepository
-                .searchByTextInNameOrDescriptionAndAvailableTrue(
-                        "item name", "item name", pageable);
+        List<Item> result = itemRepository.searchAvailableByText("item name", pageable);
         List<Item> expected = List.of(item);
         assertNotNull(result);
         assertEquals(expected, result);
@@ -117,13 +242,42 @@ class ItemRepositoryTest {
 
     @Test
     void searchByText_whenItemIsNotPresent_shouldReturnAnEmptyList() {
-        List<Item> result = itemRepository
-                .searchByTextInNameOrDescriptionAndAvailableTrue(
-                        "item name", "item name", pageable);
+        List<Item> result = itemRepository.searchAvailableByText("item name", pageable);
         assertNotNull(result);
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void searchByText_whenSeveralWords_shouldMatchAllWords_andOrderByRank() {
+        userRepository.save(owner);
+        item.setRequest(null);
+        Item inDescription = new Item(null, "Drill", "Cordless item with a name plate", true, null, owner);
+        Item oneWordOnly = new Item(null, "Item", "Hammer", true, null, owner);
+        Item unavailable = new Item(null, "Item name", "Not for rent", false, null, owner);
+        itemRepository.save(inDescription);
+        itemRepository.save(oneWordOnly);
+        itemRepository.save(unavailable);
+        itemRepository.save(item);
+        List<Item> result = itemRepository.searchAvailableByText("NAME, item", pageable);
+        assertEquals(List.of(item, inDescription), result);
+    }
+
+    @Test
+    void findTextsAfter_whenItemsArePresent_shouldReturnNextTextsInIdOrder() {
+        userRepository.save(owner);
+        item.setRequest(null);
+        Item unavailable = new Item(null, "Drill", "Not for rent", false, null, owner);
+        itemRepository.save(item);
+        itemRepository.save(unavailable);
+        List<ItemText> result = itemRepository.findTextsAfter(item.getId(), pageable);
+        assertEquals(1, result.size());
+        assertEquals(unavailable.getId(), result.get(0).getId());
+        assertEquals(owner.getId(), result.get(0).getOwnerId());
+        assertEquals("Drill", result.get(0).getName());
+        assertEquals("Not for rent", result.get(0).getDescription());
+        assertFalse(result.get(0).getAvailable());
+    }
+
     @Test
     void findByIdAndOwnerId_whenItemIsPresent_shouldReturnOptionalOfItem() {
         userRepository.save(owner);
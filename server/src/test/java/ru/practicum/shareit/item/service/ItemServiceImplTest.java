@@ -6,9 +6,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -19,12 +20,20 @@ import ru.practicum.shareit.comment.dto.OutgoingCommentDto;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.exeption.NotAvailableItemException;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.cache.ItemCardCache;
 import ru.practicum.shareit.item.dto.IncomingItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.dto.OutgoingItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemTextChangedEvent;
+import ru.practicum.shareit.item.index.ItemTrigramIndex;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemComment;
+import ru.practicum.shareit.item.repository.ItemDetail;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.OwnerItem;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -33,11 +42,17 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -61,6 +76,15 @@ class ItemServiceImplTest {
 
     @Mock
     private RequestRepository requestRepository;
+
+    @Mock
+    private ItemTrigramIndex itemTrigramIndex;
+
+    @Mock
+    private ItemCardCache itemCardCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     private final Pageable pageable = PageRequest.of(0, 20);
     private User owner;
     private User author;
@@ -106,6 +130,7 @@ class ItemServiceImplTest {
                 "Comment text",
                 item,
                 author,
+                "Author name",
                 now);
         lastBooking = new Booking(
                 1L,
@@ -125,12 +150,10 @@ class ItemServiceImplTest {
 
     @Test
     void getAllOwnerItems_whenInvoke_shouldInvokeRepositoryMethods_andReturnItemList() {
-        when(itemRepository.findByOwnerId(1L, pageable))
-                .thenReturn(List.of(item));
-        when(commentRepository.findByItemIdIn(List.of(1L)))
-                .thenReturn(List.of(comment));
-        when(bookingRepository.findByItemIdIn(List.of(1L), pageable))
-                .thenReturn(List.of(lastBooking, nextBooking));
+        when(itemRepository.findOwnerItemsWithBookings(eq(1L), eq(0L), any(LocalDateTime.class), eq(0L), eq(20)))
+                .thenReturn(List.of(ownerItemOf(1L)));
+        when(commentRepository.findItemCommentsByItemIdIn(List.of(1L)))
+                .thenReturn(List.of(itemCommentOf(comment)));
         OutgoingItemDto outgoingItemDto = ItemMapper.mapItemToOutgoingDto(item);
         outgoingItemDto.setLastBooking(BookingMapper.mapBookingToLastNextDto(lastBooking));
         outgoingItemDto.setNextBooking(BookingMapper.mapBookingToLastNextDto(nextBooking));
@@ -141,61 +164,106 @@ class ItemServiceImplTest {
         assertNotNull(result);
         assertEquals(expected, result);
         verify(userRepository).checkUserById(1L);
-        verify(itemRepository).findByOwnerId(1L, pageable);
-        verify(bookingRepository).findByItemIdIn(List.of(1L), pageable);
+        verify(itemRepository).findOwnerItemsWithBookings(eq(1L), eq(0L), any(LocalDateTime.class), eq(0L), eq(20));
+        verify(commentRepository).findItemCommentsByItemIdIn(List.of(1L));
+    }
+
+    @Test
+    void getAllOwnerItems_whenNoComments_shouldNotQueryComments() {
+        when(itemRepository.findOwnerItemsWithBookings(eq(1L), eq(0L), any(LocalDateTime.class), eq(20L), eq(20)))
+                .thenReturn(List.of(ownerItemOf(0L)));
+        List<OutgoingItemDto> result = itemServiceImp.getAllOwnerItems(1L, PageRequest.of(1, 20));
+        assertEquals(1, result.size());
+        assertEquals(List.of(), result.get(0).getComments());
+        verify(commentRepository, never()).findItemCommentsByItemIdIn(anyList());
     }
 
     @Test
     void getItemDtoById_whenOwnerInvoke_shouldInvokeRepositoryMethods_andReturnItem() {
-        when(itemRepository.getItemById(1L))
-                .thenReturn(item);
-        when(bookingRepository.findFirstByItemIdAndStartIsBeforeAndStatusIs(anyLong(), any(LocalDateTime.class),
-                any(BookingStatus.class), any(Sort.class)))
-                .thenReturn(Optional.of(lastBooking));
-        when(bookingRepository.findFirstByItemIdAndStartIsAfterAndStatusIs(anyLong(), any(LocalDateTime.class),
-                any(BookingStatus.class), any(Sort.class)))
-                .thenReturn(Optional.of(nextBooking));
-        when(commentRepository.findByItemId(1L))
-                .thenReturn(List.of(comment));
+        when(itemRepository.findItemDetail(eq(1L), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(itemDetailOf(true)));
+        OutgoingCommentDto outgoingCommentDto = CommentMapper.mapCommentToOutgoingDto(comment);
+        when(commentRepository.findOutgoingDtosByItemId(1L))
+                .thenReturn(List.of(outgoingCommentDto));
         OutgoingItemDto expected = ItemMapper.mapItemToOutgoingDto(item);
         expected.setLastBooking(BookingMapper.mapBookingToLastNextDto(lastBooking));
         expected.setNextBooking(BookingMapper.mapBookingToLastNextDto(nextBooking));
-        OutgoingCommentDto outgoingCommentDto = CommentMapper.mapCommentToOutgoingDto(comment);
         expected.setComments(List.of(outgoingCommentDto));
         OutgoingItemDto result = itemServiceImp.getItemDtoById(1L, 1L);
         assertNotNull(result);
         assertEquals(expected, result);
-        verify(userRepository).checkUserById(1L);
-        verify(itemRepository).getItemById(1L);
-        verify(bookingRepository).findFirstByItemIdAndStartIsAfterAndStatusIs(anyLong(), any(LocalDateTime.class),
-                any(BookingStatus.class), any(Sort.class));
-        verify(bookingRepository).findFirstByItemIdAndStartIsBeforeAndStatusIs(anyLong(), any(LocalDateTime.class),
-                any(BookingStatus.class), any(Sort.class));
+        verify(itemRepository).findItemDetail(eq(1L), eq(1L), any(LocalDateTime.class));
+        verify(commentRepository).findOutgoingDtosByItemId(1L);
+        verify(userRepository, never()).checkUserById(anyLong());
+        verify(itemCardCache).put(0L, 1L, itemDetailOf(true), List.of(outgoingCommentDto));
     }
 
     @Test
-    void getItemDtoById_whenNotOwnerInvoke_shouldInvokeRepositoryMethods_andReturnItem() {
-        when(itemRepository.getItemById(1L))
-                .thenReturn(item);
-        when(commentRepository.findByItemId(1L))
-                .thenReturn(List.of(comment));
+    void getItemDtoById_whenCardIsCached_shouldOnlyCheckUser_andReturnCachedItem() {
         OutgoingItemDto expected = ItemMapper.mapItemToOutgoingDto(item);
+        when(itemCardCache.get(2L, 1L))
+                .thenReturn(Optional.of(expected));
+        OutgoingItemDto result = itemServiceImp.getItemDtoById(2L, 1L);
+        assertEquals(expected, result);
+        verify(userRepository).checkUserById(2L);
+        verify(itemRepository, never()).findItemDetail(anyLong(), anyLong(), any(LocalDateTime.class));
+        verify(commentRepository, never()).findOutgoingDtosByItemId(anyLong());
+    }
+
+    @Test
+    void getItemDtoById_whenNotOwnerInvoke_shouldInvokeRepositoryMethods_andReturnItem() {
+        when(itemRepository.findItemDetail(eq(2L), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(itemDetailOf(false)));
         OutgoingCommentDto outgoingCommentDto = CommentMapper.mapCommentToOutgoingDto(comment);
+        when(commentRepository.findOutgoingDtosByItemId(1L))
+                .thenReturn(List.of(outgoingCommentDto));
+        OutgoingItemDto expected = ItemMapper.mapItemToOutgoingDto(item);
         expected.setComments(List.of(outgoingCommentDto));
         OutgoingItemDto result = itemServiceImp.getItemDtoById(2L, 1L);
         assertNotNull(result);
         assertEquals(expected, result);
-        verify(userRepository).checkUserById(2L);
-        verify(itemRepository).getItemById(1L);
+        verify(itemRepository).findItemDetail(eq(2L), eq(1L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void getItemDtoById_whenUserIsNotPresent_shouldThrowNotFoundException() {
+        ItemDetail itemDetail = itemDetailOf(false);
+        itemDetail.setUserExists(false);
+        when(itemRepository.findItemDetail(eq(9L), eq(1L), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(itemDetail));
+        NotFoundException notFoundException = assertThrows(NotFoundException.class,
+                () -> itemServiceImp.getItemDtoById(9L, 1L));
+        assertEquals("There's no user with id 9", notFoundException.getMessage());
+        verify(commentRepository, never()).findOutgoingDtosByItemId(anyLong());
+    }
+
+    @Test
+    void getItemDtoById_whenItemIsNotPresent_shouldCheckUser_andThrowNotFoundException() {
+        when(itemRepository.findItemDetail(eq(1L), eq(9L), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+        NotFoundException notFoundException = assertThrows(NotFoundException.class,
+                () -> itemServiceImp.getItemDtoById(1L, 9L));
+        assertEquals("There's no item with id 9", notFoundException.getMessage());
+        verify(userRepository).checkUserById(1L);
+    }
+
+    @Test
+    void getAllOwnerItems_whenCursor_shouldInvokeKeysetRepositoryMethod() {
+        when(itemRepository.findOwnerItemsWithBookings(eq(1L), eq(7L), any(LocalDateTime.class), eq(0L), eq(20)))
+                .thenReturn(List.of(ownerItemOf(0L)));
+        List<OutgoingItemDto> result = itemServiceImp.getAllOwnerItems(1L, Cursor.after(7L), 20);
+        assertEquals(1, result.size());
+        assertEquals(item.getId(), result.get(0).getId());
+        verify(userRepository).checkUserById(1L);
+        verify(itemRepository).findOwnerItemsWithBookings(eq(1L), eq(7L), any(LocalDateTime.class), eq(0L), eq(20));
     }
 
     @Test
     void getItemsBySearch_whenInvoke_shouldInvokeRepositoryMethods_andReturnItemList() {
-        when(itemRepository.searchByTextInNameOrDescriptionAndAvailableTrue(
-                "item name", "item name", pageable))
+        when(itemRepository.searchAvailableByText("Item name", pageable))
                 .thenReturn(List.of(item));
-        when(commentRepository.findByItemIdIn(List.of(1L)))
-                .thenReturn(List.of(comment));
+        when(commentRepository.findItemCommentsByItemIdIn(List.of(1L)))
+                .thenReturn(List.of(itemCommentOf(comment)));
         OutgoingCommentDto outgoingCommentDto = CommentMapper.mapCommentToOutgoingDto(comment);
         OutgoingItemDto outgoingItemDto = ItemMapper.mapItemToOutgoingDto(item);
         outgoingItemDto.setComments(List.of(outgoingCommentDto));
@@ -203,9 +271,44 @@ class ItemServiceImplTest {
         List<OutgoingItemDto> result = itemServiceImp.getItemsBySearch(1L, "Item name", pageable);
         assertEquals(expected, result);
         verify(userRepository).checkUserById(1L);
-        verify(itemRepository).searchByTextInNameOrDescriptionAndAvailableTrue(
-                "item name", "item name", pageable);
-        verify(commentRepository).findByItemIdIn(List.of(1L));
+        verify(itemRepository).searchAvailableByText("Item name", pageable);
+        verify(commentRepository).findItemCommentsByItemIdIn(List.of(1L));
+    }
+
+    @Test
+    void getItemsBySearch_whenIndexIsReady_shouldLoadFoundItemsById_andNotSearchRepository() {
+        when(itemTrigramIndex.isEnabled())
+                .thenReturn(true);
+        when(itemTrigramIndex.search("Item name", pageable))
+                .thenReturn(List.of(1L));
+        when(itemRepository.findAllById(List.of(1L)))
+                .thenReturn(List.of(item));
+        when(commentRepository.findItemCommentsByItemIdIn(List.of(1L)))
+                .thenReturn(List.of());
+        OutgoingItemDto outgoingItemDto = ItemMapper.mapItemToOutgoingDto(item);
+        outgoingItemDto.setComments(List.of());
+        List<OutgoingItemDto> result = itemServiceImp.getItemsBySearch(1L, "Item name", pageable);
+        assertEquals(List.of(outgoingItemDto), result);
+        verify(itemTrigramIndex).search("Item name", pageable);
+        verify(itemRepository, never()).searchAvailableByText(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void getItemsBySearch_whenIndexIsEnabledButNotReady_shouldSearchRepositoryBySubstring() {
+        when(itemTrigramIndex.isEnabled())
+                .thenReturn(true);
+        when(itemTrigramIndex.search("Item name", pageable))
+                .thenReturn(null);
+        when(itemRepository.searchAvailableBySubstring("Item name", pageable))
+                .thenReturn(List.of(item));
+        when(commentRepository.findItemCommentsByItemIdIn(List.of(1L)))
+                .thenReturn(List.of());
+        OutgoingItemDto outgoingItemDto = ItemMapper.mapItemToOutgoingDto(item);
+        outgoingItemDto.setComments(List.of());
+        List<OutgoingItemDto> result = itemServiceImp.getItemsBySearch(1L, "Item name", pageable);
+        assertEquals(List.of(outgoingItemDto), result);
+        verify(itemTrigramIndex).search("Item name", pageable);
+        verify(itemRepository, never()).searchAvailableByText(anyString(), any(Pageable.class));
     }
 
     @Test
@@ -229,6 +332,7 @@ class ItemServiceImplTest {
         verify(userRepository).getUserById(1L);
         verify(requestRepository).findRequestById(1L);
         verify(itemRepository).save(item);
+        verify(eventPublisher).publishEvent(ItemTextChangedEvent.saved(item));
     }
 
     @Test
@@ -250,6 +354,7 @@ class ItemServiceImplTest {
         assertEquals(expected, result);
         verify(userRepository).getUserById(1L);
         verify(itemRepository).save(item);
+        verify(eventPublisher).publishEvent(ItemTextChangedEvent.saved(item));
     }
 
     @Test
@@ -273,7 +378,8 @@ class ItemServiceImplTest {
                 anyLong(), any(LocalDateTime.class), any(BookingStatus.class));
         verify(userRepository).getUserById(3L);
         verify(itemRepository).getItemById(1L);
-        verify(commentRepository).save(any(Comment.class));
+        verify(commentRepository).save(argThat(savedComment -> "Author name".equals(savedComment.getAuthorName())));
+        verify(eventPublisher).publishEvent(any(ItemChangedEvent.class));
     }
 
     @Test
@@ -310,6 +416,8 @@ class ItemServiceImplTest {
         assertEquals(expected, result);
         verify(itemRepository).getItemById(1L);
         verify(itemRepository).save(toSave);
+        verify(eventPublisher).publishEvent(ItemTextChangedEvent.saved(item));
+        verify(eventPublisher).publishEvent(any(ItemChangedEvent.class));
     }
 
     @Test
@@ -330,6 +438,8 @@ class ItemServiceImplTest {
         itemServiceImp.deleteItemById(1L, 1L);
         verify(itemRepository).findByIdAndOwnerId(1L, 1L);
         verify(itemRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(ItemTextChangedEvent.deleted(1L));
+        verify(eventPublisher).publishEvent(any(ItemChangedEvent.class));
     }
 
     @Test
@@ -347,19 +457,47 @@ class ItemServiceImplTest {
     void deleteAllOwnerItems_whenInvoke_shouldInvokeRepositoryMethod() {
         itemServiceImp.deleteAllOwnerItems(1L);
         verify(itemRepository).deleteByOwnerId(1L);
+        verify(eventPublisher).publishEvent(ItemTextChangedEvent.ownerDeleted(1L));
+        verify(eventPublisher).publishEvent(any(ItemChangedEvent.class));
     }
 
-    @Test
-    void getNextBookingByItemId_whenInvoke_shouldInvokeRepositoryMethod() {
-        itemServiceImp.getNextBookingByItemId(1L);
-        verify(bookingRepository).findFirstByItemIdAndStartIsAfterAndStatusIs(anyLong(), any(LocalDateTime.class),
-                any(BookingStatus.class), any(Sort.class));
+    private OwnerItem ownerItemOf(long commentCount) {
+        return new OwnerItem(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                request.getId(),
+                lastBooking.getId(),
+                lastBooking.getBooker().getId(),
+                nextBooking.getId(),
+                nextBooking.getBooker().getId(),
+                commentCount);
     }
 
-    @Test
-    void getLastBookingByItemId_whenInvoke_shouldInvokeRepositoryMethod() {
-        itemServiceImp.getLastBookingByItemId(1L);
-        verify(bookingRepository).findFirstByItemIdAndStartIsBeforeAndStatusIs(anyLong(), any(LocalDateTime.class),
-                any(BookingStatus.class), any(Sort.class));
+    private static ItemComment itemCommentOf(Comment comment) {
+        return new SpelAwareProxyProjectionFactory().createProjection(ItemComment.class, Map.of(
+                "itemId", comment.getItem().getId(),
+                "id", comment.getId(),
+                "text", comment.getText(),
+                "authorName", comment.getAuthorName(),
+                "created", comment.getCreated()));
     }
-}
\ No newline at end of file
+
+    private ItemDetail itemDetailOf(boolean asOwner) {
+        return new ItemDetail(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                request.getId(),
+                owner.getId(),
+                true,
+                asOwner ? lastBooking.getId() : null,
+                asOwner ? lastBooking.getBooker().getId() : null,
+                asOwner ? nextBooking.getId() : null,
+                asOwner ? nextBooking.getBooker().getId() : null,
+                asOwner ? nextBooking.getStart() : null);
+    }
+
+}
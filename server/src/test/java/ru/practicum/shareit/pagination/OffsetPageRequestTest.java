@@ -0,0 +1,41 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffsetPageRequestTest {
+
+    private final Sort sort = Sort.by("id");
+
+    @Test
+    void of_shouldKeepOffsetNotMultipleOfSize() {
+        Pageable pageable = OffsetPageRequest.of(5, 10, sort);
+        assertEquals(5, pageable.getOffset());
+        assertEquals(10, pageable.getPageSize());
+        assertEquals(0, pageable.getPageNumber());
+        assertEquals(sort, pageable.getSort());
+    }
+
+    @Test
+    void next_andPreviousOrFirst_shouldMoveBySizeFromOffset() {
+        Pageable pageable = OffsetPageRequest.of(5, 10, sort);
+        assertEquals(OffsetPageRequest.of(15, 10, sort), pageable.next());
+        assertEquals(OffsetPageRequest.of(0, 10, sort), pageable.previousOrFirst());
+        assertEquals(OffsetPageRequest.of(5, 10, sort), pageable.next().previousOrFirst());
+        assertTrue(pageable.hasPrevious());
+        assertFalse(pageable.first().hasPrevious());
+    }
+
+    @Test
+    void of_whenOffsetNegativeOrSizeZero_shouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> OffsetPageRequest.of(0, 0));
+    }
+
+}
@@ -7,11 +7,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exeption.ExceptionResolver;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.request.dto.IncomingRequestDto;
 import ru.practicum.shareit.request.dto.OutgoingRequestDto;
 import ru.practicum.shareit.request.service.RequestService;
@@ -39,7 +39,7 @@ class RequestControllerTest {
 
     @MockBean
     private RequestService requestService;
-    private final Sort sortByCreatingDesc = Sort.by(Sort.Direction.DESC, "created");
+    private final Sort sortByCreatingDesc = Sort.by(Sort.Direction.DESC, "created", "id");
     private OutgoingRequestDto outgoingRequestDto;
 
     @BeforeEach
@@ -56,26 +56,26 @@ class RequestControllerTest {
     @SneakyThrows
     void getAllRequesterRequests_whenInvoke_shouldInvokeRequestServiceMethod() {
         when(requestService.getAllRequesterRequests(1L,
-                PageRequest.of(0, 20, sortByCreatingDesc)))
+                OffsetPageRequest.of(0, 20, sortByCreatingDesc)))
                 .thenReturn(List.of(outgoingRequestDto));
         mockMvc.perform(get("/requests?from=0&size=20")
                         .header(header, 1))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(List.of(outgoingRequestDto))));
         verify(requestService).getAllRequesterRequests(1L,
-                PageRequest.of(0, 20, sortByCreatingDesc));
+                OffsetPageRequest.of(0, 20, sortByCreatingDesc));
     }
 
     @Test
     @SneakyThrows
     void getAllRequests_whenInvoke_shouldInvokeRequestServiceMethod() {
-        when(requestService.getAllRequests(1L, PageRequest.of(0, 20, sortByCreatingDesc)))
+        when(requestService.getAllRequests(1L, OffsetPageRequest.of(0, 20, sortByCreatingDesc)))
                 .thenReturn(List.of(outgoingRequestDto));
         mockMvc.perform(get("/requests/all?from=0&size=20")
                         .header(header, 1))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(List.of(outgoingRequestDto))));
-        verify(requestService).getAllRequests(1L, PageRequest.of(0, 20, sortByCreatingDesc));
+        verify(requestService).getAllRequests(1L, OffsetPageRequest.of(0, 20, sortByCreatingDesc));
     }
 
     @Test
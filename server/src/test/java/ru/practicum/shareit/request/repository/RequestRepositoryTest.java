@@ -82,6 +82,34 @@ class RequestRepositoryTest {
         assertEquals(List.of(request2), result);
     }
 
+    @Test
+    void findByRequesterIdBefore_whenRequestsArePresent_shouldReturnOlderOnes() {
+        userRepository.save(user);
+        Request older = new Request(null, "Older description", request.getCreated().minusDays(1L), user);
+        requestRepository.save(older);
+        requestRepository.save(request);
+        List<Request> result = requestRepository.findByRequesterIdBefore(user.getId(), request.getCreated(),
+                request.getId(), PageRequest.of(0, 20));
+        assertEquals(List.of(older), result);
+    }
+
+    @Test
+    void findByRequesterIdIsNotBefore_whenRequestsArePresent_shouldReturnOtherUsersOlderOnes() {
+        userRepository.save(user);
+        requestRepository.save(request);
+        User user2 = new User(null,
+                "Some name 2",
+                "Some description 2");
+        userRepository.save(user2);
+        Request sameTime = new Request(null, "Same time", request.getCreated(), user2);
+        Request newer = new Request(null, "Newer", request.getCreated().plusDays(1L), user2);
+        requestRepository.save(sameTime);
+        requestRepository.save(newer);
+        List<Request> result = requestRepository.findByRequesterIdIsNotBefore(user.getId(), newer.getCreated(),
+                newer.getId(), PageRequest.of(0, 20));
+        assertEquals(List.of(sameTime), result);
+    }
+
     @Test
     void findByRequesterIdIsNot_whenRequestIsNotPresent_shouldReturnAnEmptyList() {
         List<Request> result = requestRepository.findByRequesterId(1L,
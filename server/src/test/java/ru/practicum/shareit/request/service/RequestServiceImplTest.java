@@ -12,6 +12,7 @@ import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.dto.OutgoingItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.IncomingRequestDto;
 import ru.practicum.shareit.request.dto.OutgoingRequestDto;
 import ru.practicum.shareit.request.dto.RequestMapper;
@@ -102,6 +103,32 @@ class RequestServiceImplTest {
         verify(itemRepository).findByRequestIdIn(List.of(1L));
     }
 
+    @Test
+    void getAllRequesterRequests_whenCursor_shouldInvokeKeysetRepositoryMethod() {
+        Cursor after = Cursor.after(LocalDateTime.of(2001, 1, 1, 1, 1, 1), 7L);
+        when(requestRepository.findByRequesterIdBefore(2L, after.getPosition(), 7L, PageRequest.of(0, 20)))
+                .thenReturn(List.of(request));
+        when(itemRepository.findByRequestIdIn(List.of(1L)))
+                .thenReturn(List.of());
+        List<OutgoingRequestDto> result = requestServiceImp.getAllRequesterRequests(2L, after, 20);
+        assertEquals(1, result.size());
+        verify(userRepository).checkUserById(2L);
+        verify(requestRepository).findByRequesterIdBefore(2L, after.getPosition(), 7L, PageRequest.of(0, 20));
+    }
+
+    @Test
+    void getAllRequests_whenCursor_shouldInvokeKeysetRepositoryMethod() {
+        Cursor after = Cursor.after(LocalDateTime.of(2001, 1, 1, 1, 1, 1), 7L);
+        when(requestRepository.findByRequesterIdIsNotBefore(1L, after.getPosition(), 7L, PageRequest.of(0, 20)))
+                .thenReturn(List.of(request));
+        when(itemRepository.findByRequestIdIn(List.of(1L)))
+                .thenReturn(List.of());
+        List<OutgoingRequestDto> result = requestServiceImp.getAllRequests(1L, after, 20);
+        assertEquals(1, result.size());
+        verify(userRepository).checkUserById(1L);
+        verify(requestRepository).findByRequesterIdIsNotBefore(1L, after.getPosition(), 7L, PageRequest.of(0, 20));
+    }
+
     @Test
     void getRequestById_whenInvoke_shouldInvokeRepositoryMethods() {
         when(requestRepository.findRequestById(1L))
@@ -6,10 +6,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exeption.ExceptionResolver;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
@@ -40,12 +41,24 @@ class UserControllerTest {
                 null,
                 "Name",
                 "name@email.com");
-        when(userService.getAllUsers(PageRequest.of(0, 20)))
+        when(userService.getAllUsers(OffsetPageRequest.of(0, 20, Sort.by("id"))))
                 .thenReturn(List.of(userDto));
         mockMvc.perform(get("/users?from=0&size=20"))
                 .andExpect(status().isOk())
                 .andExpect(content().string(objectMapper.writeValueAsString(List.of(userDto))));
-        verify(userService).getAllUsers(PageRequest.of(0, 20));
+        verify(userService).getAllUsers(OffsetPageRequest.of(0, 20, Sort.by("id")));
+    }
+
+    @Test
+    @SneakyThrows
+    void getUserIds_whenInvoke_shouldInvokeUserServiceMethod_andReturnIds() {
+        when(userService.getUserIds(0L, 2))
+                .thenReturn(List.of(1L, 2L));
+        mockMvc.perform(get("/users/ids?size=2"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("[1,2]"));
+        verify(userService).getUserIds(0L, 2);
+        verify(userService, never()).getUserById(anyLong());
     }
 
     @Test
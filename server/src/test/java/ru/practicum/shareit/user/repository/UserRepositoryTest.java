@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exeption.NotFoundException;
@@ -42,6 +43,25 @@ class UserRepositoryTest {
         assertEquals(List.of(user), result);
     }
 
+    @Test
+    void findByIdGreaterThanOrderById_whenUsersArePresent_shouldReturnNextOnes() {
+        User first = userRepository.save(user);
+        User second = userRepository.save(new User(null, "Other name", "other@email.com"));
+        User third = userRepository.save(new User(null, "Third name", "third@email.com"));
+        List<User> result = userRepository.findByIdGreaterThanOrderById(first.getId(), PageRequest.of(0, 1));
+        assertEquals(List.of(second), result);
+        assertEquals(List.of(), userRepository.findByIdGreaterThanOrderById(third.getId(), PageRequest.of(0, 1)));
+    }
+
+    @Test
+    void findIdsAfter_whenUsersArePresent_shouldReturnNextIdsInOrder() {
+        User first = userRepository.save(user);
+        User second = userRepository.save(new User(null, "Other name", "other@email.com"));
+        User third = userRepository.save(new User(null, "Third name", "third@email.com"));
+        assertEquals(List.of(first.getId(), second.getId()), userRepository.findIdsAfter(0L, PageRequest.of(0, 2)));
+        assertEquals(List.of(third.getId()), userRepository.findIdsAfter(second.getId(), PageRequest.of(0, 2)));
+    }
+
     @Test
     void checkUserById_whenUserNotExists_shouldThrowNotFoundException() {
         NotFoundException notFoundException = assertThrows(NotFoundException.class,
@@ -2,11 +2,17 @@ package ru.practicum.shareit.user.service;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.event.ItemTextChangedEvent;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
@@ -14,6 +20,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,6 +34,12 @@ class UserServiceImplTest {
 
     @Mock
     private UserRepository userRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
     private final UserDto userDto = new UserDto(
             1L,
             "Some name",
@@ -46,6 +59,15 @@ class UserServiceImplTest {
         assertEquals(List.of(userDto), result);
     }
 
+    @Test
+    void getUserIds_whenInvoke_shouldInvokeUserRepository_andReturnIds() {
+        when(userRepository.findIdsAfter(0L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(1L, 2L));
+        List<Long> result = userServiceImpl.getUserIds(0L, 2);
+        verify(userRepository).findIdsAfter(0L, PageRequest.of(0, 2));
+        assertEquals(List.of(1L, 2L), result);
+    }
+
     @Test
     void getUserById_whenUserIsPresent_shouldInvokeUserRepository_andReturnUser() {
         when(userRepository.getUserById(1L))
@@ -89,12 +111,28 @@ class UserServiceImplTest {
                 .thenReturn(oldUser);
         when(userRepository.save(any(User.class)))
                 .thenReturn(expectedUser);
+        when(commentRepository.findCommentedItemIds(1L))
+                .thenReturn(List.of(3L, 5L));
         User result = UserMapper.mapDtoToUser(userServiceImpl.patchUserById(1L, UserMapper.mapUserToDto(oldUser)));
         verify(userRepository).getUserById(1L);
         verify(userRepository).save(any(User.class));
+        verify(commentRepository).updateAuthorName(1L, "Old name");
+        ArgumentCaptor<ItemChangedEvent> events = ArgumentCaptor.forClass(ItemChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertEquals(List.of(3L, 5L), events.getAllValues().stream()
+                .map(ItemChangedEvent::getItemId)
+                .collect(Collectors.toList()));
         assertEquals(expectedUser, result);
     }
 
+    @Test
+    void getAllUsers_whenCursor_shouldInvokeKeysetRepositoryMethod_andReturnUsers() {
+        when(userRepository.findByIdGreaterThanOrderById(0L, PageRequest.of(0, 20)))
+                .thenReturn(List.of(user));
+        List<UserDto> result = userServiceImpl.getAllUsers(Cursor.after(0L), 20);
+        assertEquals(List.of(userDto), result);
+    }
+
     @Test
     void deleteUserById_whenInvoke_shouldInvokeUserRepositoryMethod() {
         when(userRepository.getUserById(1L))
@@ -102,6 +140,8 @@ class UserServiceImplTest {
         userServiceImpl.deleteUserById(1L);
         verify(userRepository).getUserById(1L);
         verify(userRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(ItemTextChangedEvent.ownerDeleted(1L));
+        verify(eventPublisher).publishEvent(any(ItemChangedEvent.class));
     }
 
 }